@@ -0,0 +1,81 @@
+package com.dev.payment_service.dto;
+
+import com.dev.payment_service.enums.PaymentMethod;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request and response JSON handling as the web layer does it: polymorphic
+ * {@link PaymentDetails} resolved from the {@code type} property, Java time via the
+ * auto-registered modules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentRequestJsonBenchmark {
+
+    private static final String CARD_REQUEST = """
+            {"amount":99.99,"currency":"USD","paymentMethod":"CREDIT_CARD",
+             "details":{"type":"CREDIT_CARD","paymentMethodId":"pm_card_visa","cardHolder":"John Doe",
+                        "expiryMonth":"12","expiryYear":"2030"}}""";
+
+    private static final String BANK_REQUEST = """
+            {"amount":250.00,"currency":"EUR","paymentMethod":"BANK_TRANSFER",
+             "details":{"type":"BANK_TRANSFER","iban":"DE89370400440532013000","accountHolder":"John Doe",
+                        "email":"john@example.com"}}""";
+
+    private ObjectMapper objectMapper;
+    private byte[] cardRequest;
+    private byte[] bankRequest;
+    private PaymentInitiationRequest request;
+    private PaymentInitiationResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cardRequest = CARD_REQUEST.getBytes(StandardCharsets.UTF_8);
+        bankRequest = BANK_REQUEST.getBytes(StandardCharsets.UTF_8);
+        request = objectMapper.readValue(cardRequest, PaymentInitiationRequest.class);
+
+        response = PaymentInitiationResponse.builder()
+                .transactionId("12345")
+                .transactionReference("TXN-1A2B3C4D")
+                .amount(new BigDecimal("99.99"))
+                .currency("usd")
+                .status("COMPLETED")
+                .paymentMethod(PaymentMethod.CREDIT_CARD.name())
+                .createdAt(Instant.parse("2025-11-24T12:00:00Z"))
+                .provider("STRIPE")
+                .providerReferenceId("pi_3Nabc")
+                .build();
+    }
+
+    @Benchmark
+    public PaymentInitiationRequest readCardRequest() throws Exception {
+        return objectMapper.readValue(cardRequest, PaymentInitiationRequest.class);
+    }
+
+    @Benchmark
+    public PaymentInitiationRequest readBankRequest() throws Exception {
+        return objectMapper.readValue(bankRequest, PaymentInitiationRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,49 @@
+package com.dev.payment_service.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/** Conversions between request amounts and minor units for currencies with 0, 2 and 3 decimals. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"jpy", "usd", "kwd"})
+    public String currency;
+
+    private BigDecimal amount;
+    private long minorUnits;
+
+    @Setup
+    public void setUp() {
+        amount = new BigDecimal("1234");
+        minorUnits = CurrencyUnits.toMinor(amount, currency);
+    }
+
+    @Benchmark
+    public long toMinor() {
+        return CurrencyUnits.toMinor(amount, currency);
+    }
+
+    @Benchmark
+    public long toMinorRounded() {
+        return CurrencyUnits.toMinor(amount, currency, RoundingMode.HALF_EVEN);
+    }
+
+    @Benchmark
+    public BigDecimal toMajor() {
+        return CurrencyUnits.toMajor(minorUnits, currency);
+    }
+
+    @Benchmark
+    public Money moneyOf() {
+        return Money.of(amount, currency);
+    }
+}
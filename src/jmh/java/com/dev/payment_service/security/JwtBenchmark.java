@@ -0,0 +1,83 @@
+package com.dev.payment_service.security;
+
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification per authenticated request: the previous JwtUtil path (key and parser rebuilt
+ * on every call, token parsed three times) against {@link JwtTokenVerifier#verify} and a
+ * {@link VerifiedTokenCache} hit for a reused token. {@link #issueToken} is the login cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGenerationAndValidation1234567890";
+
+    private JwtTokenVerifier verifier;
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        verifier = new JwtTokenVerifier(SECRET);
+        jwtUtil = new JwtUtil(verifier, 3_600_000L);
+        user = new User();
+        user.setUsername("customer@test.com");
+        user.setUserRole(UserRole.CUSTOMER);
+        token = jwtUtil.generateToken(user);
+        tokenCache = new VerifiedTokenCache(verifier, 10_000);
+    }
+
+    @Benchmark
+    public String issueToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean perCallParser() {
+        // Filter's extractUsername, then validateToken's extractUsername and isTokenExpired
+        String username = legacyParse(token).getSubject();
+        return username.equals(legacyParse(token).getSubject())
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedTokenCache.VerifiedToken cachedToken() {
+        return tokenCache.resolve(token);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(legacyKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static SecretKey legacyKey() {
+        byte[] keyBytes = Decoders.BASE64.decode(Base64.getEncoder().encodeToString(SECRET.getBytes()));
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+}
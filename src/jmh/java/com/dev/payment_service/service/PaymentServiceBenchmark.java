@@ -0,0 +1,84 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.dto.PaymentInitiationResponse;
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.model.CurrencyUnits;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-row work of {@code GET /api/v1/payments}: filtering by status, date range and amount,
+ * and mapping to the response DTO, over a fixed mix of currencies and statuses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentServiceBenchmark {
+
+    private static final String[] CURRENCIES = {"usd", "eur", "jpy", "kwd"};
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private List<Transaction> transactions;
+    private Transaction transaction;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long[] minMinor;
+    private long[] maxMinor;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Instant now = Instant.parse("2025-11-24T12:00:00Z");
+        transactions = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Transaction tx = new Transaction();
+            tx.setId((long) i);
+            tx.setTransactionReference("TXN-" + i);
+            tx.setMoney(new Money(random.nextLong(1, 1_000_000), CURRENCIES[i % CURRENCIES.length]));
+            tx.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            tx.setPaymentMethod(i % 2 == 0 ? PaymentMethod.CREDIT_CARD : PaymentMethod.BANK_TRANSFER);
+            tx.setProvider("STRIPE");
+            tx.setProviderReferenceId("pi_" + i);
+            tx.setCreatedAt(now.minus(random.nextInt(0, 60), ChronoUnit.DAYS));
+            transactions.add(tx);
+        }
+        transaction = transactions.get(0);
+
+        startDate = LocalDate.parse("2025-10-25");
+        endDate = LocalDate.parse("2025-11-24");
+        minMinor = CurrencyUnits.boundsByExponent(new BigDecimal("100.00"), RoundingMode.CEILING);
+        maxMinor = CurrencyUnits.boundsByExponent(new BigDecimal("5000.00"), RoundingMode.FLOOR);
+    }
+
+    @Benchmark
+    public PaymentInitiationResponse mapResponse() {
+        return PaymentService.mapResponse(transaction);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1_000)
+    public int matchesFilters() {
+        int matches = 0;
+        for (Transaction tx : transactions) {
+            if (PaymentService.matchesFilters(tx, PaymentStatus.COMPLETED, startDate, endDate, minMinor, maxMinor)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
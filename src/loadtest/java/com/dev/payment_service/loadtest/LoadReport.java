@@ -0,0 +1,123 @@
+package com.dev.payment_service.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and outcome counts per {@link Operation}. Workers record concurrently;
+ * {@link #reset} discards the warm-up and {@link #summarize} reads the measured interval.
+ */
+final class LoadReport {
+
+    /** Status recorded when no HTTP response arrived (connect failure, timeout). */
+    static final int NO_RESPONSE = 0;
+
+    // Latencies in microseconds, clamped to a minute, as in LatencyHistograms
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<Operation, Series> series = new EnumMap<>(Operation.class);
+
+    LoadReport() {
+        for (Operation operation : Operation.values()) {
+            series.put(operation, new Series());
+        }
+    }
+
+    void record(Operation operation, long nanos, int status) {
+        Series target = series.get(operation);
+        long micros = Math.max(0, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+        target.recorder.recordValue(micros);
+        if (status != operation.expectedStatus()) {
+            target.errors.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+    }
+
+    void reset() {
+        for (Series each : series.values()) {
+            each.recorder.reset();
+            each.errors.clear();
+        }
+    }
+
+    /** Drains everything recorded since the last call or {@link #reset}. */
+    List<Row> summarize(Duration elapsed) {
+        List<Row> rows = new ArrayList<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        Map<Integer, Long> totalErrors = new TreeMap<>();
+        for (Map.Entry<Operation, Series> entry : series.entrySet()) {
+            Histogram histogram = entry.getValue().recorder.getIntervalHistogram();
+            Map<Integer, Long> errors = new TreeMap<>();
+            entry.getValue().errors.forEach((status, count) -> errors.put(status, count.sumThenReset()));
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histogram);
+            errors.forEach((status, count) -> totalErrors.merge(status, count, Long::sum));
+            rows.add(Row.of(entry.getKey().label(), histogram, errors, elapsed));
+        }
+        rows.add(Row.of("total", total, totalErrors, elapsed));
+        return rows;
+    }
+
+    static void print(List<Row> rows, PrintStream out) {
+        out.printf("%-32s %9s %9s %8s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "count", "ops/s", "errors%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors by status");
+        for (Row row : rows) {
+            out.printf("%-32s %9d %9.1f %8.2f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    row.operation(), row.count(), row.throughput(), row.errorPercent(),
+                    row.p50Millis(), row.p90Millis(), row.p99Millis(), row.p999Millis(), row.maxMillis(),
+                    row.errors().isEmpty() ? "-" : row.errors());
+        }
+    }
+
+    /** One line of the report; status {@value #NO_RESPONSE} counts requests that got no response. */
+    record Row(
+            String operation,
+            long count,
+            double throughput,
+            double errorPercent,
+            Map<Integer, Long> errors,
+            double p50Millis,
+            double p90Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis) {
+
+        static Row of(String operation, Histogram histogram, Map<Integer, Long> errors, Duration elapsed) {
+            long count = histogram.getTotalCount();
+            long errorCount = errors.values().stream().mapToLong(Long::longValue).sum();
+            return new Row(
+                    operation,
+                    count,
+                    count * 1000.0 / Math.max(1, elapsed.toMillis()),
+                    count == 0 ? 0 : errorCount * 100.0 / count,
+                    errors,
+                    millis(histogram.getValueAtPercentile(50.0)),
+                    millis(histogram.getValueAtPercentile(90.0)),
+                    millis(histogram.getValueAtPercentile(99.0)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    private static final class Series {
+        final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        final Map<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+    }
+}
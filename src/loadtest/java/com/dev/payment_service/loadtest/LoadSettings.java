@@ -0,0 +1,113 @@
+package com.dev.payment_service.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings from {@code key=value} arguments. Keys starting with {@code app.} are passed
+ * to the application with the prefix stripped, e.g. {@code app.logging.level.root=INFO}.
+ *
+ * @param rate           total operations per second across all workers; 0 runs closed-loop, each
+ *                       worker issuing its next request as soon as the previous one returns
+ * @param sampleInterval soak sampling period; zero disables the {@link SoakMonitor}
+ * @param stack          {@code servlet}, or {@code reactive} for the WebFlux deployment built with -Preactive
+ */
+record LoadSettings(
+        Duration warmup,
+        Duration duration,
+        int concurrency,
+        double rate,
+        Map<Operation, Integer> mix,
+        int webhookBurst,
+        Duration stripeLatency,
+        Path report,
+        double maxErrorPercent,
+        Duration sampleInterval,
+        String stack,
+        Map<String, Object> appProperties) {
+
+    static final String SERVLET = "servlet";
+    static final String REACTIVE = "reactive";
+
+    static final String DEFAULT_MIX = "card:40,sepa:10,duplicate:10,get:25,list:5,webhook:10";
+
+    static LoadSettings parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<String, Object> appProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            if (key.startsWith("app.")) {
+                appProperties.put(key.substring("app.".length()), value);
+            } else {
+                values.put(key, value);
+            }
+        }
+
+        String report = take(values, "report", null);
+        LoadSettings settings = new LoadSettings(
+                DurationStyle.detectAndParse(take(values, "warmup", "15s")),
+                DurationStyle.detectAndParse(take(values, "duration", "60s")),
+                Integer.parseInt(take(values, "concurrency", "32")),
+                Double.parseDouble(take(values, "rate", "0")),
+                mix(take(values, "mix", DEFAULT_MIX)),
+                Integer.parseInt(take(values, "webhook-burst", "20")),
+                DurationStyle.detectAndParse(take(values, "stripe-latency", "50ms")),
+                report != null ? Path.of(report) : null,
+                Double.parseDouble(take(values, "max-error-percent", "1")),
+                DurationStyle.detectAndParse(take(values, "sample-interval", "0s")),
+                take(values, "stack", SERVLET),
+                appProperties);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown settings: " + values.keySet());
+        }
+        if (settings.concurrency() < 1 || settings.webhookBurst() < 1) {
+            throw new IllegalArgumentException("concurrency and webhook-burst must be positive");
+        }
+        if (!SERVLET.equals(settings.stack()) && !REACTIVE.equals(settings.stack())) {
+            throw new IllegalArgumentException("stack must be servlet or reactive, got: " + settings.stack());
+        }
+        // The soak gauges are Tomcat's and Hikari's
+        if (settings.reactive() && !settings.sampleInterval().isZero()) {
+            throw new IllegalArgumentException("sample-interval needs stack=servlet");
+        }
+        return settings;
+    }
+
+    boolean reactive() {
+        return REACTIVE.equals(stack);
+    }
+
+    private static String take(Map<String, String> values, String key, String defaultValue) {
+        String value = values.remove(key);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in mix, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            mix.put(Operation.fromKey(parts[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("mix needs at least one positive weight");
+        }
+        return mix;
+    }
+}
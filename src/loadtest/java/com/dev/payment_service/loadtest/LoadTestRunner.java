@@ -0,0 +1,241 @@
+package com.dev.payment_service.loadtest;
+
+import com.dev.payment_service.PaymentServiceApplication;
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the service in this JVM with the {@code loadtest} profile (H2, Stripe pointed at a
+ * {@link StripeStub}), drives the configured request mix and prints throughput, latency percentiles
+ * and error rates per operation. Arguments are {@code key=value}:
+ * <ul>
+ *   <li>{@code duration=60s}, {@code warmup=15s}: measured interval and discarded warm-up</li>
+ *   <li>{@code concurrency=32}: workers, each with one request in flight</li>
+ *   <li>{@code rate=0}: total requests per second; 0 is closed-loop. With a rate, latency counts from
+ *       each request's scheduled start, so a stalled server is not hidden by fewer requests being sent</li>
+ *   <li>{@code mix=card:40,sepa:10,duplicate:10,get:25,list:5,webhook:10}: relative weights</li>
+ *   <li>{@code webhook-burst=20}: signed events sent at once per webhook operation</li>
+ *   <li>{@code stripe-latency=50ms}: delay added by the stub to every Stripe call</li>
+ *   <li>{@code report=target/loadtest.json}: also write the results as JSON, for comparing runs</li>
+ *   <li>{@code max-error-percent=1}: exit with status 1 above this overall error rate</li>
+ *   <li>{@code sample-interval=0s}: soak mode when set, e.g. {@code duration=4h sample-interval=1m}.
+ *       Samples the {@link SoakMonitor} gauges each interval and exits with status 1 if any trends upward.
+ *       Give it a warm-up long enough for the Tomcat and Hikari pools to reach their working size</li>
+ *   <li>{@code stack=servlet}: {@code reactive} runs the WebFlux deployment instead; needs
+ *       {@code -Ploadtest,reactive} and is not supported in soak mode</li>
+ *   <li>{@code app.<property>=<value>}: application property overrides</li>
+ * </ul>
+ * Driver and service share the machine, so compare runs made on the same host with the same settings.
+ */
+public final class LoadTestRunner {
+
+    private static final String REACTIVE_APPLICATION = "com.dev.payment_service.reactive.ReactivePaymentServiceApplication";
+    private static final String REACTIVE_PROFILE = "reactive";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.parse(args);
+        LoadReport report = new LoadReport();
+        List<LoadReport.Row> rows;
+        SoakMonitor soak = null;
+        long stripeRequests;
+        int stripeMaxInFlight;
+
+        try (StripeStub stripe = new StripeStub(settings.stripeLatency());
+             ConfigurableApplicationContext context = start(settings, stripe)) {
+
+            String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            Workload workload = new Workload(baseUrl, context.getEnvironment().getProperty("stripe.webhook.secret"),
+                    settings.webhookBurst(), report);
+            if (settings.reactive()) {
+                // Registration stays on the servlet deployment
+                JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+                String suffix = Long.toString(System.currentTimeMillis(), 36);
+                workload.useTokens(jwtUtil.generateToken("loadtest-customer-" + suffix, UserRole.CUSTOMER, 0),
+                        jwtUtil.generateToken("loadtest-admin-" + suffix, UserRole.ADMIN, 0));
+            } else {
+                workload.signUp();
+            }
+
+            System.out.printf("Warming up for %s, then measuring for %s with %d workers%n",
+                    settings.warmup(), settings.duration(), settings.concurrency());
+            if (!settings.sampleInterval().isZero()) {
+                soak = new SoakMonitor(context.getBean(MeterRegistry.class));
+            }
+            Duration elapsed = drive(settings, workload, report, soak);
+            rows = report.summarize(elapsed);
+            stripeRequests = stripe.requests();
+            stripeMaxInFlight = stripe.maxInFlight();
+        }
+
+        System.out.println();
+        LoadReport.print(rows, System.out);
+        System.out.printf("Stripe stub requests (including warm-up): %d, at most %d in flight%n",
+                stripeRequests, stripeMaxInFlight);
+
+        List<SoakMonitor.Trend> trends = soak != null ? soak.trends() : List.of();
+        if (soak != null) {
+            System.out.println();
+            SoakMonitor.print(trends, System.out);
+        }
+
+        if (settings.report() != null) {
+            write(settings, rows, stripeMaxInFlight, soak, trends);
+            System.out.println("Report written to " + settings.report().toAbsolutePath());
+        }
+
+        boolean failed = false;
+        LoadReport.Row total = rows.get(rows.size() - 1);
+        if (total.errorPercent() > settings.maxErrorPercent()) {
+            System.err.printf("Error rate %.2f%% is above max-error-percent=%s%n", total.errorPercent(), settings.maxErrorPercent());
+            failed = true;
+        }
+        for (SoakMonitor.Trend trend : trends) {
+            if (trend.verdict().failed()) {
+                System.err.printf("%s: %s (%.1f -> %.1f)%n", trend.gauge(), trend.verdict(), trend.firstMedian(), trend.lastMedian());
+                failed = true;
+            } else if (trend.verdict() == SoakMonitor.Verdict.TOO_FEW_SAMPLES) {
+                System.err.printf("%s: fewer than %d samples, no trend check%n", trend.gauge(), SoakMonitor.MIN_SAMPLES);
+            }
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static ConfigurableApplicationContext start(LoadSettings settings, StripeStub stripe) {
+        // DevTools would relaunch main() in a restart class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Command-line arguments outrank application-loadtest.properties, so app.* overrides win
+        List<String> properties = new ArrayList<>();
+        properties.add("--stripe.api-base=" + stripe.baseUrl());
+        if (settings.reactive()) {
+            properties.add("--spring.main.web-application-type=reactive");
+            properties.add("--spring.r2dbc.url=r2dbc:h2:mem:///loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            properties.add("--spring.r2dbc.username=sa");
+            properties.add("--spring.r2dbc.password=");
+            properties.add("--spring.sql.init.mode=always");
+            properties.add("--spring.sql.init.schema-locations=classpath:reactive-schema.sql");
+        }
+        settings.appProperties().forEach((key, value) -> properties.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(applicationClass(settings))
+                .profiles(settings.reactive() ? new String[]{"loadtest", REACTIVE_PROFILE} : new String[]{"loadtest"})
+                .run(properties.toArray(String[]::new));
+    }
+
+    // Only on the classpath with -Preactive
+    private static Class<?> applicationClass(LoadSettings settings) {
+        if (!settings.reactive()) {
+            return PaymentServiceApplication.class;
+        }
+        try {
+            return Class.forName(REACTIVE_APPLICATION);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("stack=reactive needs the reactive profile: mvn -Ploadtest,reactive ...", e);
+        }
+    }
+
+    /** Runs the workers through warm-up and the measured interval; returns the measured time. */
+    private static Duration drive(LoadSettings settings, Workload workload, LoadReport report, SoakMonitor soak)
+            throws InterruptedException {
+        Operation[] weighted = weighted(settings.mix());
+        // With a target rate each worker owns an equal share, one request every intervalNanos
+        long intervalNanos = settings.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * settings.concurrency() / settings.rate()) : 0;
+        long endNanos = System.nanoTime() + settings.warmup().toNanos() + settings.duration().toNanos();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency(); i++) {
+            workers.add(Thread.ofPlatform().name("loadtest-worker-" + i).daemon().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long next = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+                while (next < endNanos) {
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        try {
+                            TimeUnit.NANOSECONDS.sleep(wait);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                    long start = intervalNanos > 0 ? next : System.nanoTime();
+                    workload.execute(weighted[random.nextInt(weighted.length)], start);
+                    next = intervalNanos > 0 ? next + intervalNanos : System.nanoTime();
+                }
+            }));
+        }
+
+        Thread.sleep(settings.warmup().toMillis());
+        report.reset();
+        long measuredFrom = System.nanoTime();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        if (soak != null) {
+            long intervalMillis = settings.sampleInterval().toMillis();
+            sampler.scheduleAtFixedRate(() -> soak.sample(Duration.ofNanos(System.nanoTime() - measuredFrom)),
+                    0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Duration measured = Duration.ofNanos(System.nanoTime() - measuredFrom);
+        sampler.shutdownNow();
+        sampler.awaitTermination(1, TimeUnit.MINUTES);
+        if (soak != null) {
+            soak.awaitPoolDrained(Duration.ofSeconds(30));
+        }
+        return measured;
+    }
+
+    private static Operation[] weighted(Map<Operation, Integer> mix) {
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        return weighted.toArray(Operation[]::new);
+    }
+
+    private static void write(LoadSettings settings, List<LoadReport.Row> rows, int stripeMaxInFlight,
+                              SoakMonitor soak, List<SoakMonitor.Trend> trends) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("finishedAt", Instant.now().toString());
+        result.put("duration", settings.duration().toString());
+        result.put("concurrency", settings.concurrency());
+        result.put("rate", settings.rate());
+        result.put("mix", settings.mix());
+        result.put("webhookBurst", settings.webhookBurst());
+        result.put("stripeLatency", settings.stripeLatency().toString());
+        result.put("stack", settings.stack());
+        result.put("appProperties", settings.appProperties());
+        result.put("operations", rows);
+        result.put("stripeMaxInFlight", stripeMaxInFlight);
+        if (soak != null) {
+            result.put("sampleInterval", settings.sampleInterval().toString());
+            result.put("trends", trends);
+            result.put("samples", soak.samples());
+        }
+
+        if (settings.report().getParent() != null) {
+            Files.createDirectories(settings.report().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(settings.report().toFile(), result);
+    }
+}
@@ -0,0 +1,43 @@
+package com.dev.payment_service.loadtest;
+
+/** One kind of request in the load mix, with the status a correct response has. */
+enum Operation {
+
+    CARD("card", "POST /payments (card)", 201),
+    SEPA("sepa", "POST /payments (SEPA)", 201),
+    DUPLICATE("duplicate", "POST /payments (replayed key)", 201),
+    GET("get", "GET /payments/{id}", 200),
+    LIST("list", "GET /payments (admin)", 200),
+    WEBHOOK("webhook", "POST /webhooks/payment", 200);
+
+    private final String key;
+    private final String label;
+    private final int expectedStatus;
+
+    Operation(String key, String label, int expectedStatus) {
+        this.key = key;
+        this.label = label;
+        this.expectedStatus = expectedStatus;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String label() {
+        return label;
+    }
+
+    int expectedStatus() {
+        return expectedStatus;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,181 @@
+package com.dev.payment_service.loadtest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Samples resource gauges while a soak run is under load and flags any that trend upward: heap
+ * after an explicit {@link System#gc()}, live platform threads, and the entry counts behind
+ * {@code cache.size} and {@code inmemory.entries}.
+ * <p>
+ * A gauge trends upward when the median of the last third of its samples exceeds the median of the
+ * first third by more than its tolerance and the least-squares slope is positive. Demand-sized pools
+ * such as Tomcat's grow until load is steady, so the warm-up must cover that ramp.
+ * <p>
+ * Hikari active and pending connections track load rather than leaks and are only reported. A leaked
+ * connection shows up in {@link #awaitPoolDrained} instead: once load stops, none may stay active.
+ */
+final class SoakMonitor {
+
+    static final int MIN_SAMPLES = 6;
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    private final MeterRegistry registry;
+    private final List<Probe> probes = new ArrayList<>();
+    private final List<Double> minutes = new ArrayList<>();
+    private final Map<String, List<Double>> samples = new LinkedHashMap<>();
+    private Trend poolDrained;
+
+    SoakMonitor(MeterRegistry registry) {
+        this.registry = registry;
+        probes.add(new Probe("heap.after_gc.mb", true, 16, 0.20, () -> {
+            System.gc();
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / MB;
+        }));
+        probes.add(new Probe("threads.live", true, 10, 0.10, () -> ManagementFactory.getThreadMXBean().getThreadCount()));
+        probes.add(new Probe("hikari.active", false, 0, 0, () -> sum(registry, "hikaricp.connections.active")));
+        probes.add(new Probe("hikari.pending", false, 0, 0, () -> sum(registry, "hikaricp.connections.pending")));
+        for (String meter : List.of("cache.size", "inmemory.entries")) {
+            for (Gauge gauge : registry.find(meter).gauges()) {
+                probes.add(new Probe(name(gauge), true, 100, 0.10, gauge::value));
+            }
+        }
+        for (Probe probe : probes) {
+            samples.put(probe.name(), new ArrayList<>());
+        }
+    }
+
+    /** Takes one sample of every gauge and prints it as a progress line. */
+    synchronized void sample(Duration sinceStart) {
+        minutes.add(sinceStart.toMillis() / 60_000.0);
+        StringBuilder line = new StringBuilder(String.format("[soak %s]", format(sinceStart)));
+        for (Probe probe : probes) {
+            double value = probe.value().getAsDouble();
+            samples.get(probe.name()).add(value);
+            line.append(String.format(" %s=%.1f", probe.name(), value));
+        }
+        System.out.println(line);
+    }
+
+    synchronized Map<String, List<Double>> samples() {
+        return samples;
+    }
+
+    /** Call once load has stopped; waits up to {@code timeout} for every Hikari connection to be returned. */
+    synchronized void awaitPoolDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        double active = sum(registry, "hikaricp.connections.active");
+        while (active > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            active = sum(registry, "hikaricp.connections.active");
+        }
+        poolDrained = new Trend("hikari.active after load", 0, active, active, 0,
+                active > 0 ? Verdict.NOT_DRAINED : Verdict.OK);
+    }
+
+    synchronized List<Trend> trends() {
+        List<Trend> trends = new ArrayList<>();
+        for (Probe probe : probes) {
+            trends.add(Trend.of(probe, minutes, samples.get(probe.name())));
+        }
+        if (poolDrained != null) {
+            trends.add(poolDrained);
+        }
+        return trends;
+    }
+
+    static void print(List<Trend> trends, PrintStream out) {
+        out.printf("%-56s %12s %12s %12s %14s  %s%n", "gauge", "first third", "last third", "max", "slope / hour", "verdict");
+        for (Trend trend : trends) {
+            out.printf("%-56s %12.1f %12.1f %12.1f %14.2f  %s%n", trend.gauge(), trend.firstMedian(),
+                    trend.lastMedian(), trend.max(), trend.slopePerHour(), trend.verdict());
+        }
+    }
+
+    private static double sum(MeterRegistry registry, String meter) {
+        return registry.find(meter).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    private static String name(Gauge gauge) {
+        List<Tag> tags = gauge.getId().getTags().stream()
+                .filter(tag -> !tag.getKey().equals("application") && !tag.getKey().equals("cache.manager"))
+                .toList();
+        return tags.isEmpty() ? gauge.getId().getName() : gauge.getId().getName()
+                + tags.stream().map(tag -> tag.getKey() + "=" + tag.getValue()).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String format(Duration duration) {
+        return String.format("%02d:%02d:%02d", duration.toHours(), duration.toMinutesPart(), duration.toSecondsPart());
+    }
+
+    /**
+     * @param trended           whether the gauge is checked for an upward trend or only reported
+     * @param absoluteTolerance growth always allowed, in the gauge's unit
+     * @param relativeTolerance growth allowed as a fraction of the first-third median
+     */
+    private record Probe(String name, boolean trended, double absoluteTolerance, double relativeTolerance,
+                         DoubleSupplier value) {
+    }
+
+    enum Verdict {
+        OK, REPORTED, TOO_FEW_SAMPLES, UPWARD, NOT_DRAINED;
+
+        boolean failed() {
+            return this == UPWARD || this == NOT_DRAINED;
+        }
+    }
+
+    record Trend(String gauge, double firstMedian, double lastMedian, double max, double slopePerHour, Verdict verdict) {
+
+        static Trend of(Probe probe, List<Double> minutes, List<Double> values) {
+            double max = values.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+            if (values.size() < MIN_SAMPLES && probe.trended()) {
+                return new Trend(probe.name(), 0, 0, max, 0, Verdict.TOO_FEW_SAMPLES);
+            }
+            int third = values.size() / 3;
+            double first = median(values.subList(0, third));
+            double last = median(values.subList(values.size() - third, values.size()));
+            double slopePerHour = slope(minutes, values) * 60;
+            double allowed = Math.max(probe.absoluteTolerance(), first * probe.relativeTolerance());
+            Verdict verdict;
+            if (!probe.trended()) {
+                verdict = Verdict.REPORTED;
+            } else {
+                verdict = last - first > allowed && slopePerHour > 0 ? Verdict.UPWARD : Verdict.OK;
+            }
+            return new Trend(probe.name(), first, last, max, slopePerHour, verdict);
+        }
+
+        private static double median(List<Double> values) {
+            double[] sorted = values.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            int middle = sorted.length / 2;
+            return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+        }
+
+        /** Least-squares slope of value over minutes. */
+        private static double slope(List<Double> minutes, List<Double> values) {
+            double meanX = minutes.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            double meanY = values.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            double covariance = 0;
+            double variance = 0;
+            for (int i = 0; i < values.size(); i++) {
+                double dx = minutes.get(i) - meanX;
+                covariance += dx * (values.get(i) - meanY);
+                variance += dx * dx;
+            }
+            return variance == 0 ? 0 : covariance / variance;
+        }
+    }
+}
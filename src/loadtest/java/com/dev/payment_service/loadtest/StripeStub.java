@@ -0,0 +1,140 @@
+package com.dev.payment_service.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the three Stripe endpoints the service calls. Card payments succeed at once,
+ * SEPA payments stay {@code processing} until a webhook settles them. Every response is delayed by
+ * a fixed latency; each request gets its own thread so the delay never queues. Those are platform
+ * threads: the JDK server pins virtual threads while reading a request, which with
+ * {@code spring.threads.virtual.enabled} would stall the service's carriers and skew the run.
+ */
+final class StripeStub implements AutoCloseable {
+
+    private static final String PAYMENT_INTENTS = "/v1/payment_intents";
+    private static final String PAYMENT_METHODS = "/v1/payment_methods";
+    static final String SEPA_METHOD_PREFIX = "pm_lt_sepa_";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(Thread.ofPlatform().name("stripe-stub-", 0).daemon().factory());
+    private final long latencyMillis;
+    private final AtomicLong ids = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    StripeStub(Duration latency) throws IOException {
+        this.latencyMillis = latency.toMillis();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    /** Most requests the stub has held at once: how many Stripe calls the service kept in flight. */
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> form = form(exchange);
+            sleep();
+
+            if ("POST".equals(method) && path.equals(PAYMENT_METHODS)) {
+                respond(exchange, 200, paymentMethod(SEPA_METHOD_PREFIX + ids.incrementAndGet()));
+            } else if ("POST".equals(method) && path.equals(PAYMENT_INTENTS)) {
+                String paymentMethod = form.getOrDefault("payment_method", "");
+                String status = paymentMethod.startsWith(SEPA_METHOD_PREFIX) ? "processing" : "succeeded";
+                respond(exchange, 200, paymentIntent("pi_lt_" + ids.incrementAndGet(),
+                        Long.parseLong(form.getOrDefault("amount", "0")), form.getOrDefault("currency", "usd"), status));
+            } else if ("GET".equals(method) && path.startsWith(PAYMENT_INTENTS + "/")) {
+                respond(exchange, 200, paymentIntent(path.substring(PAYMENT_INTENTS.length() + 1), 0, "usd", "succeeded"));
+            } else {
+                respond(exchange, 404, """
+                        {"error": {"type": "invalid_request_error", "message": "Unrecognized request URL (%s: %s)"}}"""
+                        .formatted(method, path));
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    static String paymentIntent(String id, long amount, String currency, String status) {
+        return """
+                {"id": "%s", "object": "payment_intent", "amount": %d, "currency": "%s", "status": "%s", "livemode": false}"""
+                .formatted(id, amount, currency, status);
+    }
+
+    private static String paymentMethod(String id) {
+        return """
+                {"id": "%s", "object": "payment_method", "type": "sepa_debit", "livemode": false}""".formatted(id);
+    }
+
+    private static Map<String, String> form(HttpExchange exchange) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Request-Id", "req_lt");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void sleep() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,243 @@
+package com.dev.payment_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.Stripe;
+import com.stripe.net.Webhook;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Issues the requests behind each {@link Operation} and records them in a {@link LoadReport}.
+ * Replays, reads and webhooks pick from recently created payments; until one exists they fall
+ * back to a card payment.
+ */
+final class Workload {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int CLIENT_THREADS = 4;
+    private static final String[] CARD_CURRENCIES = {"usd", "eur", "gbp"};
+    private static final String[] LIST_QUERIES = {"?status=COMPLETED", "?status=PENDING&minAmount=10", "?minAmount=100&maxAmount=400"};
+
+    // A fixed pool keeps the soak thread count flat, and platform threads keep the driver off the
+    // virtual-thread scheduler the service uses with spring.threads.virtual.enabled
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(CLIENT_THREADS, Thread.ofPlatform().name("loadtest-client-", 0).daemon().factory()))
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private final String baseUrl;
+    private final String webhookSecret;
+    private final int webhookBurst;
+    private final LoadReport report;
+
+    private final Recent<String> paymentIds = new Recent<>(4096);
+    private final Recent<String> paymentIntentIds = new Recent<>(4096);
+    private final Recent<String[]> keyedRequests = new Recent<>(1024);
+
+    private String customerToken;
+    private String adminToken;
+
+    Workload(String baseUrl, String webhookSecret, int webhookBurst, LoadReport report) {
+        this.baseUrl = baseUrl;
+        this.webhookSecret = webhookSecret;
+        this.webhookBurst = webhookBurst;
+        this.report = report;
+    }
+
+    /** Registers one customer and one admin; the mix authenticates as them throughout. */
+    void signUp() throws IOException, InterruptedException {
+        String suffix = Long.toString(System.currentTimeMillis(), 36);
+        customerToken = register("loadtest-customer-" + suffix, "CUSTOMER");
+        adminToken = register("loadtest-admin-" + suffix, "ADMIN");
+    }
+
+    /** Uses tokens minted elsewhere, for a deployment that does not serve registration. */
+    void useTokens(String customerToken, String adminToken) {
+        this.customerToken = customerToken;
+        this.adminToken = adminToken;
+    }
+
+    /** Runs one operation; latency is measured from {@code intendedStartNanos}, not from when it was sent. */
+    void execute(Operation operation, long intendedStartNanos) {
+        switch (operation) {
+            case CARD -> createPayment(Operation.CARD, UUID.randomUUID().toString(), cardPayment(), intendedStartNanos);
+            case SEPA -> createPayment(Operation.SEPA, UUID.randomUUID().toString(), sepaPayment(), intendedStartNanos);
+            case DUPLICATE -> {
+                String[] keyed = keyedRequests.random();
+                if (keyed == null) {
+                    execute(Operation.CARD, intendedStartNanos);
+                } else {
+                    createPayment(Operation.DUPLICATE, keyed[0], keyed[1], intendedStartNanos);
+                }
+            }
+            case GET -> {
+                String id = paymentIds.random();
+                if (id == null) {
+                    execute(Operation.CARD, intendedStartNanos);
+                } else {
+                    send(Operation.GET, authorized(customerToken, "/api/v1/payments/" + id).GET(), intendedStartNanos);
+                }
+            }
+            case LIST -> {
+                String query = LIST_QUERIES[ThreadLocalRandom.current().nextInt(LIST_QUERIES.length)];
+                send(Operation.LIST, authorized(adminToken, "/api/v1/payments" + query).GET(), intendedStartNanos);
+            }
+            case WEBHOOK -> webhookBurst(intendedStartNanos);
+        }
+    }
+
+    private void createPayment(Operation operation, String idempotencyKey, String body, long intendedStartNanos) {
+        HttpRequest.Builder request = authorized(customerToken, "/api/v1/payments")
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", idempotencyKey)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        JsonNode response = send(operation, request, intendedStartNanos);
+        if (response == null || operation == Operation.DUPLICATE) {
+            return;
+        }
+        keyedRequests.add(new String[]{idempotencyKey, body});
+        paymentIds.add(response.path("transactionId").asText());
+        String paymentIntentId = response.path("providerReferenceId").asText();
+        if (paymentIntentId.startsWith("pi_")) {
+            paymentIntentIds.add(paymentIntentId);
+        }
+    }
+
+    /** Sends {@code webhook-burst} signed {@code payment_intent.succeeded} events at once. */
+    private void webhookBurst(long intendedStartNanos) {
+        if (paymentIntentIds.random() == null) {
+            execute(Operation.CARD, intendedStartNanos);
+            return;
+        }
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(webhookBurst);
+        for (int i = 0; i < webhookBurst; i++) {
+            String paymentIntentId = paymentIntentIds.random();
+            if (paymentIntentId == null) {
+                continue;
+            }
+            String payload = succeededEvent(paymentIntentId);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/webhooks/payment"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .header("Stripe-Signature", sign(payload))
+                    .POST(HttpRequest.BodyPublishers.ofString(payload))
+                    .build();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        int status = failure != null ? LoadReport.NO_RESPONSE : response.statusCode();
+                        report.record(Operation.WEBHOOK, System.nanoTime() - intendedStartNanos, status);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private JsonNode send(Operation operation, HttpRequest.Builder request, long intendedStartNanos) {
+        int status = LoadReport.NO_RESPONSE;
+        try {
+            HttpResponse<byte[]> response = client.send(request.timeout(REQUEST_TIMEOUT).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            return status == operation.expectedStatus() ? objectMapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            report.record(operation, System.nanoTime() - intendedStartNanos, status);
+        }
+    }
+
+    private String register(String username, String role) throws IOException, InterruptedException {
+        String body = """
+                {"username": "%s", "password": "loadtest-password", "userRole": "%s"}""".formatted(username, role);
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Registering " + username + " failed: " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpRequest.Builder authorized(String token, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private static String cardPayment() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return """
+                {"amount": %d.%02d, "currency": "%s", "paymentMethod": "CREDIT_CARD",
+                 "details": {"type": "CREDIT_CARD", "paymentMethodId": "pm_card_visa", "cardHolder": "Load Test"}}"""
+                .formatted(random.nextInt(1, 500), random.nextInt(100),
+                        CARD_CURRENCIES[random.nextInt(CARD_CURRENCIES.length)]);
+    }
+
+    private static String sepaPayment() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return """
+                {"amount": %d.%02d, "currency": "EUR", "paymentMethod": "BANK_TRANSFER",
+                 "details": {"type": "BANK_TRANSFER", "iban": "DE89370400440532013000",
+                             "accountHolder": "Load Test", "email": "loadtest@example.com"}}"""
+                .formatted(random.nextInt(1, 500), random.nextInt(100));
+    }
+
+    private String succeededEvent(String paymentIntentId) {
+        return """
+                {"id": "evt_lt_%d", "object": "event", "api_version": "%s", "created": %d, "livemode": false,
+                 "type": "payment_intent.succeeded", "pending_webhooks": 1,
+                 "data": {"object": %s}}"""
+                .formatted(eventIds.incrementAndGet(), Stripe.API_VERSION, System.currentTimeMillis() / 1000,
+                        StripeStub.paymentIntent(paymentIntentId, 0, "eur", "succeeded"));
+    }
+
+    /** The {@code Stripe-Signature} header Stripe would send for this payload. */
+    private String sign(String payload) {
+        long timestamp = System.currentTimeMillis() / 1000;
+        try {
+            return "t=" + timestamp + ",v1=" + Webhook.Util.computeHmacSha256(webhookSecret, timestamp + "." + payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign webhook payload", e);
+        }
+    }
+
+    /** Fixed-size ring of recent values; older entries are overwritten, so memory stays flat on long runs. */
+    private static final class Recent<T> {
+
+        private final AtomicReferenceArray<T> values;
+        private final AtomicLong next = new AtomicLong();
+
+        Recent(int size) {
+            this.values = new AtomicReferenceArray<>(size);
+        }
+
+        void add(T value) {
+            values.set((int) (next.getAndIncrement() % values.length()), value);
+        }
+
+        T random() {
+            long filled = Math.min(next.get(), values.length());
+            return filled == 0 ? null : values.get(ThreadLocalRandom.current().nextInt((int) filled));
+        }
+    }
+}
@@ -1,9 +1,22 @@
 package com.dev.payment_service;
 
+import com.dev.payment_service.config.PaymentRuntimeHints;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
-@SpringBootApplication
+// A -Preactive build also carries R2DBC, whose transaction manager would displace JPA's; the reactive
+// deployment under .reactive boots from its own application class and is kept out of the scan
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
+@ComponentScan(excludeFilters = {
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.dev\\.payment_service\\.reactive\\..*")})
+@ImportRuntimeHints(PaymentRuntimeHints.class)
 public class PaymentServiceApplication {
 
 	public static void main(String[] args) {
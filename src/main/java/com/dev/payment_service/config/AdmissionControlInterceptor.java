@@ -0,0 +1,84 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.exception.GlobalExceptionHandler.ErrorResponse;
+import com.dev.payment_service.service.AdmissionController;
+import com.dev.payment_service.service.AdmissionController.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Asks the {@link AdmissionController} before {@code /api/v1/payments} starts any database work:
+ * POST is a new payment, GET is the admin listing and goes first under pressure. Fetching one
+ * payment, webhooks and the admin endpoints are never shed.
+ */
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String PRIORITY_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".priority";
+
+    private final AdmissionController admissionController;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        Priority priority = priorityOf(request);
+        // Admitted on the original dispatch; the slot is released after the async dispatch completes
+        if (priority == null || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (admissionController.tryAdmit(priority)) {
+            request.setAttribute(PRIORITY_ATTRIBUTE, priority);
+            return true;
+        }
+        reject(response, priority);
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PRIORITY_ATTRIBUTE) instanceof Priority priority) {
+            request.removeAttribute(PRIORITY_ATTRIBUTE);
+            admissionController.release(priority);
+        }
+    }
+
+    static Priority priorityOf(HttpServletRequest request) {
+        if (HttpMethod.POST.matches(request.getMethod())) {
+            return Priority.PAYMENTS;
+        }
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return Priority.LOW;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, Priority priority) throws IOException {
+        long retryAfterSeconds = admissionController.retryAfterSeconds();
+        String message = priority == Priority.PAYMENTS
+                ? "The service is busy. Retry with the same Idempotency-Key after " + retryAfterSeconds + "s"
+                : "The service is busy. Retry after " + retryAfterSeconds + "s";
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(message)
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
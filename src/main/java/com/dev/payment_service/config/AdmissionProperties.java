@@ -0,0 +1,55 @@
+package com.dev.payment_service.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/** Load shedding for {@code /api/v1/payments} when the database connection pool saturates. */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /** How often the pool meters are read. */
+    private Duration sampleInterval = Duration.ofMillis(250);
+
+    /** How long shedding continues after the pool looks healthy again. */
+    private Duration recovery = Duration.ofSeconds(5);
+
+    /** Sent as Retry-After on shed requests. */
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    /** Admin listing: shed first. */
+    private Threshold lowPriority = new Threshold("admin", Duration.ofMillis(50), 5, 4);
+
+    /**
+     * New payment initiations hold a connection across the Stripe call, so a second-long acquire wait
+     * is normal at full use; the in-flight cap (about twice the pool) does the steady-state limiting.
+     */
+    private Threshold payments = new Threshold("payments", Duration.ofSeconds(2), 50, 20);
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Threshold {
+
+        /** Hikari pool name whose meters count; every pool when no pool has this name. */
+        private String pool;
+
+        /** Shed when the average connection acquire time over a sample reaches this. */
+        private Duration maxWait;
+
+        /** Shed when this many callers are queued for a connection. */
+        private int maxPending;
+
+        /** Requests of this kind in progress at once; more are shed regardless of the pool. */
+        private int maxInFlight;
+    }
+}
@@ -0,0 +1,26 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.security.UserLookupService;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.caffeine-spec:maximumSize=10000,expireAfterWrite=5m,recordStats}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(UserLookupService.USERS_CACHE);
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        cacheManager.setAllowNullValues(false);
+        // Evictions inside a transaction apply after commit, so a concurrent lookup cannot re-cache the old row
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,165 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps how many connections are checked out at once with a fair {@link Semaphore}; a permit is held
+ * from {@code getConnection} until the connection is closed. With virtual threads the request
+ * thread count no longer bounds database work, so callers beyond the cap queue here in arrival
+ * order and fail after {@code acquireTimeout} instead of piling into the pool.
+ *
+ * <p>In front of a {@link WorkloadRoutingDataSource} each {@link Workload} gets its own permits, so a
+ * burst of admin reads cannot use up the permits payments need. The permit is chosen by the calling
+ * thread's workload, like the pool.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    // One entry per workload; all map to the same semaphore unless limited per workload
+    private final Map<Workload, Semaphore> permits = new EnumMap<>(Workload.class);
+    private final boolean perWorkload;
+    private final long acquireTimeoutNanos;
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency, Duration acquireTimeout) {
+        super(target);
+        Semaphore shared = new Semaphore(maxConcurrency, true);
+        for (Workload workload : Workload.values()) {
+            permits.put(workload, shared);
+        }
+        this.perWorkload = false;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    public ConcurrencyLimitedDataSource(DataSource target, Map<Workload, Integer> maxConcurrency, Duration acquireTimeout) {
+        super(target);
+        for (Workload workload : Workload.values()) {
+            permits.put(workload, new Semaphore(maxConcurrency.get(workload), true));
+        }
+        this.perWorkload = true;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Semaphore semaphore = acquire();
+        return limited(semaphore, () -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Semaphore semaphore = acquire();
+        return limited(semaphore, () -> super.getConnection(username, password));
+    }
+
+    public boolean isPerWorkload() {
+        return perWorkload;
+    }
+
+    public int availablePermits() {
+        return permits.values().stream().distinct().mapToInt(Semaphore::availablePermits).sum();
+    }
+
+    public int availablePermits(Workload workload) {
+        return permits.get(workload).availablePermits();
+    }
+
+    public int waiting() {
+        return permits.values().stream().distinct().mapToInt(Semaphore::getQueueLength).sum();
+    }
+
+    public int waiting(Workload workload) {
+        return permits.get(workload).getQueueLength();
+    }
+
+    private Semaphore acquire() throws SQLException {
+        // Untagged threads use the admin pool, so they share its permits too
+        Workload workload = WorkloadRoutingDataSource.current();
+        Semaphore semaphore = permits.get(workload != null ? workload : Workload.ADMIN);
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Database concurrency limit reached; no permit within " + Duration.ofNanos(acquireTimeoutNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database permit", e);
+        }
+        return semaphore;
+    }
+
+    private Connection limited(Semaphore semaphore, ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ReleasingHandler(connection, semaphore));
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    /** Releases the permit on the first {@code close()}; everything else goes to the real connection. */
+    private static final class ReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingHandler(Connection target, Semaphore permits) {
+            this.target = target;
+            this.permits = permits;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
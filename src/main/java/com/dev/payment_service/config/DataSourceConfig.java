@@ -0,0 +1,173 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceConfig {
+
+    /**
+     * Sends read-only service transactions to {@link ReadReplicas} when {@code replicas.enabled}. The
+     * connection is taken lazily, at the first statement, so the transaction's read-only flag is known
+     * when the target is chosen. Ordered ahead of the concurrency cap, which then also counts replica reads.
+     */
+    @Bean
+    static BeanPostProcessor readReplicaDataSourcePostProcessor(ObjectProvider<ReadReplicas> readReplicas) {
+        return new ReadReplicaPostProcessor(readReplicas);
+    }
+
+    /** With workload pools enabled each replica gets a pool per workload, named e.g. {@code replica-0-payments}. */
+    @Bean
+    @ConditionalOnProperty(name = "replicas.enabled", havingValue = "true")
+    ReadReplicas readReplicas(ReplicaProperties properties, WorkloadProperties workloadProperties,
+                              DataSourceProperties dataSourceProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, Map<Workload, DataSource>> replicas = new LinkedHashMap<>();
+        List<String> urls = properties.getUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            Map<Workload, DataSource> pools = new EnumMap<>(Workload.class);
+            if (workloadProperties.isEnabled()) {
+                for (Workload workload : Workload.values()) {
+                    pools.put(workload, replicaPool(properties, dataSourceProperties, meterRegistry,
+                            urls.get(i), "replica-" + i + "-" + workload.id()));
+                }
+            } else {
+                DataSource pool = replicaPool(properties, dataSourceProperties, meterRegistry, urls.get(i), "replica-" + i);
+                for (Workload workload : Workload.values()) {
+                    pools.put(workload, pool);
+                }
+            }
+            replicas.put("replica-" + i, pools);
+        }
+        ReadReplicas readReplicas = new ReadReplicas(replicas, properties);
+        readReplicas.start();
+        return readReplicas;
+    }
+
+    private static HikariDataSource replicaPool(ReplicaProperties properties, DataSourceProperties dataSourceProperties,
+                                                ObjectProvider<MeterRegistry> meterRegistry, String url, String name) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        if (properties.getUsername() != null) {
+            pool.setUsername(properties.getUsername());
+            pool.setPassword(properties.getPassword());
+        }
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(properties.getPoolSize());
+        pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        pool.setReadOnly(true);
+        meterRegistry.ifAvailable(pool::setMetricRegistry);
+        return pool;
+    }
+
+    /**
+     * Wraps the DataSource in a {@link ConcurrencyLimitedDataSource} when {@code db.max-concurrency} is
+     * positive. With workload pools the cap applies to each workload on its own, at most its pool size.
+     */
+    @Bean
+    static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        int maxConcurrency = environment.getProperty("db.max-concurrency", Integer.class, 0);
+        Duration acquireTimeout = environment.getProperty("db.acquire-timeout", Duration.class, Duration.ofSeconds(5));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (maxConcurrency > 0 && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    WorkloadRoutingDataSource workloads = workloadRouting(dataSource);
+                    if (workloads == null) {
+                        return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+                    }
+                    Map<Workload, Integer> caps = new EnumMap<>(Workload.class);
+                    for (Workload workload : Workload.values()) {
+                        caps.put(workload, Math.min(maxConcurrency, workloads.maximumPoolSize(workload)));
+                    }
+                    return new ConcurrencyLimitedDataSource(dataSource, caps, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Looks through the read-replica proxy, which is applied first
+    private static WorkloadRoutingDataSource workloadRouting(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(WorkloadRoutingDataSource.class)
+                    ? dataSource.unwrap(WorkloadRoutingDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    @Bean
+    MeterBinder concurrencyLimitedDataSourceMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(ConcurrencyLimitedDataSource.class::isInstance)
+                .map(ConcurrencyLimitedDataSource.class::cast)
+                .forEach(dataSource -> {
+                    if (!dataSource.isPerWorkload()) {
+                        Gauge.builder("db.concurrency.available", dataSource, ConcurrencyLimitedDataSource::availablePermits)
+                                .description("Free permits under db.max-concurrency")
+                                .register(registry);
+                        Gauge.builder("db.concurrency.waiting", dataSource, ConcurrencyLimitedDataSource::waiting)
+                                .description("Callers queued for a database permit")
+                                .register(registry);
+                        return;
+                    }
+                    for (Workload workload : Workload.values()) {
+                        Gauge.builder("db.concurrency.available", dataSource, d -> d.availablePermits(workload))
+                                .description("Free permits under db.max-concurrency")
+                                .tag("workload", workload.id())
+                                .register(registry);
+                        Gauge.builder("db.concurrency.waiting", dataSource, d -> d.waiting(workload))
+                                .description("Callers queued for a database permit")
+                                .tag("workload", workload.id())
+                                .register(registry);
+                    }
+                });
+    }
+
+    private record ReadReplicaPostProcessor(ObjectProvider<ReadReplicas> readReplicas)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                ReadReplicas replicas = readReplicas.getIfAvailable();
+                if (replicas != null) {
+                    LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSource);
+                    proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(dataSource, replicas));
+                    return proxy;
+                }
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.service.LatencyHistograms;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Records handler latency per endpoint, named by HTTP method and mapped path pattern. */
+@RequiredArgsConstructor
+public class LatencyInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = LatencyInterceptor.class.getName() + ".start";
+
+    private final LatencyHistograms latencyHistograms;
+
+    private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Work finished on a workload executor comes back as an async dispatch; keep the original start
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        String name = names.get(handlerMethod.getMethod());
+        if (name == null) {
+            name = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            names.putIfAbsent(handlerMethod.getMethod(), name);
+        }
+        latencyHistograms.record(name, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,40 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/** Limits for {@code POST /api/v1/payments}, per client IP and per authenticated user role. */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payments.rate-limit")
+public class PaymentRateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Limit ip = new Limit(120, 30);
+
+    private Map<UserRole, Limit> roles = new EnumMap<>(Map.of(
+            UserRole.CUSTOMER, new Limit(60, 10),
+            UserRole.ADMIN, new Limit(300, 50)
+    ));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /** Sustained rate. */
+        private int requestsPerMinute;
+
+        /** Requests allowed back to back after an idle period. */
+        private int burst;
+    }
+}
@@ -0,0 +1,72 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.dto.BankTransferDetails;
+import com.dev.payment_service.dto.CreditCardDetails;
+import com.stripe.model.Balance;
+import com.stripe.model.Charge;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.PaymentMethod;
+import com.stripe.model.StripeError;
+import com.stripe.model.StripeRawJsonObject;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.PaymentMethodCreateParams;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection the native image cannot see from Spring's own AOT processing (mvn -Pnative native:compile).
+ * <ul>
+ *     <li>stripe-java binds requests and responses with Gson, field by field, including nested classes</li>
+ *     <li>the {@code PaymentDetails} subtypes are only named in {@code @JsonSubTypes}</li>
+ *     <li>JJWT's API finds its implementation (runtime scope) and Jackson binding by class name</li>
+ * </ul>
+ */
+public class PaymentRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> STRIPE_TYPES = List.of(
+            PaymentIntent.class, PaymentMethod.class, Charge.class, Event.class, Balance.class, StripeError.class,
+            StripeRawJsonObject.class, PaymentIntentCreateParams.class, PaymentMethodCreateParams.class);
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        STRIPE_TYPES.forEach(type -> registerWithNested(hints.reflection(), type));
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                CreditCardDetails.class, BankTransferDetails.class);
+
+        JJWT_TYPES.forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+    }
+
+    private static void registerWithNested(ReflectionHints reflection, Class<?> type) {
+        reflection.registerType(type, MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+        for (Class<?> nested : type.getDeclaredClasses()) {
+            registerWithNested(reflection, nested);
+        }
+    }
+}
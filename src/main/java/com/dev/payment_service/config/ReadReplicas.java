@@ -0,0 +1,178 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The replica pools and their health. Every {@code replicas.check-interval} each replica runs
+ * {@code replicas.lag-query}; one that answers within {@code replicas.max-lag} is available, one that
+ * is behind or unreachable is skipped until a later check passes. Replicas start unavailable, so
+ * nothing is read from one before its first check. The checks run on their own thread once
+ * {@link #start} is called, so other scheduled jobs cannot delay taking a lagging replica out.
+ * <p>
+ * Like the primary, each replica has a pool per {@link Workload}, picked by the calling thread's
+ * workload, so admin listings on a replica cannot starve payment lookups of connections. The lag
+ * check, a background job, uses the admin pool.
+ * <p>
+ * Metrics: {@code db.replica.lag{replica}} in seconds (NaN while unreachable),
+ * {@code db.replica.available{replica}} and {@code db.replica.fallbacks}, reads sent to the primary
+ * because no replica was available.
+ */
+public class ReadReplicas implements MeterBinder, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicas.class);
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final double maxLagSeconds;
+    private final String lagQuery;
+    private final int queryTimeoutSeconds;
+    private final Duration checkInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    private volatile List<Replica> available = List.of();
+    private ScheduledExecutorService checker;
+
+    /** Replica name to its pool for each workload; workloads may share a pool. */
+    public ReadReplicas(Map<String, Map<Workload, DataSource>> replicas, ReplicaProperties properties) {
+        replicas.forEach((name, pools) -> this.replicas.add(new Replica(name, pools)));
+        this.maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+        this.lagQuery = properties.getLagQuery();
+        this.queryTimeoutSeconds = (int) Math.max(1, properties.getConnectionTimeout().toSeconds());
+        this.checkInterval = properties.getCheckInterval();
+    }
+
+    /** Runs {@link #checkLag} every {@code replicas.check-interval}, the first time right away. */
+    public synchronized void start() {
+        if (checker != null) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(() -> {
+            // An exception would cancel every later check
+            try {
+                checkLag();
+            } catch (RuntimeException e) {
+                log.error("Read replica lag check failed", e);
+            }
+        }, 0, checkInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The current workload's pool on an available replica, round robin, or null when reads should
+     * go to the primary.
+     */
+    public DataSource select() {
+        List<Replica> candidates = available;
+        if (candidates.isEmpty()) {
+            fallbacks.incrementAndGet();
+            return null;
+        }
+        Workload workload = WorkloadRoutingDataSource.current();
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()))
+                .pools.get(workload != null ? workload : Workload.ADMIN);
+    }
+
+    public void checkLag() {
+        List<Replica> healthy = new ArrayList<>();
+        for (Replica replica : replicas) {
+            double lag = measureLag(replica);
+            boolean wasAvailable = available.contains(replica);
+            boolean isAvailable = lag <= maxLagSeconds;
+            if (isAvailable) {
+                healthy.add(replica);
+            }
+            if (isAvailable != wasAvailable) {
+                log.warn("Read replica {} {}: lag={}s, maxLag={}s", replica.name,
+                        isAvailable ? "available" : "unavailable", lag, maxLagSeconds);
+            }
+            replica.lagSeconds = lag;
+        }
+        available = List.copyOf(healthy);
+    }
+
+    private double measureLag(Replica replica) {
+        try (Connection connection = replica.pools.get(Workload.ADMIN).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+            try (ResultSet result = statement.executeQuery(lagQuery)) {
+                return result.next() ? result.getDouble(1) : Double.NaN;
+            }
+        } catch (SQLException e) {
+            log.debug("Lag check failed for read replica {}: {}", replica.name, e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replica lag behind the primary at the last check")
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("db.replica.available", replica, r -> available.contains(r) ? 1 : 0)
+                    .description("1 while read-only transactions may use this replica")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+        FunctionCounter.builder("db.replica.fallbacks", fallbacks, AtomicLong::get)
+                .description("Read-only transactions sent to the primary because no replica was available")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (checker != null) {
+                checker.shutdownNow();
+            }
+        }
+        for (Replica replica : replicas) {
+            for (DataSource pool : replica.pools.values().stream().distinct().toList()) {
+                if (pool instanceof Closeable closeable) {
+                    closeable.close();
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+        final String name;
+        final Map<Workload, DataSource> pools;
+        volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, Map<Workload, DataSource> pools) {
+            this.name = name;
+            this.pools = new EnumMap<>(pools);
+        }
+    }
+}
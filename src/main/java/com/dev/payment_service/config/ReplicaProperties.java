@@ -0,0 +1,44 @@
+package com.dev.payment_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for read-only service transactions. {@code spring.datasource.username} and password
+ * apply unless set here.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<String> urls = new ArrayList<>();
+
+    private String username;
+
+    private String password;
+
+    /** Connections per replica, for each workload when workload pools are enabled. */
+    private int poolSize = 5;
+
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    /** Replicas further behind the primary than this are skipped until they catch up. */
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    /**
+     * Returns the replica's lag in seconds. The default reports 0 when everything received has been
+     * replayed, so an idle primary does not look like lag.
+     */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private Duration checkInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,50 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.service.PaymentService;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The read-only side of a {@link LazyConnectionDataSourceProxy}, asked for a connection at the first
+ * statement of a read-only transaction. Transactions declared read-only in the service layer go to a
+ * replica; everything else goes to the primary, including Spring Data's own read-only defaults on
+ * repository methods, so a bare repository read never sees replica lag. Read-write transactions,
+ * and read-only work that joins one, never get here.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    static final String SERVICE_PACKAGE = PaymentService.class.getPackageName() + ".";
+
+    private final DataSource primary;
+    private final ReadReplicas replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicas replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+
+    private DataSource target() {
+        // Named after the @Transactional method that started the transaction
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (name == null || !name.startsWith(SERVICE_PACKAGE)) {
+            return primary;
+        }
+        DataSource replica = replicas.select();
+        return replica != null ? replica : primary;
+    }
+}
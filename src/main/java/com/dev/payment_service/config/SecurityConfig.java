@@ -1,8 +1,14 @@
 package com.dev.payment_service.config;
 
+import com.dev.payment_service.security.BoundedPasswordEncoder;
 import com.dev.payment_service.security.CustomUserDetailsService;
 import com.dev.payment_service.security.JwtAuthenticationFilter;
+import com.dev.payment_service.security.PaymentRateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,7 +21,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,26 +28,36 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties(PaymentRateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final PaymentRateLimitFilter paymentRateLimitFilter;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Webhooks and the admin listing finish on a workload executor; the request was
+                        // authorized before it left the request thread
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/api/v1/webhooks/**").permitAll()
 
+                        // Health checks and Prometheus scraping
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+
                         // OpenAPI / Swagger endpoints
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
 
                         // Admin-only endpoints
                         .requestMatchers(HttpMethod.GET, "/api/v1/payments").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
 
                         // Customer and Admin
                         .requestMatchers(HttpMethod.POST, "/api/v1/payments").hasAnyRole("CUSTOMER", "ADMIN")
@@ -54,17 +69,29 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
-                .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .authenticationProvider(authenticationProvider)
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // After authentication so the user's role selects the limit
+                .addFilterAfter(paymentRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // Only runs inside the security chain, not a second time as a plain servlet filter
+    @Bean
+    public FilterRegistrationBean<PaymentRateLimitFilter> paymentRateLimitFilterRegistration() {
+        FilterRegistrationBean<PaymentRateLimitFilter> registration = new FilterRegistrationBean<>(paymentRateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes on login when security.bcrypt.strength changes
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -73,9 +100,12 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${security.bcrypt.strength:10}") int strength,
+            @Value("${security.bcrypt.threads:2}") int threads,
+            @Value("${security.bcrypt.queue-capacity:32}") int queueCapacity) {
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity);
     }
 }
 
@@ -0,0 +1,286 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.dto.BankTransferDetails;
+import com.dev.payment_service.dto.CreditCardDetails;
+import com.dev.payment_service.dto.PaymentDetails;
+import com.dev.payment_service.dto.PaymentInitiationRequest;
+import com.dev.payment_service.dto.PaymentInitiationResponse;
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.security.JwtTokenVerifier;
+import com.dev.payment_service.security.JwtUtil;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.dev.payment_service.service.StripeService;
+import com.dev.payment_service.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs synthetic work through the request paths before the instance reports ready: Spring Boot
+ * publishes {@code ReadinessState.ACCEPTING_TRAFFIC} only after application runners return, so
+ * {@code /actuator/health/readiness} answers 503 until this is done. Each step repeats up to
+ * {@code warmup.iterations} times to load classes, fill Jackson, Hibernate and Spring caches and give
+ * the JIT a head start; the whole warm-up gives up after {@code warmup.timeout}. Step durations are
+ * logged and kept in {@code application.warmup{step}}.
+ * <p>
+ * The loopback requests go through the latency windows, so the first window after startup includes them.
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    static final String WARMUP_USER = "warmup@payment-service.internal";
+    private static final String WARMUP_KEY = "warmup-idempotency-key";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final JwtUtil jwtUtil;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final TransactionService transactionService;
+    private final StripeService stripeService;
+    private final StripeAccountRouter accountRouter;
+    private final MeterRegistry registry;
+    private final ApplicationContext context;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final int iterations;
+
+    private final Map<String, Duration> timings = new LinkedHashMap<>();
+
+    public StartupWarmup(ObjectMapper objectMapper, Validator validator, JwtUtil jwtUtil,
+                         JwtTokenVerifier jwtTokenVerifier, TransactionService transactionService,
+                         StripeService stripeService, StripeAccountRouter accountRouter,
+                         MeterRegistry registry, ApplicationContext context,
+                         @Value("${warmup.enabled:true}") boolean enabled,
+                         @Value("${warmup.timeout:20s}") Duration timeout,
+                         @Value("${warmup.iterations:200}") int iterations) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.jwtUtil = jwtUtil;
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.transactionService = transactionService;
+        this.stripeService = stripeService;
+        this.accountRouter = accountRouter;
+        this.registry = registry;
+        this.context = context;
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "warmup"));
+        Future<?> warmup = executor.submit(() -> warmUp(deadline));
+        try {
+            warmup.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            warmup.cancel(true);
+            log.warn("Warm-up stopped at its {} limit; reporting ready anyway", timeout);
+        } catch (ExecutionException e) {
+            log.warn("Warm-up failed; reporting ready anyway", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Duration total = Duration.ofNanos(System.nanoTime() - start);
+        synchronized (timings) {
+            log.info("Warm-up finished in {} ms: {}", total.toMillis(), format(timings));
+        }
+    }
+
+    /** Step durations of the last run, in the order the steps ran. */
+    public Map<String, Duration> timings() {
+        synchronized (timings) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(timings));
+        }
+    }
+
+    private void warmUp(long deadline) {
+        PaymentInitiationRequest card = cardRequest();
+        PaymentInitiationRequest bank = bankRequest();
+        PaymentInitiationRequest invalid = cardRequest();
+        invalid.setAmount(new BigDecimal("-1"));
+        String token = jwtUtil.generateToken(WARMUP_USER, UserRole.CUSTOMER, 0);
+
+        repeat("json", deadline, () -> {
+            for (PaymentInitiationRequest request : new PaymentInitiationRequest[]{card, bank}) {
+                objectMapper.readValue(objectMapper.writeValueAsString(request), PaymentInitiationRequest.class);
+            }
+            objectMapper.writeValueAsString(sampleResponse());
+        });
+        repeat("validation", deadline, () -> {
+            validator.validate(card);
+            validator.validate(bank);
+            validator.validate(invalid);
+        });
+        repeat("jwt", deadline, () -> {
+            Claims claims = jwtTokenVerifier.verify(jwtUtil.generateToken(WARMUP_USER, UserRole.CUSTOMER, 0));
+            JwtUtil.extractRoles(claims);
+            JwtUtil.extractTokenVersion(claims);
+        });
+        repeat("repository", deadline, () -> {
+            transactionService.findByIdempotencyKey(WARMUP_KEY);
+            transactionService.findById(0L);
+        });
+        timed("stripe", deadline, () -> {
+            StripeService.cardPaymentIntentParams(Money.of(card.getAmount(), card.getCurrency()),
+                    ((CreditCardDetails) card.getDetails()).getPaymentMethodId()).toMap();
+            StripeService.bankPaymentMethodParams((BankTransferDetails) bank.getDetails()).toMap();
+            for (StripeAccount account : accountRouter.all()) {
+                preconnect(account);
+            }
+        });
+
+        if (context instanceof WebServerApplicationContext web && web.getWebServer() != null) {
+            try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build()) {
+                // Unknown id: Tomcat, the security filters, JWT authentication, the controller and the
+                // repository all run, and the 404 goes through the exception handler
+                HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + web.getWebServer().getPort() + "/api/v1/payments/0"))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(5))
+                        .build();
+                repeat("http", deadline, () -> client.send(request, HttpResponse.BodyHandlers.discarding()));
+            }
+        }
+    }
+
+    private void preconnect(StripeAccount account) throws StripeException {
+        try {
+            stripeService.preconnect(account.id());
+        } catch (ApiConnectionException e) {
+            throw e;
+        } catch (StripeException e) {
+            // Stripe answered, so the connection is up
+            log.debug("Stripe pre-connect answered: account={}, status={}, code={}",
+                    account.id(), e.getStatusCode(), e.getCode());
+        }
+    }
+
+    private void repeat(String name, long deadline, WarmupStep body) {
+        timed(name, deadline, () -> {
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                body.run();
+            }
+        });
+    }
+
+    private void timed(String name, long deadline, WarmupStep body) {
+        if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Warm-up step {} failed: {}", name, e.toString());
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        synchronized (timings) {
+            timings.put(name, duration);
+        }
+        Timer.builder("application.warmup")
+                .description("Time spent in each startup warm-up step")
+                .tag("step", name)
+                .register(registry)
+                .record(duration);
+    }
+
+    private static String format(Map<String, Duration> timings) {
+        StringBuilder result = new StringBuilder();
+        timings.forEach((step, duration) -> {
+            if (!result.isEmpty()) {
+                result.append(", ");
+            }
+            result.append(step).append('=').append(duration.toMillis()).append(" ms");
+        });
+        return result.isEmpty() ? "no steps ran" : result.toString();
+    }
+
+    private static PaymentInitiationRequest cardRequest() {
+        CreditCardDetails details = new CreditCardDetails();
+        details.setPaymentMethodId("pm_card_visa");
+        details.setCardHolder("Warm Up");
+        details.setExpiryMonth("12");
+        details.setExpiryYear("2030");
+        return request(PaymentMethod.CREDIT_CARD, details, "usd");
+    }
+
+    private static PaymentInitiationRequest bankRequest() {
+        BankTransferDetails details = new BankTransferDetails();
+        details.setIban("DE89370400440532013000");
+        details.setAccountHolder("Warm Up");
+        details.setEmail(WARMUP_USER);
+        return request(PaymentMethod.BANK_TRANSFER, details, "eur");
+    }
+
+    private static PaymentInitiationRequest request(PaymentMethod method, PaymentDetails details, String currency) {
+        PaymentInitiationRequest request = new PaymentInitiationRequest();
+        request.setAmount(new BigDecimal("10.00"));
+        request.setCurrency(currency);
+        request.setPaymentMethod(method);
+        request.setDetails(details);
+        return request;
+    }
+
+    private static PaymentInitiationResponse sampleResponse() {
+        return PaymentInitiationResponse.builder()
+                .transactionId("0")
+                .transactionReference("TXN-WARMUP")
+                .amount(new BigDecimal("10.00"))
+                .currency("usd")
+                .status(PaymentStatus.PENDING.name())
+                .paymentMethod(PaymentMethod.CREDIT_CARD.name())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+}
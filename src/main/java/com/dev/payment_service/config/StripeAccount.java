@@ -0,0 +1,10 @@
+package com.dev.payment_service.config;
+
+/** A configured Stripe account; the secret key is passed per request, never set globally. */
+public record StripeAccount(String id, String secretKey, String webhookSecret) {
+
+    @Override
+    public String toString() {
+        return "StripeAccount[id=" + id + "]";
+    }
+}
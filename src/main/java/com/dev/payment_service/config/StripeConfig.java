@@ -2,31 +2,58 @@ package com.dev.payment_service.config;
 
 import com.stripe.Stripe;
 import jakarta.annotation.PostConstruct;
-import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.HashSet;
+import java.util.Set;
+
 @Configuration
-@Getter
+@EnableConfigurationProperties(StripeProperties.class)
 public class StripeConfig {
 
     private static final Logger log = LoggerFactory.getLogger(StripeConfig.class);
 
-    @Value("${stripe.secret-key}")
-    private String secretKey;
+    private final StripeProperties properties;
+
+    public StripeConfig(StripeProperties properties) {
+        this.properties = properties;
+    }
 
-    @Value("${stripe.publishable-key}")
-    private String publishableKey;
+    public String getPublishableKey() {
+        return properties.getPublishableKey();
+    }
 
     @PostConstruct
     public void init() {
+        if (properties.getApiBase() != null && !properties.getApiBase().isBlank()) {
+            log.warn("Stripe API base overridden: {}", properties.getApiBase());
+            Stripe.overrideApiBase(properties.getApiBase());
+        }
+
+        if (properties.getAccounts().isEmpty()) {
+            validateSecretKey("default", properties.getSecretKey());
+            return;
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (StripeProperties.Account account : properties.getAccounts()) {
+            if (account.getId() == null || account.getId().isBlank()) {
+                throw new IllegalStateException("Every stripe.accounts entry needs an id");
+            }
+            if (!ids.add(account.getId())) {
+                throw new IllegalStateException("Duplicate Stripe account id: " + account.getId());
+            }
+            validateSecretKey(account.getId(), account.getSecretKey());
+        }
+    }
+
+    private void validateSecretKey(String accountId, String secretKey) {
         if (secretKey == null || secretKey.isEmpty() || !secretKey.startsWith("sk_")) {
-            log.error("Invalid Stripe secret key! Key must start with 'sk_' ");
+            log.error("Invalid Stripe secret key for account '{}'! Key must start with 'sk_' ", accountId);
             throw new IllegalStateException("Invalid Stripe API key configuration");
         }
-
-        Stripe.apiKey = secretKey;
     }
 }
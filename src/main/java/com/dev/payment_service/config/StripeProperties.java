@@ -0,0 +1,56 @@
+package com.dev.payment_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stripe account configuration. Either the single legacy account
+ * ({@code stripe.secret-key} / {@code stripe.webhook.secret}) or a list under {@code stripe.accounts[n]}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "stripe")
+public class StripeProperties {
+
+    private String secretKey;
+
+    private String publishableKey;
+
+    /** Overrides the Stripe API base URL, e.g. to point at a local stub for load tests. */
+    private String apiBase;
+
+    private Webhook webhook = new Webhook();
+
+    private List<Account> accounts = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Webhook {
+        private String secret;
+    }
+
+    @Getter
+    @Setter
+    public static class Account {
+
+        /** Stable identifier persisted on each transaction, e.g. "eu" or "us-1". */
+        private String id;
+
+        private String secretKey;
+
+        private String webhookSecret;
+
+        /** Currencies routed to this account regardless of hashing (lowercase ISO 4217). */
+        private List<String> currencies = new ArrayList<>();
+
+        /** Merchants (usernames) pinned to this account. */
+        private List<String> merchants = new ArrayList<>();
+
+        /** Whether unmapped traffic may be hashed onto this account. */
+        private boolean hashPool = true;
+    }
+}
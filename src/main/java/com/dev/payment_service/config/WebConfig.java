@@ -0,0 +1,29 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.service.AdmissionController;
+import com.dev.payment_service.service.LatencyHistograms;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final LatencyHistograms latencyHistograms;
+    private final AdmissionController admissionController;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First: a shed request does no further work and stays out of the latency histograms
+        registry.addInterceptor(new AdmissionControlInterceptor(admissionController, objectMapper))
+                .addPathPatterns("/api/v1/payments");
+        registry.addInterceptor(new LatencyInterceptor(latencyHistograms))
+                .addPathPatterns("/api/v1/payments", "/api/v1/payments/**", "/api/v1/webhooks/**");
+    }
+}
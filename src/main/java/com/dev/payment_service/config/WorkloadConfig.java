@@ -0,0 +1,55 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(WorkloadProperties.class)
+public class WorkloadConfig {
+
+    /** One Hikari pool per workload behind a single DataSource, so JPA and transactions are unchanged. */
+    @Bean
+    @ConditionalOnProperty(name = "workloads.enabled", havingValue = "true", matchIfMissing = true)
+    DataSource dataSource(DataSourceProperties dataSourceProperties, WorkloadProperties properties,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            WorkloadProperties.Settings settings = properties.get(workload);
+            HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            pool.setPoolName(workload.id());
+            pool.setMaximumPoolSize(settings.getPoolSize());
+            pool.setConnectionTimeout(settings.getConnectionTimeout().toMillis());
+            meterRegistry.ifAvailable(pool::setMetricRegistry);
+            pools.put(workload, pool);
+        }
+        return new WorkloadRoutingDataSource(pools);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    WorkloadExecutors workloadExecutors(WorkloadProperties properties) {
+        return new WorkloadExecutors(properties);
+    }
+
+    // Ahead of the security chain, whose filters may query users
+    @Bean
+    FilterRegistrationBean<WorkloadFilter> workloadFilterRegistration() {
+        FilterRegistrationBean<WorkloadFilter> registration = new FilterRegistrationBean<>(new WorkloadFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,74 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Bounded executors for webhook processing and the admin listing, so neither can hold every Tomcat
+ * thread. Controllers return {@link #submit}'s {@link WebAsyncTask}: the request thread goes back to
+ * Tomcat, the work runs on the workload's threads with its connection pool, and a full queue or a
+ * timeout answers 503. Payments keep the Tomcat threads. Metrics are {@code executor.*{name}}.
+ */
+public class WorkloadExecutors implements MeterBinder {
+
+    private final Map<Workload, ThreadPoolTaskExecutor> executors = new EnumMap<>(Workload.class);
+    private final Map<Workload, Duration> timeouts = new EnumMap<>(Workload.class);
+    private final AsyncTaskExecutor inline = new TaskExecutorAdapter(Runnable::run);
+
+    public WorkloadExecutors(WorkloadProperties properties) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Workload workload : new Workload[]{Workload.WEBHOOKS, Workload.ADMIN}) {
+            WorkloadProperties.Settings settings = properties.get(workload);
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(settings.getThreads());
+            executor.setMaxPoolSize(settings.getThreads());
+            executor.setQueueCapacity(settings.getQueueCapacity());
+            executor.setThreadNamePrefix(workload.id() + "-");
+            executor.setDaemon(true);
+            executor.setTaskDecorator(task -> () -> {
+                Workload previous = WorkloadRoutingDataSource.use(workload);
+                try {
+                    task.run();
+                } finally {
+                    WorkloadRoutingDataSource.restore(previous);
+                }
+            });
+            executor.initialize();
+            executors.put(workload, executor);
+            timeouts.put(workload, settings.getRequestTimeout());
+        }
+    }
+
+    /** Runs {@code task} on the workload's executor, or on the request thread when workloads are disabled. */
+    public <T> WebAsyncTask<T> submit(Workload workload, Callable<T> task) {
+        ThreadPoolTaskExecutor executor = executors.get(workload);
+        if (executor == null) {
+            return new WebAsyncTask<>(null, inline, task);
+        }
+        return new WebAsyncTask<>(timeouts.get(workload).toMillis(), executor, task);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        executors.forEach((workload, executor) ->
+                new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), workload.id(), Tags.empty()).bindTo(registry));
+    }
+
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+}
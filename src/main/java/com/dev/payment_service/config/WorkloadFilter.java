@@ -0,0 +1,41 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Tags the request thread with its {@link Workload} before security and the controllers touch the
+ * database. Work handed to a workload executor is tagged by the executor instead.
+ */
+public class WorkloadFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Workload previous = WorkloadRoutingDataSource.use(classify(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+    }
+
+    static Workload classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/v1/webhooks/")) {
+            return Workload.WEBHOOKS;
+        }
+        if (path.startsWith("/api/v1/admin/")
+                || (HttpMethod.GET.matches(request.getMethod()) && path.equals("/api/v1/payments"))) {
+            return Workload.ADMIN;
+        }
+        return Workload.PAYMENTS;
+    }
+}
@@ -0,0 +1,59 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and executor per {@link Workload}. The pools replace the single
+ * {@code spring.datasource.hikari} pool; {@code spring.datasource.url}, username and password still apply.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "workloads")
+public class WorkloadProperties {
+
+    private boolean enabled = true;
+
+    /** Runs on the Tomcat request threads, so threads, queue-capacity and request-timeout are unused. */
+    private Settings payments = new Settings(10, Duration.ofSeconds(30), 0, 0, Duration.ZERO);
+
+    private Settings webhooks = new Settings(4, Duration.ofSeconds(5), 4, 100, Duration.ofSeconds(30));
+
+    private Settings admin = new Settings(2, Duration.ofSeconds(10), 2, 10, Duration.ofSeconds(60));
+
+    public Settings get(Workload workload) {
+        return switch (workload) {
+            case PAYMENTS -> payments;
+            case WEBHOOKS -> webhooks;
+            case ADMIN -> admin;
+        };
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Settings {
+
+        /** Connections in this workload's Hikari pool. */
+        private int poolSize;
+
+        /** How long a caller waits for a connection before the request fails. */
+        private Duration connectionTimeout;
+
+        /** Executor threads. */
+        private int threads;
+
+        /** Tasks waiting for a thread; beyond this requests get 503. */
+        private int queueCapacity;
+
+        /** Requests still running after this get 503. */
+        private Duration requestTimeout;
+    }
+}
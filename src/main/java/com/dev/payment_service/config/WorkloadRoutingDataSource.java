@@ -0,0 +1,68 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current thread's {@link Workload}. Threads without one,
+ * such as scheduled jobs and startup work, use the admin pool. The workload is read when a transaction
+ * takes its connection, so it must be set before the first query.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private final Map<Workload, HikariDataSource> pools;
+
+    public WorkloadRoutingDataSource(Map<Workload, HikariDataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Workload.ADMIN));
+        // Unknown keys are a bug, not a reason to quietly share the admin pool
+        setLenientFallback(false);
+    }
+
+    /** Sets the current thread's workload and returns the previous one, for {@link #restore}. */
+    public static Workload use(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    public static void restore(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static Workload current() {
+        return CURRENT.get();
+    }
+
+    public DataSource pool(Workload workload) {
+        return pools.get(workload);
+    }
+
+    public int maximumPoolSize(Workload workload) {
+        return pools.get(workload).getMaximumPoolSize();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,183 @@
+package com.dev.payment_service.controller;
+
+import com.dev.payment_service.dto.CacheStatsResponse;
+import com.dev.payment_service.dto.FlightRecordingResponse;
+import com.dev.payment_service.dto.LatencyWindowResponse;
+import com.dev.payment_service.security.TokenRevocationService;
+import com.dev.payment_service.service.CacheStatsService;
+import com.dev.payment_service.service.FlightRecordingService;
+import com.dev.payment_service.service.LatencyHistograms;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Operational endpoints for administrators")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    private final TokenRevocationService revocationService;
+    private final CacheStatsService cacheStatsService;
+    private final FlightRecordingService flightRecordingService;
+    private final LatencyHistograms latencyHistograms;
+
+    @PostMapping("/users/{username}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Revoke a user's tokens",
+            description = "Invalidates every JWT issued to the user so far. The user must log in again."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Tokens revoked"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<Void> revokeTokens(
+            @PathVariable
+            @Parameter(description = "Username whose tokens to revoke", required = true)
+            String username) {
+
+        revocationService.revokeTokens(username);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Cache statistics",
+            description = "Size, hit and miss counts, hit rate and evictions of each application cache."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics per cache"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    })
+    public ResponseEntity<List<CacheStatsResponse>> cacheStats() {
+        return ResponseEntity.ok(cacheStatsService.stats());
+    }
+
+    @DeleteMapping("/caches/{name}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Clear a cache",
+            description = "Drops every entry; the next lookups go to the database."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Cache cleared"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required"),
+            @ApiResponse(responseCode = "404", description = "Cache not found")
+    })
+    public ResponseEntity<Void> clearCache(
+            @PathVariable
+            @Parameter(description = "Cache name, e.g. users", required = true)
+            String name) {
+
+        cacheStatsService.clear(name);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/jfr/start")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Start a flight recording",
+            description = "Starts a JFR recording with payment phase events enabled. Returns the running recording if there already is one."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording running"),
+            @ApiResponse(responseCode = "400", description = "Unknown JFR settings"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    })
+    public ResponseEntity<FlightRecordingResponse> startRecording(
+            @RequestParam(defaultValue = "default")
+            @Parameter(description = "JFR settings: default (low overhead) or profile")
+            String settings) {
+
+        return ResponseEntity.ok(flightRecordingService.start(settings));
+    }
+
+    @GetMapping("/jfr")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Flight recording status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording status"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required"),
+            @ApiResponse(responseCode = "404", description = "No recording running")
+    })
+    public ResponseEntity<FlightRecordingResponse> recordingStatus() {
+        return ResponseEntity.ok(flightRecordingService.status());
+    }
+
+    @GetMapping("/jfr/dump")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Download the flight recording",
+            description = "Dumps what has been recorded so far as a .jfr file; the recording keeps running."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "JFR file"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required"),
+            @ApiResponse(responseCode = "404", description = "No recording running")
+    })
+    public ResponseEntity<StreamingResponseBody> dumpRecording() throws IOException {
+        Path file = flightRecordingService.dump();
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                Files.copy(file, outputStream);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/jfr/stop")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Stop the flight recording", description = "Stops and discards the recording.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Recording stopped"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required"),
+            @ApiResponse(responseCode = "404", description = "No recording running")
+    })
+    public ResponseEntity<Void> stopRecording() {
+        flightRecordingService.stop();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/slo")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Live latency and SLO status",
+            description = "p50, p99 and p99.9 on this instance over the last 1 and 5 minutes for each payment and "
+                    + "webhook endpoint and Stripe operation, compared with the p99 objective."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Latency per endpoint and window"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    })
+    public ResponseEntity<List<LatencyWindowResponse>> slo() {
+        return ResponseEntity.ok(latencyHistograms.snapshot());
+    }
+}
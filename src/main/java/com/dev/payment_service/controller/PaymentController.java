@@ -1,8 +1,10 @@
 package com.dev.payment_service.controller;
 
+import com.dev.payment_service.config.WorkloadExecutors;
 import com.dev.payment_service.dto.PaymentInitiationRequest;
 import com.dev.payment_service.dto.PaymentInitiationResponse;
 import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.enums.Workload;
 import com.dev.payment_service.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -31,6 +34,7 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final WorkloadExecutors workloadExecutors;
 
 
     @PostMapping
@@ -91,7 +95,7 @@ public class PaymentController {
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required", content = @Content)
     })
-    public ResponseEntity<List<PaymentInitiationResponse>> getAllPayments(
+    public WebAsyncTask<ResponseEntity<List<PaymentInitiationResponse>>> getAllPayments(
             @RequestParam(required = false)
             @Parameter(description = "Filter by payment status")
             PaymentStatus status,
@@ -108,9 +112,9 @@ public class PaymentController {
             @Parameter(description = "Filter by maximum amount")
             BigDecimal maxAmount) {
 
-        List<PaymentInitiationResponse> payments = paymentService.getAllPayments(
-                status, startDate, endDate, minAmount, maxAmount);
-        return ResponseEntity.ok(payments);
+        // An unpaged scan: runs on the admin executor and pool so it cannot hold up payments
+        return workloadExecutors.submit(Workload.ADMIN, () -> ResponseEntity.ok(paymentService.getAllPayments(
+                status, startDate, endDate, minAmount, maxAmount)));
     }
 
 }
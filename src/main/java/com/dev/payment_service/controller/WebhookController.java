@@ -1,5 +1,9 @@
 package com.dev.payment_service.controller;
 
+import com.dev.payment_service.config.StripeAccount;
+import com.dev.payment_service.config.WorkloadExecutors;
+import com.dev.payment_service.enums.Workload;
+import com.dev.payment_service.service.StripeAccountRouter;
 import com.dev.payment_service.service.WebhookService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stripe.exception.SignatureVerificationException;
@@ -13,10 +17,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 
 @RestController
@@ -29,9 +33,8 @@ public class WebhookController {
 
     private final WebhookService webhookService;
     private final ObjectMapper objectMapper;
-
-    @Value("${stripe.webhook.secret:}")
-    private String webhookSecret;
+    private final StripeAccountRouter accountRouter;
+    private final WorkloadExecutors workloadExecutors;
 
     @PostMapping("/payment")
     @Operation(
@@ -42,7 +45,7 @@ public class WebhookController {
             @ApiResponse(responseCode = "200", description = "Webhook received and processed"),
             @ApiResponse(responseCode = "400", description = "Invalid signature or payload")
     })
-    public ResponseEntity<String> handleStripeWebhook(
+    public WebAsyncTask<ResponseEntity<String>> handleStripeWebhook(
             @RequestBody
             @Parameter(description = "Stripe webhook event payload", required = true)
             String payload,
@@ -50,7 +53,45 @@ public class WebhookController {
             @Parameter(description = "Stripe signature for webhook verification", required = true)
             String sigHeader) {
 
-        log.info("Received Stripe webhook event");
+        return workloadExecutors.submit(Workload.WEBHOOKS,
+                () -> handleWebhook(accountRouter.primary(), payload, sigHeader));
+    }
+
+    @PostMapping("/payment/{accountId}")
+    @Operation(
+            summary = "Handle Stripe webhook events for a specific Stripe account",
+            description = "Same as /payment, but verifies the signature with the webhook secret of the given Stripe account. Register one endpoint per account in the Stripe dashboard."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Webhook received and processed"),
+            @ApiResponse(responseCode = "400", description = "Invalid signature or payload")
+    })
+    public WebAsyncTask<ResponseEntity<String>> handleStripeAccountWebhook(
+            @PathVariable
+            @Parameter(description = "Configured Stripe account id", required = true)
+            String accountId,
+            @RequestBody
+            @Parameter(description = "Stripe webhook event payload", required = true)
+            String payload,
+            @RequestHeader("Stripe-Signature")
+            @Parameter(description = "Stripe signature for webhook verification", required = true)
+            String sigHeader) {
+
+        StripeAccount account;
+        try {
+            account = accountRouter.get(accountId);
+        } catch (IllegalStateException e) {
+            log.error("Webhook received for unknown Stripe account: {}", accountId);
+            return workloadExecutors.submit(Workload.WEBHOOKS,
+                    () -> ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Unknown account"));
+        }
+        return workloadExecutors.submit(Workload.WEBHOOKS, () -> handleWebhook(account, payload, sigHeader));
+    }
+
+    private ResponseEntity<String> handleWebhook(StripeAccount account, String payload, String sigHeader) {
+
+        log.info("Received Stripe webhook event: account={}", account.id());
+        String webhookSecret = account.webhookSecret();
 
         Event event;
 
@@ -75,7 +116,7 @@ public class WebhookController {
         }
 
         try {
-            webhookService.handleWebhookEvent(event);
+            webhookService.handleWebhookEvent(event, account.id());
             log.info("Webhook event processed successfully: type={}, id={}", event.getType(), event.getId());
             return ResponseEntity.ok("Webhook received");
         } catch (Exception e) {
@@ -0,0 +1,35 @@
+package com.dev.payment_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Hit and eviction counters of an application cache")
+public class CacheStatsResponse {
+
+    @Schema(description = "Cache name", example = "users")
+    private String name;
+
+    @Schema(description = "Approximate number of entries", example = "1250")
+    private long size;
+
+    @Schema(description = "Lookups served from the cache", example = "98211")
+    private long hitCount;
+
+    @Schema(description = "Lookups that went to the database", example = "1402")
+    private long missCount;
+
+    @Schema(description = "Hits divided by lookups, 1.0 when there were none", example = "0.986")
+    private double hitRate;
+
+    @Schema(description = "Entries removed for size or expiry", example = "37")
+    private long evictionCount;
+}
@@ -0,0 +1,37 @@
+package com.dev.payment_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "State of the administrator's Flight Recorder recording")
+public class FlightRecordingResponse {
+
+    @Schema(description = "Recording id", example = "3")
+    private long id;
+
+    @Schema(description = "Recording state", example = "RUNNING")
+    private String state;
+
+    @Schema(description = "JFR settings the recording was started with", example = "default")
+    private String settings;
+
+    @Schema(description = "When the recording started", example = "2023-11-25T10:30:00Z")
+    private Instant startTime;
+
+    @Schema(description = "Oldest data kept, in seconds", example = "1800")
+    private long maxAgeSeconds;
+
+    @Schema(description = "Bytes written so far", example = "1048576")
+    private long sizeBytes;
+}
@@ -0,0 +1,44 @@
+package com.dev.payment_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Latency percentiles of one endpoint or Stripe operation over a rolling window")
+public class LatencyWindowResponse {
+
+    @Schema(description = "Endpoint or Stripe operation", example = "POST /api/v1/payments")
+    private String name;
+
+    @Schema(description = "Window length in seconds", example = "60")
+    private long windowSeconds;
+
+    @Schema(description = "Requests in the window", example = "5231")
+    private long count;
+
+    @Schema(description = "Median latency in milliseconds", example = "42.5")
+    private double p50Millis;
+
+    @Schema(description = "99th percentile latency in milliseconds", example = "310.2")
+    private double p99Millis;
+
+    @Schema(description = "99.9th percentile latency in milliseconds", example = "780.0")
+    private double p999Millis;
+
+    @Schema(description = "Slowest request in milliseconds", example = "1204.0")
+    private double maxMillis;
+
+    @Schema(description = "p99 objective in milliseconds", example = "500")
+    private long p99TargetMillis;
+
+    @Schema(description = "Whether p99 is within the objective; true when there was no traffic", example = "true")
+    private boolean withinSlo;
+}
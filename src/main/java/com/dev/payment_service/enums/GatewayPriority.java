@@ -0,0 +1,6 @@
+package com.dev.payment_service.enums;
+
+public enum GatewayPriority {
+    LIVE,
+    BACKGROUND
+}
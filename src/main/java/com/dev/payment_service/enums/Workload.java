@@ -0,0 +1,16 @@
+package com.dev.payment_service.enums;
+
+/** Traffic classes that get their own connection pool, and for webhooks and admin their own executor. */
+public enum Workload {
+    /** Customer-facing requests: payment initiation and lookups, authentication. */
+    PAYMENTS,
+    /** Stripe webhook deliveries. */
+    WEBHOOKS,
+    /** Admin endpoints, the payment listing and background jobs. */
+    ADMIN;
+
+    /** Pool and executor name used in metrics, e.g. {@code hikaricp_connections_pending{pool="webhooks"}}. */
+    public String id() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,17 @@
+package com.dev.payment_service.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/** Thrown when the client-side Stripe rate limiter cannot grant a permit in time. */
+@Getter
+public class GatewayRateLimitException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public GatewayRateLimitException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
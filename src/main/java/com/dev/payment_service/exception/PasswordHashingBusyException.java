@@ -0,0 +1,17 @@
+package com.dev.payment_service.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/** Thrown when the password hashing executor's queue is full. */
+@Getter
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
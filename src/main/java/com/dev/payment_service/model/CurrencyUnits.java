@@ -0,0 +1,99 @@
+package com.dev.payment_service.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Minor-unit exponents for ISO 4217 currencies as Stripe uses them, precomputed into a table
+ * indexed by the three letters of the code so lookups never allocate.
+ */
+public final class CurrencyUnits {
+
+    public static final int MAX_EXPONENT = 3;
+
+    private static final int DEFAULT_EXPONENT = 2;
+
+    private static final String[] ZERO_DECIMAL = {
+            "bif", "clp", "djf", "gnf", "jpy", "kmf", "krw", "mga",
+            "pyg", "rwf", "ugx", "vnd", "vuv", "xaf", "xof", "xpf"
+    };
+
+    private static final String[] THREE_DECIMAL = {"bhd", "jod", "kwd", "omr", "tnd"};
+
+    private static final byte[] EXPONENTS = new byte[26 * 26 * 26];
+
+    static {
+        Arrays.fill(EXPONENTS, (byte) DEFAULT_EXPONENT);
+        for (String code : ZERO_DECIMAL) {
+            EXPONENTS[index(code)] = 0;
+        }
+        for (String code : THREE_DECIMAL) {
+            EXPONENTS[index(code)] = 3;
+        }
+    }
+
+    private CurrencyUnits() {
+    }
+
+    /** Number of minor-unit digits, e.g. 2 for "usd", 0 for "jpy", 3 for "kwd". Case-insensitive. */
+    public static int exponent(String currency) {
+        return EXPONENTS[index(currency)];
+    }
+
+    /** Exact conversion; rejects amounts with more decimal places than the currency allows. */
+    public static long toMinor(BigDecimal amount, String currency) {
+        int exponent = exponent(currency);
+        try {
+            return amount.movePointRight(exponent).longValueExact();
+        } catch (ArithmeticException e) {
+            if (amount.stripTrailingZeros().scale() > exponent) {
+                throw new IllegalArgumentException(String.format("Amount %s has more than %d decimal places for %s",
+                        amount.toPlainString(), exponent, currency.toUpperCase(Locale.ROOT)));
+            }
+            throw new IllegalArgumentException("Amount is too large: " + amount.toPlainString());
+        }
+    }
+
+    public static long toMinor(BigDecimal amount, String currency, RoundingMode roundingMode) {
+        return amount.setScale(exponent(currency), roundingMode).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toMajor(long minorUnits, String currency) {
+        return BigDecimal.valueOf(minorUnits, exponent(currency));
+    }
+
+    /**
+     * The bound expressed in minor units for every exponent, indexed by exponent, so filters can
+     * compare stored minor units without converting each row. Out-of-range bounds are clamped.
+     */
+    public static long[] boundsByExponent(BigDecimal bound, RoundingMode roundingMode) {
+        long[] bounds = new long[MAX_EXPONENT + 1];
+        for (int exponent = 0; exponent <= MAX_EXPONENT; exponent++) {
+            BigDecimal scaled = bound.setScale(exponent, roundingMode).movePointRight(exponent);
+            try {
+                bounds[exponent] = scaled.longValueExact();
+            } catch (ArithmeticException e) {
+                bounds[exponent] = scaled.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+            }
+        }
+        return bounds;
+    }
+
+    private static int index(String currency) {
+        if (currency == null || currency.length() != 3) {
+            throw new IllegalArgumentException("Invalid currency code: " + currency);
+        }
+        int index = 0;
+        for (int i = 0; i < 3; i++) {
+            // ASCII lowercase; anything outside a-z is rejected below
+            int c = currency.charAt(i) | 0x20;
+            if (c < 'a' || c > 'z') {
+                throw new IllegalArgumentException("Invalid currency code: " + currency);
+            }
+            index = index * 26 + (c - 'a');
+        }
+        return index;
+    }
+}
@@ -0,0 +1,39 @@
+package com.dev.payment_service.model;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/** An amount in the currency's smallest unit (cents, yen, fils), as Stripe expects it. */
+public record Money(long minorUnits, String currency) implements Comparable<Money> {
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+        // Validates the code
+        CurrencyUnits.exponent(currency);
+    }
+
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(CurrencyUnits.toMinor(amount, currency), currency);
+    }
+
+    public int exponent() {
+        return CurrencyUnits.exponent(currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, exponent());
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        if (!currency.equalsIgnoreCase(other.currency)) {
+            throw new IllegalArgumentException("Cannot compare " + currency + " with " + other.currency);
+        }
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+}
@@ -3,11 +3,13 @@ package com.dev.payment_service.model;
 import com.dev.payment_service.enums.PaymentMethod;
 import com.dev.payment_service.enums.PaymentStatus;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Instant;
 
 @Entity
@@ -30,9 +32,17 @@ public class Transaction {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
+    // Existing databases need db/migration/transactions-amount-scale-3.sql; ddl-auto=update keeps the old scale
+    @Column(nullable = false, precision = 19, scale = 3)
     private BigDecimal amount;
 
+    // Authoritative amount in the currency's minor units. Rows written before the column existed are null
+    // until db/migration/transactions-amount-minor.sql backfills them; the getter converts them on read.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "amount_minor")
+    private Long amountMinor;
+
     @Column(nullable = false)
     private String transactionReference;
 
@@ -53,6 +63,15 @@ public class Transaction {
     @Column(nullable = false, length = 50)
     private String provider;
 
+    // Stripe account the payment was created on; webhooks and reconciliation route back through it
+    @Column(name = "stripe_account", length = 50)
+    private String stripeAccount;
+
+    // Stripe PaymentMethod id (pm_...), saved before any PaymentIntent can exist so an interrupted
+    // payment can be replayed under its idempotency key
+    @Column(name = "payment_method_ref", length = 100)
+    private String paymentMethodRef;
+
     // TODO: Replace with user from Spring Security Authentication
     @Column(name = "created_by")
     private String createdBy;
@@ -67,8 +86,33 @@ public class Transaction {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    // Status the last counted transition ended in; PaymentMetrics counts a change only once
+    @Transient
+    private PaymentStatus persistedStatus;
+
+    // Never assigns the field: a managed entity read for a listing must not become dirty
+    public long getAmountMinor() {
+        return amountMinor != null ? amountMinor : CurrencyUnits.toMinor(amount, currency, RoundingMode.HALF_EVEN);
+    }
+
+    public Money getMoney() {
+        return new Money(getAmountMinor(), currency);
+    }
+
+    public void setMoney(Money money) {
+        this.amountMinor = money.minorUnits();
+        this.amount = money.toBigDecimal();
+        this.currency = money.currency();
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+        this.amountMinor = null;
+    }
+
     @PrePersist
     public void prePersist() {
+        this.amountMinor = getAmountMinor();
         this.createdAt = Instant.now();
         this.updatedAt = this.createdAt;
 
@@ -80,8 +124,10 @@ public class Transaction {
         }
     }
 
+    // Only runs for rows already being written, so legacy rows fill amount_minor as they change
     @PreUpdate
     public void preUpdate() {
+        this.amountMinor = getAmountMinor();
         this.updatedAt = Instant.now();
 
         if (this.lastModifiedBy == null) {
@@ -89,9 +135,13 @@ public class Transaction {
         }
     }
 
+    @PostLoad
+    public void postLoad() {
+        this.persistedStatus = this.status;
+    }
+
 
     @ManyToOne
     @JoinColumn(name="user_id")
     private User user;
-
 }
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -38,6 +39,11 @@ public class User implements UserDetails {
     @Column(nullable=false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Bumped to revoke every token issued so far; tokens carry it in the "ver" claim
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
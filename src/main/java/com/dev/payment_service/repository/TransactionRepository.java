@@ -1,9 +1,14 @@
 package com.dev.payment_service.repository;
 
+import com.dev.payment_service.enums.PaymentStatus;
 import com.dev.payment_service.model.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,10 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
 
     Optional<Transaction> findByProviderReferenceId(String providerReferenceId);
+
+    List<Transaction> findByStatusAndProviderReferenceIdStartingWithAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+            PaymentStatus status, String providerReferencePrefix, Instant updatedBefore, Pageable pageable);
+
+    List<Transaction> findByStatusAndProviderReferenceIdInAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+            PaymentStatus status, Collection<String> providerReferenceIds, Instant updatedBefore, Pageable pageable);
 }
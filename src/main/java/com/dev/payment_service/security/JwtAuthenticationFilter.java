@@ -1,10 +1,12 @@
 package com.dev.payment_service.security;
 
+import com.dev.payment_service.security.VerifiedTokenCache.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,8 +19,13 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService revocationService;
+
+    // Build the principal from verified claims instead of loading the user on every request
+    @Value("${jwt.claims-only:true}")
+    private boolean claimsOnly;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -33,22 +40,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        // Verified at most once per distinct token; repeat requests are a digest lookup
+        VerifiedToken token = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                token = tokenCache.resolve(jwt);
             } catch (Exception e) {
-                logger.error("Error extracting username from JWT: " + e.getMessage());
+                logger.error("Error parsing JWT: " + e.getMessage());
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (token != null && token.username() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String username = token.username();
+
+            if (revocationService.isRevoked(username, token.tokenVersion())) {
+                logger.warn("Rejected revoked JWT for user: " + username);
+            } else {
+                UserDetails userDetails = claimsOnly
+                        ? token.principal()
+                        : this.userDetailsService.loadUserByUsername(username);
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -57,4 +71,3 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 }
-
@@ -0,0 +1,39 @@
+package com.dev.payment_service.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Holds the HMAC key and a configured parser, both built once. The parser is immutable and
+ * thread-safe, so every request verifies its token with a single parse.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtTokenVerifier(
+            @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationAndValidation1234567890}") String secret) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /** Verifies signature and expiry; throws {@link io.jsonwebtoken.JwtException} otherwise. */
+    public Claims verify(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    SecretKey signingKey() {
+        return signingKey;
+    }
+}
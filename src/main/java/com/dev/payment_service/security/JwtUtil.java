@@ -1,57 +1,69 @@
 package com.dev.payment_service.security;
 
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
+/** Issues tokens; verification lives in {@link JwtTokenVerifier}. */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationAndValidation1234567890}")
-    private String secret;
+    public static final String ROLES_CLAIM = "roles";
+    public static final String VERSION_CLAIM = "ver";
 
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
-    private Long expiration;
+    private final JwtTokenVerifier verifier;
+    private final long expiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public JwtUtil(JwtTokenVerifier verifier,
+                   @Value("${jwt.expiration:86400000}") long expiration) { // 24 hours in milliseconds
+        this.verifier = verifier;
+        this.expiration = expiration;
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public String generateToken(User user) {
+        return generateToken(user.getUsername(), user.getUserRole(), user.getTokenVersion());
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String generateToken(String username, UserRole role, long tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, List.of("ROLE_" + role.name()));
+        claims.put(VERSION_CLAIM, tokenVersion);
+        return createToken(claims, username);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Role names from the token. Tokens issued before roles were plain strings carry
+     * serialized authorities, e.g. {@code [{"authority":"ROLE_ADMIN"}]}.
+     */
+    public static List<String> extractRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value instanceof String role) {
+                result.add(role);
+            } else if (value instanceof Map<?, ?> legacy && legacy.get("authority") instanceof String role) {
+                result.add(role);
+            }
+        }
+        return result;
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("roles", userDetails.getAuthorities());
-        return createToken(claims, userDetails.getUsername());
+    /** Tokens issued before versioning count as version 0. */
+    public static long extractTokenVersion(Claims claims) {
+        return claims.get(VERSION_CLAIM) instanceof Number version ? version.longValue() : 0L;
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
@@ -60,18 +72,7 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(verifier.signingKey())
                 .compact();
     }
-
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(java.util.Base64.getEncoder().encodeToString(secret.getBytes()));
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
-
@@ -0,0 +1,198 @@
+package com.dev.payment_service.security;
+
+import com.dev.payment_service.config.PaymentRateLimitProperties;
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for payment initiation, one per client IP and one per authenticated user.
+ * Each bucket is a single {@link AtomicLong} updated by CAS, and the buckets live in a
+ * {@link ConcurrentHashMap}, so callers never share a lock. Runs after JWT authentication in
+ * the security chain so the user's role picks the limit. The client IP is the remote address,
+ * resolved from X-Forwarded-For for trusted proxies via {@code server.forward-headers-strategy}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentRateLimitFilter.class);
+
+    private static final String PAYMENTS_PATH = "/api/v1/payments";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final PaymentRateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> userBuckets = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !PAYMENTS_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long now = System.nanoTime();
+        Bucket ipBucket = bucket(ipBuckets, request.getRemoteAddr(), properties.getIp());
+        Decision decision = ipBucket.tryAcquire(now);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (decision.allowed() && authentication != null && authentication.isAuthenticated()) {
+            PaymentRateLimitProperties.Limit limit = limitFor(properties, authentication);
+            if (limit != null) {
+                Decision userDecision = bucket(userBuckets, authentication.getName(), limit).tryAcquire(now);
+                if (!userDecision.allowed()) {
+                    // One throttled user must not drain the budget of everyone behind the same address
+                    ipBucket.refund();
+                }
+                decision = userDecision.allowed() && decision.remaining() < userDecision.remaining()
+                        ? decision : userDecision;
+            }
+        }
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.warn("Payment rate limit exceeded: user={}, ip={}",
+                authentication != null ? authentication.getName() : null, request.getRemoteAddr());
+        reject(response, decision.retryAfterSeconds());
+    }
+
+    /** Drops buckets that have refilled completely; they are indistinguishable from new ones. */
+    @Scheduled(fixedDelayString = "${payments.rate-limit.purge-interval-ms:60000}")
+    public void purgeIdleBuckets() {
+        long now = System.nanoTime();
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public int trackedBuckets() {
+        return ipBuckets.size() + userBuckets.size();
+    }
+
+    /** The limit for the caller's role, or null when none of the roles has one. */
+    public static PaymentRateLimitProperties.Limit limitFor(PaymentRateLimitProperties properties,
+                                                            Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                try {
+                    PaymentRateLimitProperties.Limit limit =
+                            properties.getRoles().get(UserRole.valueOf(name.substring(ROLE_PREFIX.length())));
+                    if (limit != null) {
+                        return limit;
+                    }
+                } catch (IllegalArgumentException ignored) {
+                    // Not one of our roles
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Bucket bucket(Map<String, Bucket> buckets, String key, PaymentRateLimitProperties.Limit limit) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(limit.getRequestsPerMinute(), limit.getBurst()));
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("Payment rate limit exceeded. Retry after " + retryAfterSeconds + "s")
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    public record Decision(boolean allowed, int limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+
+    /**
+     * Token bucket stored as the theoretical arrival time of the next request (GCRA): one CAS per
+     * request, no refill bookkeeping, and the bucket is full whenever that time is in the past.
+     */
+    public static final class Bucket {
+
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final int burst;
+
+        public Bucket(int requestsPerMinute, int burst) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(requestsPerMinute, 1);
+            this.burst = Math.max(burst, 1);
+            this.toleranceNanos = intervalNanos * this.burst;
+        }
+
+        public Decision tryAcquire(long now) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long start = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long next = start + intervalNanos;
+                long ahead = next - now;
+                if (ahead > toleranceNanos) {
+                    long retryAfter = ahead - toleranceNanos;
+                    return new Decision(false, burst, 0, seconds(start - now), seconds(retryAfter));
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return new Decision(true, burst, (toleranceNanos - ahead) / intervalNanos, seconds(ahead), 0);
+                }
+            }
+        }
+
+        /** Gives back a token taken by {@link #tryAcquire} for a request that was rejected elsewhere. */
+        public void refund() {
+            theoreticalArrival.accumulateAndGet(intervalNanos,
+                    (current, interval) -> current == Long.MIN_VALUE ? current : current - interval);
+        }
+
+        public boolean isFull(long now) {
+            long current = theoreticalArrival.get();
+            return current == Long.MIN_VALUE || current - now <= 0;
+        }
+
+        private static long seconds(long nanos) {
+            return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
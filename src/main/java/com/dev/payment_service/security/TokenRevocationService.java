@@ -0,0 +1,63 @@
+package com.dev.payment_service.security;
+
+import com.dev.payment_service.model.User;
+import com.dev.payment_service.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the current token version of every user that has ever revoked tokens in memory, so
+ * claims-only authentication can reject revoked tokens without a database query. Versions only
+ * grow; other instances pick up revocations on the next refresh.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
+
+    private final Map<String, Long> currentVersions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:30000}",
+            initialDelayString = "${jwt.revocation.refresh-ms:30000}")
+    public void refresh() {
+        for (User user : userRepository.findByTokenVersionGreaterThan(0L)) {
+            currentVersions.merge(user.getUsername(), user.getTokenVersion(), Math::max);
+        }
+    }
+
+    public boolean isRevoked(String username, long tokenVersion) {
+        Long current = currentVersions.get(username);
+        return current != null && tokenVersion < current;
+    }
+
+    /** Invalidates every token issued to the user so far, e.g. after a password or role change. */
+    @Transactional
+    public void revokeTokens(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new NoSuchElementException("User not found: " + username));
+        long version = user.getTokenVersion() + 1;
+        user.setTokenVersion(version);
+        // Next login must issue tokens with the new version
+        userLookupService.save(user);
+        currentVersions.merge(username, version, Math::max);
+        log.info("Revoked tokens: username={}, tokenVersion={}", username, version);
+    }
+
+    public int trackedUsers() {
+        return currentVersions.size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.dev.payment_service.security;
+
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.model.User;
+import com.dev.payment_service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cached username lookups for login, registration and {@link CustomUserDetailsService}. Entries
+ * are immutable snapshots rather than entities, and every write to a user goes through
+ * {@link #save} or {@link #evict}. Other instances see changes once the entry expires.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserLookupService {
+
+    public static final String USERS_CACHE = "users";
+
+    private final UserRepository userRepository;
+
+    /** Unknown usernames are not cached, so a user is visible as soon as registration commits. */
+    @Cacheable(cacheNames = USERS_CACHE, key = "#username", unless = "#result == null")
+    public Optional<CachedUser> findByUsername(String username) {
+        return userRepository.findByUsername(username).map(CachedUser::of);
+    }
+
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#user.username")
+    public User save(User user) {
+        return userRepository.save(user);
+    }
+
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#username")
+    public void evict(String username) {
+    }
+
+    public record CachedUser(Long id, String username, String password, UserRole userRole, long tokenVersion) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getUsername(), user.getPassword(),
+                    user.getUserRole(), user.getTokenVersion());
+        }
+
+        public UserDetails toUserDetails() {
+            return new org.springframework.security.core.userdetails.User(
+                    username, password, List.of(new SimpleGrantedAuthority("ROLE_" + userRole.name())));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.dev.payment_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already-verified tokens, keyed by the SHA-256 of the token so raw bearer
+ * tokens are never held in memory. Each entry expires at the token's own {@code exp}, so a
+ * cached token is never accepted after it would have failed verification.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final MessageDigest SHA_256_PROTOTYPE = sha256();
+
+    private final JwtTokenVerifier verifier;
+    private final Cache<TokenDigest, VerifiedToken> cache;
+
+    @Autowired
+    public VerifiedTokenCache(JwtTokenVerifier verifier,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this(verifier, maxSize, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(JwtTokenVerifier verifier, long maxSize, Ticker ticker) {
+        this.verifier = verifier;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .ticker(ticker)
+                .build();
+    }
+
+    /** Returns the cached verification result or verifies the token; throws {@link io.jsonwebtoken.JwtException}. */
+    public VerifiedToken resolve(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken cached = cache.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = VerifiedToken.from(verifier.verify(token));
+        if (verified.expiresAtMillis() > 0) {
+            cache.put(digest, verified);
+        }
+        return verified;
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /** Everything the filter needs from a token; the principal is immutable and safe to share. */
+    public record VerifiedToken(String username, long tokenVersion, UserDetails principal, long expiresAtMillis) {
+
+        static VerifiedToken from(Claims claims) {
+            String username = claims.getSubject();
+            UserDetails principal = new User(username, "", JwtUtil.extractRoles(claims).stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .toList());
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(username, JwtUtil.extractTokenVersion(claims), principal,
+                    expiration != null ? expiration.getTime() : 0L);
+        }
+    }
+
+    record TokenDigest(long a, long b, long c, long d) {
+
+        static TokenDigest of(String token) {
+            MessageDigest digest;
+            try {
+                digest = (MessageDigest) SHA_256_PROTOTYPE.clone();
+            } catch (CloneNotSupportedException e) {
+                digest = sha256();
+            }
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenDigest, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether a request to {@code /api/v1/payments} is worth starting. Reads the Hikari pool
+ * meters every {@code admission.sample-interval}: the average connection acquire time since the last
+ * sample, callers queued for a connection (including the {@code db.max-concurrency} queue) and
+ * acquire timeouts, each priority from its own pool and its workload's queue when one is configured. Crossing a {@link Priority}'s threshold sheds that priority and every lower one
+ * until the pool has looked healthy for {@code admission.recovery}; a lower priority is readmitted one
+ * recovery period after the priority above it. In-flight caps per priority apply at all times.
+ * <p>
+ * Sampling runs on its own thread rather than the shared {@code @Scheduled} one, where reconciliation's
+ * Stripe calls and the replica lag check would hold the shedding decision for as long as they run.
+ */
+@Component
+public class AdmissionController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionController.class);
+
+    public enum Priority {
+        /** Admin listing: an unpaged scan that can hold a connection for long. */
+        LOW,
+        /** New payment initiations: hold a connection across the Stripe call. */
+        PAYMENTS
+    }
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry registry;
+    private final LongSupplier clock;
+
+    private final Map<Priority, AtomicInteger> inFlight = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+    private final Map<Priority, Long> shedUntil = new EnumMap<>(Priority.class);
+
+    private final Map<Priority, PoolReading> lastReadings = new EnumMap<>(Priority.class);
+    private final Map<Priority, Double> acquireWaitMillis = new ConcurrentHashMap<>();
+    private volatile long sheddingMask;
+    private ScheduledExecutorService sampler;
+
+    @Autowired
+    public AdmissionController(AdmissionProperties properties, MeterRegistry registry) {
+        this(properties, registry, System::nanoTime);
+    }
+
+    AdmissionController(AdmissionProperties properties, MeterRegistry registry, LongSupplier clock) {
+        this.properties = properties;
+        this.registry = registry;
+        this.clock = clock;
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            AtomicInteger counter = new AtomicInteger();
+            inFlight.put(priority, counter);
+            rejected.put(priority, Counter.builder("admission.rejected")
+                    .description("Requests shed with 503 by admission control")
+                    .tag("priority", tag)
+                    .register(registry));
+            Gauge.builder("admission.in_flight", counter, AtomicInteger::get)
+                    .description("Admitted requests still in progress")
+                    .tag("priority", tag)
+                    .register(registry);
+            Gauge.builder("admission.shedding", this, controller -> controller.isShedding(priority) ? 1 : 0)
+                    .description("1 while requests of this priority are shed")
+                    .tag("priority", tag)
+                    .register(registry);
+            Gauge.builder("admission.db.acquire_wait", acquireWaitMillis, waits -> waits.getOrDefault(priority, 0.0))
+                    .description("Average connection acquire time over the last sample, in milliseconds")
+                    .tag("priority", tag)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+    }
+
+    /** Admits and counts the request as in flight, or returns false if it should be shed. */
+    public boolean tryAdmit(Priority priority) {
+        if (!properties.isEnabled()) {
+            inFlight.get(priority).incrementAndGet();
+            return true;
+        }
+        if (isShedding(priority)) {
+            rejected.get(priority).increment();
+            return false;
+        }
+        AtomicInteger current = inFlight.get(priority);
+        if (current.incrementAndGet() > threshold(priority).getMaxInFlight()) {
+            current.decrementAndGet();
+            rejected.get(priority).increment();
+            return false;
+        }
+        return true;
+    }
+
+    /** Call once for every request {@link #tryAdmit} let through. */
+    public void release(Priority priority) {
+        inFlight.get(priority).decrementAndGet();
+    }
+
+    public boolean isShedding(Priority priority) {
+        return (sheddingMask & (1L << priority.ordinal())) != 0;
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1, properties.getRetryAfter().toSeconds());
+    }
+
+    @PostConstruct
+    public void start() {
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "admission-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getSampleInterval().toNanos();
+        sampler.scheduleWithFixedDelay(() -> {
+            // An exception would cancel every later run
+            try {
+                sample();
+            } catch (RuntimeException e) {
+                log.error("Admission sample failed", e);
+            }
+        }, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    public synchronized void sample() {
+        Map<String, PoolReading> readings = new HashMap<>();
+        for (Timer timer : registry.find("hikaricp.connections.acquire").timers()) {
+            PoolReading reading = readings.computeIfAbsent(pool(timer), name -> new PoolReading());
+            reading.acquireCount += timer.count();
+            reading.acquireNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        for (Gauge gauge : registry.find("hikaricp.connections.pending").gauges()) {
+            double value = gauge.value();
+            if (!Double.isNaN(value)) {
+                readings.computeIfAbsent(pool(gauge), name -> new PoolReading()).pending += value;
+            }
+        }
+        for (FunctionCounter counter : registry.find("hikaricp.connections.timeout").functionCounters()) {
+            readings.computeIfAbsent(pool(counter), name -> new PoolReading()).timeouts += counter.count();
+        }
+        for (Counter counter : registry.find("hikaricp.connections.timeout").counters()) {
+            readings.computeIfAbsent(pool(counter), name -> new PoolReading()).timeouts += counter.count();
+        }
+        // The db.max-concurrency queues: one per workload, tagged like the pools, or one shared untagged queue
+        Map<String, Double> capWaiting = new HashMap<>();
+        for (Gauge gauge : registry.find("db.concurrency.waiting").gauges()) {
+            double value = gauge.value();
+            if (!Double.isNaN(value)) {
+                String workload = gauge.getId().getTag("workload");
+                capWaiting.merge(workload != null ? workload : "", value, Double::sum);
+            }
+        }
+
+        Map<Priority, Pressure> pressures = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            String pool = threshold(priority).getPool();
+            boolean known = pool != null && readings.containsKey(pool);
+            PoolReading total = new PoolReading();
+            readings.forEach((name, reading) -> {
+                if (!known || name.equals(pool)) {
+                    total.add(reading);
+                }
+            });
+            boolean knownQueue = pool != null && capWaiting.containsKey(pool);
+            double waiting = 0;
+            for (Map.Entry<String, Double> queue : capWaiting.entrySet()) {
+                if (!knownQueue || queue.getKey().equals(pool) || queue.getKey().isEmpty()) {
+                    waiting += queue.getValue();
+                }
+            }
+            PoolReading last = lastReadings.getOrDefault(priority, new PoolReading());
+            long acquired = total.acquireCount - last.acquireCount;
+            double waitMillis = acquired > 0 ? (total.acquireNanos - last.acquireNanos) / acquired / 1_000_000 : 0;
+            pressures.put(priority, new Pressure(waitMillis, total.pending + waiting, total.timeouts > last.timeouts));
+            lastReadings.put(priority, total);
+            acquireWaitMillis.put(priority, waitMillis);
+        }
+
+        update(pressures);
+    }
+
+    /** Same pressure on every priority. */
+    void update(double waitMillis, double pending, boolean timedOut) {
+        Map<Priority, Pressure> pressures = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            pressures.put(priority, new Pressure(waitMillis, pending, timedOut));
+        }
+        update(pressures);
+    }
+
+    void update(Map<Priority, Pressure> pressures) {
+        long now = clock.getAsLong();
+        long mask = 0;
+        // Highest priority first: shedding a priority sheds everything below it
+        boolean shedBelow = false;
+        for (int i = Priority.values().length - 1; i >= 0; i--) {
+            Priority priority = Priority.values()[i];
+            AdmissionProperties.Threshold threshold = threshold(priority);
+            Pressure pressure = pressures.get(priority);
+            boolean overloaded = shedBelow
+                    || pressure.waitMillis() >= threshold.getMaxWait().toMillis()
+                    || pressure.pending() >= threshold.getMaxPending()
+                    || (pressure.timedOut() && priority == Priority.PAYMENTS);
+            if (overloaded) {
+                shedUntil.put(priority, now + properties.getRecovery().toNanos());
+            }
+            Long until = shedUntil.get(priority);
+            if (until != null && until - now > 0) {
+                mask |= 1L << priority.ordinal();
+                shedBelow = true;
+            }
+        }
+
+        if (mask != sheddingMask) {
+            log.warn("Admission control {}: shedding={}, pressure={}, inFlight={}",
+                    mask > sheddingMask ? "tightened" : "relaxed", describe(mask), pressures, inFlight);
+        }
+        sheddingMask = mask;
+    }
+
+    private AdmissionProperties.Threshold threshold(Priority priority) {
+        return priority == Priority.LOW ? properties.getLowPriority() : properties.getPayments();
+    }
+
+    private static String pool(Meter meter) {
+        String pool = meter.getId().getTag("pool");
+        return pool != null ? pool : "";
+    }
+
+    private static String describe(long mask) {
+        StringBuilder result = new StringBuilder();
+        for (Priority priority : Priority.values()) {
+            if ((mask & (1L << priority.ordinal())) != 0) {
+                result.append(result.isEmpty() ? "" : ",").append(priority);
+            }
+        }
+        return result.isEmpty() ? "none" : result.toString();
+    }
+
+    record Pressure(double waitMillis, double pending, boolean timedOut) {
+
+        @Override
+        public String toString() {
+            return "wait=" + Math.round(waitMillis) + "ms/pending=" + Math.round(pending) + (timedOut ? "/timeouts" : "");
+        }
+    }
+
+    private static final class PoolReading {
+        long acquireCount;
+        double acquireNanos;
+        double pending;
+        double timeouts;
+
+        void add(PoolReading other) {
+            acquireCount += other.acquireCount;
+            acquireNanos += other.acquireNanos;
+            pending += other.pending;
+            timeouts += other.timeouts;
+        }
+    }
+}
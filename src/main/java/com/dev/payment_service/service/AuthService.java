@@ -4,13 +4,12 @@ import com.dev.payment_service.dto.AuthResponse;
 import com.dev.payment_service.dto.LoginRequest;
 import com.dev.payment_service.dto.RegisterRequest;
 import com.dev.payment_service.model.User;
-import com.dev.payment_service.repository.UserRepository;
 import com.dev.payment_service.security.JwtUtil;
+import com.dev.payment_service.security.UserLookupService;
+import com.dev.payment_service.security.UserLookupService.CachedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -18,15 +17,14 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class AuthService {
 
-    private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
 
     public AuthResponse register(RegisterRequest request) {
         // Check if username already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (userLookupService.findByUsername(request.getUsername()).isPresent()) {
             throw new RuntimeException("Username already exists");
         }
 
@@ -36,11 +34,10 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setUserRole(request.getUserRole());
 
-        userRepository.save(user);
+        userLookupService.save(user);
 
         // Generate token
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-        String token = jwtUtil.generateToken(userDetails);
+        String token = jwtUtil.generateToken(user);
 
         return new AuthResponse(token, user.getUsername(), user.getUserRole());
     }
@@ -51,16 +48,14 @@ public class AuthService {
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
         );
 
-        // Load user details
-        User user = userRepository.findByUsername(request.getUsername())
+        // Cached by the authentication lookup above
+        CachedUser user = userLookupService.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-
         // Generate token
-        String token = jwtUtil.generateToken(userDetails);
+        String token = jwtUtil.generateToken(user.username(), user.userRole(), user.tokenVersion());
 
-        return new AuthResponse(token, user.getUsername(), user.getUserRole());
+        return new AuthResponse(token, user.username(), user.userRole());
     }
 }
 
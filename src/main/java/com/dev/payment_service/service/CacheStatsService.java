@@ -0,0 +1,55 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.dto.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheStatsService.class);
+
+    private final CacheManager cacheManager;
+
+    public List<CacheStatsResponse> stats() {
+        return cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(name -> toResponse(name, getCache(name)))
+                .toList();
+    }
+
+    public void clear(String name) {
+        getCache(name).clear();
+        log.info("Cache cleared: name={}", name);
+    }
+
+    private Cache getCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new NoSuchElementException("Cache not found: " + name);
+        }
+        return cache;
+    }
+
+    private CacheStatsResponse toResponse(String name, Cache cache) {
+        CacheStatsResponse.CacheStatsResponseBuilder response = CacheStatsResponse.builder().name(name);
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            CacheStats stats = caffeine.stats();
+            response.size(caffeine.estimatedSize())
+                    .hitCount(stats.hitCount())
+                    .missCount(stats.missCount())
+                    .hitRate(stats.hitRate())
+                    .evictionCount(stats.evictionCount());
+        }
+        return response.build();
+    }
+}
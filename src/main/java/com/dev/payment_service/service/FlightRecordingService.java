@@ -0,0 +1,151 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.dto.FlightRecordingResponse;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One on-demand Flight Recorder recording for administrators, with {@link PaymentPhaseEvent}
+ * enabled on top of the chosen JFR settings. The recording keeps a rolling window of
+ * {@code jfr.max-age} until it is stopped. Guarded by a {@link ReentrantLock} rather than
+ * {@code synchronized}, since {@link #dump} writes a file and would pin a virtual thread.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    private static final String RECORDING_NAME = "payment-service-admin";
+
+    private final Duration maxAge;
+    private final Duration phaseThreshold;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Recording recording;
+    private String settings;
+
+    public FlightRecordingService(
+            @Value("${jfr.max-age:30m}") Duration maxAge,
+            @Value("${jfr.phase-threshold:0ms}") Duration phaseThreshold) {
+        this.maxAge = maxAge;
+        this.phaseThreshold = phaseThreshold;
+    }
+
+    /** Starts a recording, or returns the running one unchanged. */
+    public FlightRecordingResponse start(String settingsName) {
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                return toResponse();
+            }
+            close();
+
+            Configuration configuration;
+            try {
+                configuration = Configuration.getConfiguration(settingsName);
+            } catch (IOException | ParseException e) {
+                throw new IllegalArgumentException("Unknown JFR settings: " + settingsName, e);
+            }
+
+            Recording started = new Recording(configuration);
+            started.setName(RECORDING_NAME);
+            started.setToDisk(true);
+            started.setMaxAge(maxAge);
+            started.enable(PaymentPhaseEvent.class).withThreshold(phaseThreshold);
+            started.start();
+
+            recording = started;
+            settings = settingsName;
+            log.info("Flight recording started: id={}, settings={}, maxAge={}", started.getId(), settingsName, maxAge);
+            return toResponse();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public FlightRecordingResponse status() {
+        lock.lock();
+        try {
+            requireRecording();
+            return toResponse();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Copies everything recorded so far to a temporary file; the caller deletes it. */
+    public Path dump() throws IOException {
+        lock.lock();
+        try {
+            requireRecording();
+            Path file = Files.createTempFile("payment-service-", ".jfr");
+            try {
+                recording.dump(file);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            log.info("Flight recording dumped: id={}, bytes={}", recording.getId(), Files.size(file));
+            return file;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void stop() {
+        lock.lock();
+        try {
+            requireRecording();
+            log.info("Flight recording stopped: id={}", recording.getId());
+            close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+                settings = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void requireRecording() {
+        if (recording == null) {
+            throw new NoSuchElementException("No flight recording is running");
+        }
+    }
+
+    private FlightRecordingResponse toResponse() {
+        return FlightRecordingResponse.builder()
+                .id(recording.getId())
+                .state(recording.getState().name())
+                .settings(settings)
+                .startTime(recording.getStartTime())
+                .maxAgeSeconds(maxAge.toSeconds())
+                .sizeBytes(recording.getSize())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.security.PaymentRateLimitFilter;
+import com.dev.payment_service.security.TokenRevocationService;
+import com.dev.payment_service.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Entry counts of the in-process maps that grow with traffic, as {@code inmemory.entries{structure}}.
+ * Spring caches are already exported as {@code cache.size}; together they show whether memory held
+ * per user, client or token is bounded on a long run.
+ */
+@Component
+@RequiredArgsConstructor
+public class InMemoryStateMetrics implements MeterBinder {
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final PaymentRateLimitFilter paymentRateLimitFilter;
+    private final LatencyHistograms latencyHistograms;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "verified_tokens", verifiedTokenCache, VerifiedTokenCache::size);
+        gauge(registry, "revoked_token_versions", tokenRevocationService, TokenRevocationService::trackedUsers);
+        gauge(registry, "payment_rate_limit_buckets", paymentRateLimitFilter, PaymentRateLimitFilter::trackedBuckets);
+        gauge(registry, "latency_series", latencyHistograms, LatencyHistograms::seriesCount);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String structure, T source, ToDoubleFunction<T> size) {
+        Gauge.builder("inmemory.entries", source, size)
+                .description("Entries held in an in-process map")
+                .tag("structure", structure)
+                .register(registry);
+    }
+}
@@ -0,0 +1,134 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.dto.LatencyWindowResponse;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live latency percentiles per endpoint and Stripe operation, independent of any metrics backend.
+ * Each series records into an HdrHistogram {@link Recorder}: wait-free and allocation-free on the
+ * request thread. Every {@code latency.interval-ms} the scheduler swaps out the interval histogram
+ * into a ring covering the longest window, so reported windows lag by at most one interval.
+ */
+@Component
+public class LatencyHistograms {
+
+    static final Duration[] WINDOWS = {Duration.ofMinutes(1), Duration.ofMinutes(5)};
+
+    // Latencies are recorded in microseconds and clamped to a minute
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    private final long intervalMillis;
+    private final int slots;
+    private final Duration httpP99Target;
+    private final Duration stripeP99Target;
+
+    public LatencyHistograms(
+            @Value("${latency.interval-ms:10000}") long intervalMillis,
+            @Value("${latency.slo.http-p99:500ms}") Duration httpP99Target,
+            @Value("${latency.slo.stripe-p99:2s}") Duration stripeP99Target) {
+        this.intervalMillis = intervalMillis;
+        this.slots = (int) Math.max(1, WINDOWS[WINDOWS.length - 1].toMillis() / intervalMillis);
+        this.httpP99Target = httpP99Target;
+        this.stripeP99Target = stripeP99Target;
+    }
+
+    /** Series names starting with {@code stripe } are judged against the Stripe target. */
+    public void record(String name, long nanos) {
+        Series target = series.get(name);
+        if (target == null) {
+            target = series.computeIfAbsent(name, key -> new Series(slots));
+        }
+        target.record(nanos);
+    }
+
+    public int seriesCount() {
+        return series.size();
+    }
+
+    @Scheduled(fixedRateString = "${latency.interval-ms:10000}")
+    public void rotate() {
+        for (Series each : series.values()) {
+            each.rotate();
+        }
+    }
+
+    public List<LatencyWindowResponse> snapshot() {
+        List<LatencyWindowResponse> result = new ArrayList<>();
+        for (Map.Entry<String, Series> entry : new TreeMap<>(series).entrySet()) {
+            Duration target = entry.getKey().startsWith("stripe ") ? stripeP99Target : httpP99Target;
+            for (Duration window : WINDOWS) {
+                int intervals = (int) Math.max(1, Math.min(slots, window.toMillis() / intervalMillis));
+                Histogram histogram = entry.getValue().window(intervals);
+                result.add(toResponse(entry.getKey(), window, histogram, target));
+            }
+        }
+        return result;
+    }
+
+    private static LatencyWindowResponse toResponse(String name, Duration window, Histogram histogram, Duration target) {
+        long count = histogram.getTotalCount();
+        double p99Millis = millis(histogram.getValueAtPercentile(99.0));
+        return LatencyWindowResponse.builder()
+                .name(name)
+                .windowSeconds(window.toSeconds())
+                .count(count)
+                .p50Millis(millis(histogram.getValueAtPercentile(50.0)))
+                .p99Millis(p99Millis)
+                .p999Millis(millis(histogram.getValueAtPercentile(99.9)))
+                .maxMillis(millis(histogram.getMaxValue()))
+                .p99TargetMillis(target.toMillis())
+                .withinSlo(count == 0 || p99Millis <= target.toMillis())
+                .build();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    static final class Series {
+
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram[] ring;
+        private int head;
+
+        Series(int slots) {
+            this.ring = new Histogram[slots];
+        }
+
+        void record(long nanos) {
+            long micros = Math.max(0, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+            recorder.recordValue(micros);
+        }
+
+        synchronized void rotate() {
+            head = (head + 1) % ring.length;
+            // Reuses the histogram falling out of the ring, so steady-state rotation does not allocate
+            ring[head] = recorder.getIntervalHistogram(ring[head]);
+        }
+
+        synchronized Histogram window(int intervals) {
+            Histogram sum = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            for (int i = 0; i < intervals; i++) {
+                Histogram interval = ring[Math.floorMod(head - i, ring.length)];
+                if (interval != null) {
+                    sum.add(interval);
+                }
+            }
+            return sum;
+        }
+    }
+}
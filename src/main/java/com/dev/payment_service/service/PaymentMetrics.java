@@ -0,0 +1,90 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.model.Transaction;
+import com.stripe.model.Event;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Payment counters that {@code @Timed} cannot express: status transitions, counted once the
+ * change commits, and how long after Stripe created an event we processed its webhook.
+ */
+@Component
+public class PaymentMetrics {
+
+    private static final String NEW = "NONE";
+
+    private final MeterRegistry registry;
+
+    // [from + 1][to]; row 0 is a newly created transaction
+    private final Counter[][] transitions;
+
+    public PaymentMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        PaymentStatus[] statuses = PaymentStatus.values();
+        this.transitions = new Counter[statuses.length + 1][statuses.length];
+        for (int from = 0; from <= statuses.length; from++) {
+            for (PaymentStatus to : statuses) {
+                transitions[from][to.ordinal()] = Counter.builder("payments.status.transitions")
+                        .description("Committed payment status changes")
+                        .tag("from", from == 0 ? NEW : statuses[from - 1].name())
+                        .tag("to", to.name())
+                        .register(registry);
+            }
+        }
+    }
+
+    /** Call whenever a transaction is saved; does nothing unless its status changed. */
+    public void recordTransition(Transaction transaction) {
+        PaymentStatus from = transaction.getPersistedStatus();
+        PaymentStatus to = transaction.getStatus();
+        if (to == null || to == from) {
+            return;
+        }
+        transaction.setPersistedStatus(to);
+
+        Counter counter = transitions[from == null ? 0 : from.ordinal() + 1][to.ordinal()];
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
+    }
+
+    /**
+     * For callers without a Spring-managed transaction, e.g. R2DBC statements that auto-commit:
+     * counts at once, so call it only after the change is stored. {@code from} is null for a new payment.
+     */
+    public void recordTransition(PaymentStatus from, PaymentStatus to) {
+        if (to == null || to == from) {
+            return;
+        }
+        transitions[from == null ? 0 : from.ordinal() + 1][to.ordinal()].increment();
+    }
+
+    public void recordWebhookLag(Event event) {
+        if (event.getCreated() == null) {
+            return;
+        }
+        long lagMillis = System.currentTimeMillis() - event.getCreated() * 1000L;
+        Timer.builder("payments.webhook.lag")
+                .description("Time from Stripe creating an event to its webhook being processed")
+                .tag("type", event.getType() != null ? event.getType() : "unknown")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Duration.ofMillis(Math.max(lagMillis, 0)));
+    }
+}
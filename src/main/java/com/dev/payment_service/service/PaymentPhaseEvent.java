@@ -0,0 +1,70 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.model.Transaction;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one phase of payment initiation or webhook processing. With no
+ * recording running, {@link #begin} and {@link #end} skip the timing and commit work. {@link #begin}
+ * still creates the event object; the JIT can usually remove that allocation once both calls are
+ * inlined, but that depends on escape analysis. The cost is small enough to keep the instrumentation
+ * in place permanently.
+ */
+@Name("com.dev.payment_service.PaymentPhase")
+@Label("Payment Phase")
+@Category({"Payment Service", "Payments"})
+@Description("Time spent in one phase of a payment or webhook")
+@StackTrace(false)
+public class PaymentPhaseEvent extends Event {
+
+    public static final String IDEMPOTENCY_LOOKUP = "idempotency_lookup";
+    public static final String INSERT = "insert";
+    public static final String STRIPE = "stripe";
+    public static final String UPDATE = "update";
+    public static final String COMMIT = "commit";
+    public static final String WEBHOOK_LOOKUP = "webhook_lookup";
+    public static final String WEBHOOK_UPDATE = "webhook_update";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Transaction Id")
+    long transactionId;
+
+    @Label("Payment Method")
+    String paymentMethod;
+
+    @Label("Stripe Account")
+    String stripeAccount;
+
+    public static PaymentPhaseEvent begin(String phase) {
+        PaymentPhaseEvent event = new PaymentPhaseEvent();
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    public void end(Transaction transaction) {
+        if (transaction == null) {
+            end(null, null, null);
+        } else {
+            end(transaction.getId(), transaction.getPaymentMethod(), transaction.getStripeAccount());
+        }
+    }
+
+    public void end(Long transactionId, PaymentMethod paymentMethod, String stripeAccount) {
+        end();
+        if (shouldCommit()) {
+            this.transactionId = transactionId != null ? transactionId : 0L;
+            this.paymentMethod = paymentMethod != null ? paymentMethod.name() : null;
+            this.stripeAccount = stripeAccount;
+            commit();
+        }
+    }
+}
@@ -6,16 +6,24 @@ import com.dev.payment_service.dto.PaymentInitiationRequest;
 import com.dev.payment_service.dto.PaymentInitiationResponse;
 import com.dev.payment_service.enums.PaymentMethod;
 import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.model.CurrencyUnits;
+import com.dev.payment_service.model.Money;
 import com.dev.payment_service.model.Transaction;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
@@ -27,25 +35,35 @@ public class PaymentService {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
 
+    public static final String RETRY_PENDING_REFERENCE = "STRIPE_RETRY_PENDING";
+    // Set by the reactive deployment on rows committed before their Stripe call returns
+    public static final String IN_FLIGHT_REFERENCE = "STRIPE_IN_FLIGHT";
+    public static final String RETRY_MODIFIED_BY = "STRIPE_RETRY";
+
     private final TransactionService transactionService;
     private final StripeService stripeService;
+    private final StripeRetryScheduler retryScheduler;
+    private final StripeAccountRouter accountRouter;
 
     @Transactional
+    @Timed(value = "payments.initiate", description = "Payment initiation, including the Stripe call", histogram = true)
     public PaymentInitiationResponse initiatePayment(PaymentInitiationRequest request, String idempotencyKey) {
 
         if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
             throw new IllegalArgumentException("Idempotency-Key header is required and cannot be empty");
         }
 
+        // Joins this read-write transaction, so it reads the primary and sees a duplicate committed a moment ago
+        PaymentPhaseEvent lookup = PaymentPhaseEvent.begin(PaymentPhaseEvent.IDEMPOTENCY_LOOKUP);
         Optional<Transaction> existing = transactionService.findByIdempotencyKey(idempotencyKey);
+        lookup.end(existing.orElse(null));
         if (existing.isPresent()) {
             log.info("Duplicate request detected with idempotency key: {}", idempotencyKey);
             return mapResponse(existing.get());
         }
 
         Transaction tx = new Transaction();
-        tx.setAmount(request.getAmount());
-        tx.setCurrency(request.getCurrency().toLowerCase());
+        tx.setMoney(Money.of(request.getAmount(), request.getCurrency().toLowerCase()));
         tx.setPaymentMethod(request.getPaymentMethod());
         tx.setStatus(PaymentStatus.PENDING);
         tx.setProvider("STRIPE");
@@ -53,8 +71,12 @@ public class PaymentService {
         tx.setCreatedAt(Instant.now());
         tx.setUpdatedAt(Instant.now());
         tx.setIdempotencyKey(idempotencyKey);
+        tx.setStripeAccount(accountRouter.select(tx.getCurrency(), currentMerchant(), idempotencyKey));
 
+        PaymentPhaseEvent insert = PaymentPhaseEvent.begin(PaymentPhaseEvent.INSERT);
         tx = transactionService.createTransaction(tx);
+        insert.end(tx);
+        recordCommitPhase(tx);
 
         log.info("Transaction created: id={}, reference={}, method={}",
                 tx.getId(), tx.getTransactionReference(), tx.getPaymentMethod());
@@ -69,12 +91,15 @@ public class PaymentService {
     }
 
     public PaymentInitiationResponse getPaymentById(Long id) {
+        // May be served by a replica; a payment created within the replica lag is not there yet
         Transaction transaction = transactionService.findById(id)
+                .or(() -> transactionService.findByIdOnPrimary(id))
                 .orElseThrow(() -> new NoSuchElementException("Payment not found with id: " + id));
 
         return mapResponse(transaction);
     }
 
+    @Transactional(readOnly = true)
     public List<PaymentInitiationResponse> getAllPayments(
             PaymentStatus status,
             String startDateStr,
@@ -107,12 +132,16 @@ public class PaymentService {
             }
         }
 
+        // Convert the bounds once per exponent so each row is a plain long comparison
+        long[] minMinor = minAmount != null ? CurrencyUnits.boundsByExponent(minAmount, RoundingMode.CEILING) : null;
+        long[] maxMinor = maxAmount != null ? CurrencyUnits.boundsByExponent(maxAmount, RoundingMode.FLOOR) : null;
+
         List<Transaction> transactions = transactionService.findAll();
 
         List<Transaction> filteredTransactions = new ArrayList<>();
 
         for (Transaction transaction : transactions) {
-            if (!matchesFilters(transaction, status, startDate, endDate, minAmount, maxAmount)) {
+            if (!matchesFilters(transaction, status, startDate, endDate, minMinor, maxMinor)) {
                 continue;
             }
             filteredTransactions.add(transaction);
@@ -126,13 +155,14 @@ public class PaymentService {
         return responses;
     }
 
-    private boolean matchesFilters(
+    // Package-private and static for PaymentServiceBenchmark
+    static boolean matchesFilters(
             Transaction transaction,
             PaymentStatus status,
             LocalDate startDate,
             LocalDate endDate,
-            BigDecimal minAmount,
-            BigDecimal maxAmount) {
+            long[] minMinor,
+            long[] maxMinor) {
 
         if (status != null && transaction.getStatus() != status) {
             return false;
@@ -152,12 +182,15 @@ public class PaymentService {
                 return false;
             }
         }
-        if (minAmount != null && transaction.getAmount().compareTo(minAmount) < 0) {
-            return false;
-        }
-
-        if (maxAmount != null && transaction.getAmount().compareTo(maxAmount) > 0) {
-            return false;
+        if (minMinor != null || maxMinor != null) {
+            int exponent = CurrencyUnits.exponent(transaction.getCurrency());
+            long amountMinor = transaction.getAmountMinor();
+            if (minMinor != null && amountMinor < minMinor[exponent]) {
+                return false;
+            }
+            if (maxMinor != null && amountMinor > maxMinor[exponent]) {
+                return false;
+            }
         }
 
         return true;
@@ -169,49 +202,43 @@ public class PaymentService {
             tx.setStatus(PaymentStatus.FAILED);
             tx.setProviderReferenceId("INVALID_CARD_DETAILS");
             tx.setUpdatedAt(Instant.now());
-            transactionService.updateTransaction(tx);
+            updateTransaction(tx);
             log.error("Invalid card details for transaction: {}", tx.getId());
             return;
         }
 
         CreditCardDetails cardDetails = (CreditCardDetails) request.getDetails();
-
+        // Saved with the PENDING row so reconciliation can replay a retry this instance never finishes
+        tx.setPaymentMethodRef(cardDetails.getPaymentMethodId());
+        String accountId = tx.getStripeAccount();
+        Money amount = tx.getMoney();
+        StripeCall<PaymentIntent> retry = () -> stripeService.retryCreditCardPayment(
+                accountId,
+                amount,
+                cardDetails,
+                idempotencyKey
+        );
+
+        Instant firstAttempt = Instant.now();
+        PaymentPhaseEvent stripe = PaymentPhaseEvent.begin(PaymentPhaseEvent.STRIPE);
         try {
-            PaymentIntent intent = stripeService.processCreditCardPayment(
-                    tx.getAmount(),
-                    tx.getCurrency(),
-                    cardDetails,
-                    idempotencyKey
-            );
-
-            tx.setProviderReferenceId(intent.getId());
-            tx.setUpdatedAt(Instant.now());
-
-            String stripeStatus = intent.getStatus();
-            switch (stripeStatus) {
-                case "succeeded" -> {
-                    tx.setStatus(PaymentStatus.COMPLETED);
-                    log.info("Card payment succeeded: transactionId={}, stripeId={}", tx.getId(), intent.getId());
-                }
-                case "processing", "requires_action", "requires_confirmation" -> {
-                    tx.setStatus(PaymentStatus.PENDING);
-                    log.info("Card payment pending: transactionId={}, stripeStatus={}", tx.getId(), stripeStatus);
-                }
-                default -> {
-                    tx.setStatus(PaymentStatus.FAILED);
-                    log.warn("Card payment failed: transactionId={}, stripeStatus={}", tx.getId(), stripeStatus);
-                }
-            }
-
-            transactionService.updateTransaction(tx);
+            PaymentIntent intent = stripeService.processCreditCardPayment(accountId, amount, cardDetails, idempotencyKey);
+            stripe.end(tx);
+            applyIntent(tx, intent, "Card");
+            updateTransaction(tx);
 
         } catch (StripeException e) {
+            stripe.end(tx);
+            if (retryScheduler.isRetryable(e)) {
+                scheduleRetry(tx, retry, firstAttempt, "Card", e);
+                return;
+            }
             tx.setStatus(PaymentStatus.FAILED);
             String errorCode = e.getCode() != null ? e.getCode() : "UNKNOWN";
             String errorMessage = e.getMessage() != null ? e.getMessage() : "Unknown Stripe error";
             tx.setProviderReferenceId("STRIPE_ERROR:" + errorCode);
             tx.setUpdatedAt(Instant.now());
-            transactionService.updateTransaction(tx);
+            updateTransaction(tx);
             log.error("Stripe error processing card payment: transactionId={}, errorCode={}, errorMessage={}, stripeCode={}",
                     tx.getId(), errorCode, errorMessage, e.getStripeError() != null ? e.getStripeError().getCode() : "null", e);
         }
@@ -223,60 +250,171 @@ public class PaymentService {
             tx.setStatus(PaymentStatus.FAILED);
             tx.setProviderReferenceId("INVALID_BANK_DETAILS");
             tx.setUpdatedAt(Instant.now());
-            transactionService.updateTransaction(tx);
+            updateTransaction(tx);
             log.error("Invalid bank details for transaction: {}", tx.getId());
             return;
         }
 
         BankTransferDetails bankDetails = (BankTransferDetails) request.getDetails();
-
+        String accountId = tx.getStripeAccount();
+        Money amount = tx.getMoney();
+        StripeCall<PaymentIntent> retry = () -> stripeService.retryBankTransferPayment(
+                accountId,
+                amount,
+                bankDetails,
+                idempotencyKey,
+                paymentMethodId -> recordPaymentMethod(tx, paymentMethodId)
+        );
+
+        Instant firstAttempt = Instant.now();
+        PaymentPhaseEvent stripe = PaymentPhaseEvent.begin(PaymentPhaseEvent.STRIPE);
         try {
-            PaymentIntent intent = stripeService.processBankTransferPayment(
-                    tx.getAmount(),
-                    tx.getCurrency(),
-                    bankDetails,
-                    idempotencyKey
-            );
-
-            tx.setProviderReferenceId(intent.getId());
-            tx.setUpdatedAt(Instant.now());
-
-            // Map Stripe status to our status
-            String stripeStatus = intent.getStatus();
-            switch (stripeStatus) {
-                case "succeeded" -> {
-                    tx.setStatus(PaymentStatus.COMPLETED);
-                    log.info("Bank payment succeeded: transactionId={}, stripeId={}", tx.getId(), intent.getId());
-                }
-                case "processing", "requires_action", "requires_confirmation" -> {
-                    tx.setStatus(PaymentStatus.PENDING);
-                    log.info("Bank payment pending: transactionId={}, stripeStatus={}", tx.getId(), stripeStatus);
-                }
-                default -> {
-                    tx.setStatus(PaymentStatus.FAILED);
-                    log.warn("Bank payment failed: transactionId={}, stripeStatus={}", tx.getId(), stripeStatus);
-                }
-            }
-
-            transactionService.updateTransaction(tx);
+            PaymentIntent intent = stripeService.processBankTransferPayment(accountId, amount, bankDetails,
+                    idempotencyKey, paymentMethodId -> recordPaymentMethod(tx, paymentMethodId));
+            stripe.end(tx);
+            applyIntent(tx, intent, "Bank");
+            updateTransaction(tx);
 
         } catch (StripeException e) {
+            stripe.end(tx);
+            if (retryScheduler.isRetryable(e)) {
+                scheduleRetry(tx, retry, firstAttempt, "Bank", e);
+                return;
+            }
             tx.setStatus(PaymentStatus.FAILED);
             String errorCode = e.getCode() != null ? e.getCode() : "UNKNOWN";
             String errorMessage = e.getMessage() != null ? e.getMessage() : "Unknown Stripe error";
             tx.setProviderReferenceId("STRIPE_ERROR:" + errorCode);
             tx.setUpdatedAt(Instant.now());
-            transactionService.updateTransaction(tx);
+            updateTransaction(tx);
             log.error("Stripe error processing bank transfer: transactionId={}, errorCode={}, errorMessage={}, stripeCode={}",
                     tx.getId(), errorCode, errorMessage, e.getStripeError() != null ? e.getStripeError().getCode() : "null", e);
         }
     }
 
-    private PaymentInitiationResponse mapResponse(Transaction transaction) {
+    /**
+     * Bank details are never stored, so the SEPA PaymentMethod id is what reconciliation needs to
+     * replay the intent. Inside the request it rides on the pending update; on a retry thread it is
+     * written on its own, and a failed write fails the attempt before any PaymentIntent is requested.
+     */
+    private void recordPaymentMethod(Transaction tx, String paymentMethodId) {
+        if (paymentMethodId.equals(tx.getPaymentMethodRef())) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionService.updatePaymentMethodRef(tx.getId(), paymentMethodId);
+        }
+        tx.setPaymentMethodRef(paymentMethodId);
+    }
+
+    private void applyIntent(Transaction tx, PaymentIntent intent, String label) {
+        tx.setProviderReferenceId(intent.getId());
+        tx.setUpdatedAt(Instant.now());
+
+        String stripeStatus = intent.getStatus();
+        tx.setStatus(mapStripeStatus(stripeStatus));
+        switch (tx.getStatus()) {
+            case COMPLETED -> log.info("{} payment succeeded: transactionId={}, stripeId={}", label, tx.getId(), intent.getId());
+            case PENDING -> log.info("{} payment pending: transactionId={}, stripeStatus={}", label, tx.getId(), stripeStatus);
+            default -> log.warn("{} payment failed: transactionId={}, stripeStatus={}", label, tx.getId(), stripeStatus);
+        }
+    }
+
+    /** Map Stripe PaymentIntent status to our status */
+    public static PaymentStatus mapStripeStatus(String stripeStatus) {
+        return switch (stripeStatus) {
+            case "succeeded" -> PaymentStatus.COMPLETED;
+            case "processing", "requires_action", "requires_confirmation" -> PaymentStatus.PENDING;
+            default -> PaymentStatus.FAILED;
+        };
+    }
+
+    /**
+     * Leaves the transaction PENDING and hands further attempts to the retry scheduler once the
+     * surrounding transaction has committed, so the request thread never waits on a backoff.
+     * Retries live only in memory; rows still marked {@link #RETRY_PENDING_REFERENCE} after a
+     * restart are replayed by {@link ReconciliationService}.
+     */
+    private void scheduleRetry(Transaction tx, StripeCall<PaymentIntent> call, Instant firstAttempt,
+                               String label, StripeException cause) {
+        Long transactionId = tx.getId();
+        tx.setStatus(PaymentStatus.PENDING);
+        tx.setProviderReferenceId(RETRY_PENDING_REFERENCE);
+        tx.setUpdatedAt(Instant.now());
+        updateTransaction(tx);
+        log.warn("Transient Stripe error, payment queued for retry: transactionId={}, errorCode={}, statusCode={}",
+                transactionId, cause.getCode(), cause.getStatusCode());
+
+        afterCommit(() -> retryScheduler.retry(label + " payment " + transactionId, firstAttempt, call, (intent, error) -> {
+            if (error == null) {
+                PaymentStatus status = mapStripeStatus(intent.getStatus());
+                recordRetryResult(transactionId, intent.getId(), status);
+                return;
+            }
+            String errorCode = error instanceof StripeException se && se.getCode() != null
+                    ? se.getCode() : "RETRY_EXHAUSTED";
+            recordRetryResult(transactionId, "STRIPE_ERROR:" + errorCode, PaymentStatus.FAILED);
+            log.error("{} payment failed after retries: transactionId={}, errorCode={}",
+                    label, transactionId, errorCode, error);
+        }));
+    }
+
+    // Nothing up the stack would see a failure here; the row stays STRIPE_RETRY_PENDING for reconciliation
+    private void recordRetryResult(Long transactionId, String providerReferenceId, PaymentStatus status) {
+        try {
+            transactionService.updateProviderResult(transactionId, providerReferenceId, status, RETRY_MODIFIED_BY);
+        } catch (RuntimeException e) {
+            log.error("Failed to record retry result: transactionId={}, providerReferenceId={}, status={}",
+                    transactionId, providerReferenceId, status, e);
+        }
+    }
+
+    private void updateTransaction(Transaction tx) {
+        PaymentPhaseEvent update = PaymentPhaseEvent.begin(PaymentPhaseEvent.UPDATE);
+        transactionService.updateTransaction(tx);
+        update.end(tx);
+    }
+
+    /** Covers the flush of the pending update and the database commit, which run after we return. */
+    private void recordCommitPhase(Transaction tx) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private PaymentPhaseEvent commit;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commit = PaymentPhaseEvent.begin(PaymentPhaseEvent.COMMIT);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (commit != null) {
+                    commit.end(tx);
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    static PaymentInitiationResponse mapResponse(Transaction transaction) {
         PaymentInitiationResponse response = new PaymentInitiationResponse();
         response.setTransactionId(transaction.getId().toString());
         response.setTransactionReference(transaction.getTransactionReference());
-        response.setAmount(transaction.getAmount());
+        response.setAmount(CurrencyUnits.toMajor(transaction.getAmountMinor(), transaction.getCurrency()));
         response.setCurrency(transaction.getCurrency());
         response.setStatus(transaction.getStatus().name());
         response.setCreatedAt(transaction.getCreatedAt());
@@ -286,6 +424,12 @@ public class PaymentService {
         return response;
     }
 
+    /** Authenticated caller, used as the merchant key for Stripe account routing. */
+    private String currentMerchant() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
     private String generateTransactionReference() {
         return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
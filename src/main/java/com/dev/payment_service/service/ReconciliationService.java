@@ -0,0 +1,162 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.model.Transaction;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCreateParams;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Refreshes PENDING payments from Stripe when no webhook has settled them in time, and replays
+ * payments whose in-memory retries or, in the reactive deployment, in-flight Stripe calls were lost
+ * with the instance that started them.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private static final String MODIFIED_BY = "RECONCILIATION";
+
+    // Rows that have no PaymentIntent id yet, whose outcome only a replay can find out
+    public static final List<String> UNRESOLVED_REFERENCES =
+            List.of(PaymentService.RETRY_PENDING_REFERENCE, PaymentService.IN_FLIGHT_REFERENCE);
+
+    private final TransactionService transactionService;
+    private final StripeService stripeService;
+
+    @Value("${reconciliation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reconciliation.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${reconciliation.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${reconciliation.interval-ms:60000}",
+            initialDelayString = "${reconciliation.interval-ms:60000}")
+    public void reconcilePendingPayments() {
+        if (!enabled) {
+            return;
+        }
+
+        Instant updatedBefore = Instant.now().minus(Duration.ofMillis(staleAfterMs));
+        if (!resumeRetries(updatedBefore)) {
+            return;
+        }
+
+        List<Transaction> pending = transactionService.findStalePendingPaymentIntents(updatedBefore, batchSize);
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Reconciling {} pending payments with Stripe", pending.size());
+
+        for (Transaction tx : pending) {
+            try {
+                refreshStatus(tx);
+            } catch (GatewayRateLimitException e) {
+                log.info("Reconciliation paused by Stripe rate limiter, resuming next run");
+                return;
+            }
+        }
+    }
+
+    public PaymentStatus refreshStatus(Transaction tx) {
+        try {
+            PaymentIntent intent = stripeService.retrievePaymentIntent(tx.getStripeAccount(), tx.getProviderReferenceId());
+            PaymentStatus status = PaymentService.mapStripeStatus(intent.getStatus());
+            if (status != tx.getStatus()) {
+                transactionService.updateTransactionStatus(tx.getId(), status, MODIFIED_BY);
+                log.info("Transaction reconciled: id={}, stripeId={}, status={}", tx.getId(), intent.getId(), status);
+            }
+            return status;
+        } catch (StripeException e) {
+            log.warn("Failed to reconcile transaction: id={}, stripeId={}, errorCode={}",
+                    tx.getId(), tx.getProviderReferenceId(), e.getCode());
+            return tx.getStatus();
+        } catch (GatewayRateLimitException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // e.g. an account since removed from stripe.accounts. The oldest rows come first on every
+            // run, so one bad row must not stop the batch
+            log.error("Failed to reconcile transaction: id={}, stripeId={}, account={}",
+                    tx.getId(), tx.getProviderReferenceId(), tx.getStripeAccount(), e);
+            return tx.getStatus();
+        }
+    }
+
+    /**
+     * stale-after-ms is well past stripe.retry.deadline-ms and the Stripe response timeout, so a row
+     * still waiting on a retry or a Stripe answer by now belongs to an instance that is gone. Returns
+     * false when the rate limiter pushed back.
+     */
+    private boolean resumeRetries(Instant updatedBefore) {
+        List<Transaction> stranded = transactionService.findStalePending(UNRESOLVED_REFERENCES, updatedBefore, batchSize);
+        if (stranded.isEmpty()) {
+            return true;
+        }
+        log.info("Resuming {} payments left without a Stripe result", stranded.size());
+
+        for (Transaction tx : stranded) {
+            try {
+                resumeRetry(tx);
+            } catch (GatewayRateLimitException e) {
+                log.info("Reconciliation paused by Stripe rate limiter, resuming next run");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public PaymentStatus resumeRetry(Transaction tx) {
+        String paymentMethodId = tx.getPaymentMethodRef();
+        try {
+            if (paymentMethodId == null) {
+                // The SEPA PaymentMethod was never created, so no attempt can have reached PaymentIntent.create
+                transactionService.updateProviderResult(tx.getId(), "STRIPE_ERROR:RETRY_ABANDONED",
+                        PaymentStatus.FAILED, MODIFIED_BY);
+                log.error("Stranded payment has no payment method, marking failed: id={}", tx.getId());
+                return PaymentStatus.FAILED;
+            }
+
+            PaymentIntentCreateParams params = replayParams(tx.getPaymentMethod(), tx.getMoney(), paymentMethodId);
+            PaymentIntent intent = stripeService.replayPaymentIntent(tx.getStripeAccount(), params, tx.getIdempotencyKey());
+            PaymentStatus status = PaymentService.mapStripeStatus(intent.getStatus());
+            transactionService.updateProviderResult(tx.getId(), intent.getId(), status, MODIFIED_BY);
+            log.info("Stranded payment resumed: id={}, stripeId={}, status={}", tx.getId(), intent.getId(), status);
+            return status;
+        } catch (StripeException e) {
+            // Left as is; the next run tries again
+            log.warn("Failed to resume retry: id={}, errorCode={}", tx.getId(), e.getCode());
+            return tx.getStatus();
+        } catch (GatewayRateLimitException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Failed to resume retry: id={}, account={}", tx.getId(), tx.getStripeAccount(), e);
+            return tx.getStatus();
+        }
+    }
+
+    /** The PaymentIntent request the original attempt sent, rebuilt from what the row stores. */
+    public static PaymentIntentCreateParams replayParams(PaymentMethod method, Money amount, String paymentMethodId) {
+        return switch (method) {
+            case CREDIT_CARD -> StripeService.cardPaymentIntentParams(amount, paymentMethodId);
+            case BANK_TRANSFER -> StripeService.bankPaymentIntentParams(amount, paymentMethodId);
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.config.StripeAccount;
+import com.dev.payment_service.config.StripeProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Chooses the Stripe account for a new payment: merchant pin first, then currency mapping,
+ * then rendezvous hashing of the routing key over the hash pool. Existing transactions are
+ * always routed back through their persisted account id.
+ */
+@Component
+public class StripeAccountRouter {
+
+    public static final String DEFAULT_ACCOUNT_ID = "default";
+
+    private final Map<String, StripeAccount> accounts = new LinkedHashMap<>();
+    private final Map<String, StripeAccount> byMerchant = new HashMap<>();
+    private final Map<String, StripeAccount> byCurrency = new HashMap<>();
+    private final List<StripeAccount> hashPool = new ArrayList<>();
+    private final long[] hashSeeds;
+    private final StripeAccount primary;
+
+    public StripeAccountRouter(StripeProperties properties) {
+        if (properties.getAccounts().isEmpty()) {
+            StripeAccount account = new StripeAccount(DEFAULT_ACCOUNT_ID,
+                    properties.getSecretKey(), properties.getWebhook().getSecret());
+            accounts.put(account.id(), account);
+            hashPool.add(account);
+        } else {
+            for (StripeProperties.Account config : properties.getAccounts()) {
+                StripeAccount account = new StripeAccount(config.getId(),
+                        config.getSecretKey(), config.getWebhookSecret());
+                accounts.put(account.id(), account);
+                config.getMerchants().forEach(merchant -> byMerchant.put(merchant, account));
+                config.getCurrencies().forEach(currency -> byCurrency.put(currency.toLowerCase(Locale.ROOT), account));
+                if (config.isHashPool()) {
+                    hashPool.add(account);
+                }
+            }
+        }
+        if (hashPool.isEmpty()) {
+            throw new IllegalStateException("At least one Stripe account must be in the hash pool");
+        }
+
+        this.primary = accounts.values().iterator().next();
+        this.hashSeeds = new long[hashPool.size()];
+        for (int i = 0; i < hashSeeds.length; i++) {
+            hashSeeds[i] = mix(hashPool.get(i).id().hashCode());
+        }
+    }
+
+    public String select(String currency, String merchant, String routingKey) {
+        if (merchant != null) {
+            StripeAccount pinned = byMerchant.get(merchant);
+            if (pinned != null) {
+                return pinned.id();
+            }
+        }
+        if (currency != null) {
+            StripeAccount mapped = byCurrency.get(currency);
+            if (mapped != null) {
+                return mapped.id();
+            }
+        }
+        if (hashPool.size() == 1) {
+            return hashPool.getFirst().id();
+        }
+
+        // Rendezvous hashing: adding or removing an account only moves the keys it wins or loses
+        long keyHash = mix(routingKey.hashCode());
+        int best = 0;
+        long bestScore = Long.MIN_VALUE;
+        for (int i = 0; i < hashSeeds.length; i++) {
+            long score = mix(keyHash ^ hashSeeds[i]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return hashPool.get(best).id();
+    }
+
+    /**
+     * Resolves a persisted account id. Transactions created before sharding, with no id or the
+     * single-account {@value #DEFAULT_ACCOUNT_ID} id, map to the primary.
+     */
+    public StripeAccount get(String accountId) {
+        if (accountId == null) {
+            return primary;
+        }
+        StripeAccount account = accounts.get(accountId);
+        if (account == null && DEFAULT_ACCOUNT_ID.equals(accountId)) {
+            return primary;
+        }
+        if (account == null) {
+            throw new IllegalStateException("Unknown Stripe account: " + accountId);
+        }
+        return account;
+    }
+
+    /**
+     * Whether a persisted account id, legacy ids included, resolves to {@code accountId}. Ids that are
+     * no longer configured match nothing.
+     */
+    public boolean matches(String persistedAccountId, String accountId) {
+        if (persistedAccountId != null && !accounts.containsKey(persistedAccountId)
+                && !DEFAULT_ACCOUNT_ID.equals(persistedAccountId)) {
+            return false;
+        }
+        return get(persistedAccountId).id().equals(accountId);
+    }
+
+    public StripeAccount primary() {
+        return primary;
+    }
+
+    public Collection<StripeAccount> all() {
+        return Collections.unmodifiableCollection(accounts.values());
+    }
+
+    /** MurmurHash3 fmix64 finalizer. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
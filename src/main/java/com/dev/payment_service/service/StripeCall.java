@@ -0,0 +1,9 @@
+package com.dev.payment_service.service;
+
+import com.stripe.exception.StripeException;
+
+/** A single Stripe API request, executed through the gateway limiter and retry machinery. */
+@FunctionalInterface
+public interface StripeCall<T> {
+    T execute() throws StripeException;
+}
@@ -0,0 +1,220 @@
+package com.dev.payment_service.service;
+
+import com.stripe.exception.StripeException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Hedged execution for idempotent Stripe reads: if the first request has not answered within the
+ * observed p95, an identical second request is sent and whichever succeeds first wins.
+ * Hedges are paid for from a credit budget so they stay a small fraction of read traffic.
+ * Never use this for calls that create or modify Stripe objects.
+ */
+@Component
+public class StripeHedgingExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(StripeHedgingExecutor.class);
+
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int MIN_SAMPLES = 20;
+    private static final long CREDIT_UNIT = 1_000_000L;
+
+    private final ExecutorService executor;
+    private final long defaultDelayNanos;
+    private final long minDelayNanos;
+    private final long creditPerRequest;
+    private final long maxCredits;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_SIZE);
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private final AtomicLong credits;
+    private volatile long cachedDelayNanos;
+    private volatile long delayComputedAt;
+
+    public StripeHedgingExecutor(
+            @Value("${stripe.hedging.threads:16}") int threads,
+            @Value("${stripe.hedging.default-delay-ms:500}") long defaultDelayMs,
+            @Value("${stripe.hedging.min-delay-ms:50}") long minDelayMs,
+            @Value("${stripe.hedging.budget-percent:5}") double budgetPercent,
+            @Value("${stripe.hedging.max-burst:10}") int maxBurst,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+
+        if (virtualThreads) {
+            // Requests and hedges only wait on Stripe, so each gets its own virtual thread
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stripe-hedge-", 1).factory());
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "stripe-hedge-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.defaultDelayNanos = TimeUnit.MILLISECONDS.toNanos(defaultDelayMs);
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.creditPerRequest = (long) (CREDIT_UNIT * budgetPercent / 100.0);
+        this.maxCredits = maxBurst * CREDIT_UNIT;
+        this.credits = new AtomicLong(maxCredits);
+        this.cachedDelayNanos = defaultDelayNanos;
+    }
+
+    public <T> T execute(String operation, StripeCall<T> call) throws StripeException {
+        return execute(operation, call, () -> true);
+    }
+
+    /**
+     * As {@link #execute(String, StripeCall)}, with the caller holding a rate limit permit for the first
+     * request. {@code hedgePermit} must not block: it is asked for a second permit only when a hedge is
+     * due, and the hedge is skipped when it returns false. {@code call} should be the request alone,
+     * since its duration feeds the hedge delay.
+     */
+    public <T> T execute(String operation, StripeCall<T> call, BooleanSupplier hedgePermit) throws StripeException {
+        deposit();
+        CompletableFuture<T> primary = submit(call);
+
+        long delay = hedgeDelayNanos();
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (!withdraw()) {
+                return await(primary);
+            }
+            if (!hedgePermit.getAsBoolean()) {
+                deposit(CREDIT_UNIT);
+                return await(primary);
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Stripe", e);
+        }
+
+        log.debug("Hedging Stripe read: operation={}, afterMs={}", operation, TimeUnit.NANOSECONDS.toMillis(delay));
+        CompletableFuture<T> hedge = submit(call);
+        try {
+            return firstSuccessful(primary, hedge);
+        } finally {
+            primary.cancel(false);
+            hedge.cancel(false);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(StripeCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                T result = call.execute();
+                record(System.nanoTime() - start);
+                return result;
+            } catch (StripeException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private <T> T firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedge) throws StripeException {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> attempt : Arrays.asList(primary, hedge)) {
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    winner.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return await(winner);
+    }
+
+    private <T> T await(CompletableFuture<T> future) throws StripeException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Stripe", e);
+        }
+    }
+
+    private static StripeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof StripeException stripeException) {
+            return stripeException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    private void record(long latencyNanos) {
+        int index = sampleCount.getAndIncrement();
+        samples.set(Math.floorMod(index, SAMPLE_SIZE), latencyNanos);
+    }
+
+    /** p95 of recent successful reads, recomputed at most once a second. */
+    long hedgeDelayNanos() {
+        long now = System.nanoTime();
+        if (now - delayComputedAt < TimeUnit.SECONDS.toNanos(1)) {
+            return cachedDelayNanos;
+        }
+        delayComputedAt = now;
+
+        int count = Math.min(sampleCount.get(), SAMPLE_SIZE);
+        if (count < MIN_SAMPLES) {
+            cachedDelayNanos = defaultDelayNanos;
+            return cachedDelayNanos;
+        }
+        long[] snapshot = new long[count];
+        for (int i = 0; i < count; i++) {
+            snapshot[i] = samples.get(i);
+        }
+        Arrays.sort(snapshot);
+        cachedDelayNanos = Math.max(minDelayNanos, snapshot[(int) Math.ceil(count * 0.95) - 1]);
+        return cachedDelayNanos;
+    }
+
+    private void deposit() {
+        deposit(creditPerRequest);
+    }
+
+    private void deposit(long amount) {
+        credits.accumulateAndGet(amount, (current, add) -> Math.min(maxCredits, current + add));
+    }
+
+    private boolean withdraw() {
+        while (true) {
+            long current = credits.get();
+            if (current < CREDIT_UNIT) {
+                return false;
+            }
+            if (credits.compareAndSet(current, current - CREDIT_UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
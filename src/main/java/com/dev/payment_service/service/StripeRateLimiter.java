@@ -0,0 +1,201 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.enums.GatewayPriority;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One token bucket per Stripe account, shared by every outbound call made with that account's key.
+ * LIVE callers queue for up to {@code live-max-wait}; BACKGROUND callers may only spend tokens
+ * above the reserved share and never while a LIVE caller is waiting.
+ */
+@Component
+public class StripeRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(StripeRateLimiter.class);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final double requestsPerSecond;
+    private final int burst;
+    private final double reserve;
+    private final long liveMaxWaitNanos;
+    private final long backgroundMaxWaitNanos;
+    private final int maxQueued;
+
+    public StripeRateLimiter(
+            @Value("${stripe.rate-limit.requests-per-second:25}") double requestsPerSecond,
+            @Value("${stripe.rate-limit.burst:25}") int burst,
+            @Value("${stripe.rate-limit.background-reserve:0.5}") double backgroundReserve,
+            @Value("${stripe.rate-limit.live-max-wait-ms:2000}") long liveMaxWaitMs,
+            @Value("${stripe.rate-limit.background-max-wait-ms:10000}") long backgroundMaxWaitMs,
+            @Value("${stripe.rate-limit.max-queued:200}") int maxQueued) {
+
+        if (requestsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalStateException("Stripe rate limit must be positive");
+        }
+        if (backgroundReserve < 0 || backgroundReserve >= 1) {
+            throw new IllegalStateException("stripe.rate-limit.background-reserve must be in [0, 1)");
+        }
+
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.reserve = burst * backgroundReserve;
+        this.liveMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(liveMaxWaitMs);
+        this.backgroundMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(backgroundMaxWaitMs);
+        this.maxQueued = maxQueued;
+    }
+
+    /** Blocks until {@code permits} tokens are granted or throws {@link GatewayRateLimitException}. */
+    public void acquire(String accountId, GatewayPriority priority, int permits) {
+        long maxWait = priority == GatewayPriority.LIVE ? liveMaxWaitNanos : backgroundMaxWaitNanos;
+        bucket(accountId).acquire(priority, permits, maxWait, maxQueued);
+    }
+
+    public void acquire(String accountId, GatewayPriority priority) {
+        acquire(accountId, priority, 1);
+    }
+
+    /**
+     * Never waits: grants {@code permits} tokens if they are available now, otherwise throws
+     * {@link GatewayRateLimitException} with the time until they would be. For event-loop callers.
+     */
+    public void tryAcquire(String accountId, GatewayPriority priority, int permits) {
+        long retryAfterNanos = bucket(accountId).tryAcquire(priority, permits);
+        if (retryAfterNanos > 0) {
+            throw TokenBucket.rejection(priority, retryAfterNanos);
+        }
+    }
+
+    /** As {@link #tryAcquire}, but answers yes or no, for optional calls such as hedges. */
+    public boolean tryAcquirePermits(String accountId, GatewayPriority priority, int permits) {
+        return bucket(accountId).tryAcquire(priority, permits) == 0;
+    }
+
+    private TokenBucket bucket(String accountId) {
+        return buckets.computeIfAbsent(accountId, id -> new TokenBucket(requestsPerSecond, burst, reserve));
+    }
+
+    static final class TokenBucket {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private final double reserve;
+
+        private double tokens;
+        private long lastRefill;
+        private int liveWaiting;
+        private int backgroundWaiting;
+
+        TokenBucket(double tokensPerSecond, double capacity, double reserve) {
+            this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.reserve = reserve;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        void acquire(GatewayPriority priority, int permits, long maxWaitNanos, int maxQueued) {
+            boolean live = priority == GatewayPriority.LIVE;
+            double required = required(priority, permits);
+
+            lock.lock();
+            try {
+                refill();
+                if (tokens >= required && (live || liveWaiting == 0)) {
+                    tokens -= permits;
+                    return;
+                }
+                if (liveWaiting + backgroundWaiting >= maxQueued) {
+                    log.warn("Stripe rate limiter queue full: priority={}, queued={}",
+                            priority, liveWaiting + backgroundWaiting);
+                    throw rejection(priority, nanosUntil(required));
+                }
+
+                long deadline = System.nanoTime() + maxWaitNanos;
+                if (live) liveWaiting++; else backgroundWaiting++;
+                try {
+                    while (true) {
+                        refill();
+                        if (tokens >= required && (live || liveWaiting == 0)) {
+                            tokens -= permits;
+                            changed.signalAll();
+                            return;
+                        }
+
+                        long remaining = deadline - System.nanoTime();
+                        long untilAvailable = nanosUntil(required);
+                        if (remaining <= 0 || (live && untilAvailable > remaining)) {
+                            throw rejection(priority, untilAvailable);
+                        }
+                        changed.awaitNanos(Math.max(Math.min(remaining, untilAvailable), 1));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw rejection(priority, nanosUntil(required));
+                } finally {
+                    if (live) liveWaiting--; else backgroundWaiting--;
+                    changed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // 0 once the tokens are taken, otherwise the nanos until they would be available
+        long tryAcquire(GatewayPriority priority, int permits) {
+            boolean live = priority == GatewayPriority.LIVE;
+            double required = required(priority, permits);
+
+            lock.lock();
+            try {
+                refill();
+                if (tokens >= required && (live || liveWaiting == 0)) {
+                    tokens -= permits;
+                    return 0;
+                }
+                return Math.max(nanosUntil(required), 1);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Background work must leave the reserved share for live payments
+        private double required(GatewayPriority priority, int permits) {
+            double required = priority == GatewayPriority.LIVE ? permits : permits + reserve;
+            if (required > capacity) {
+                throw new IllegalArgumentException("Requested permits exceed Stripe rate limit burst");
+            }
+            return required;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+
+        private long nanosUntil(double required) {
+            double missing = required - tokens;
+            return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano);
+        }
+
+        private static GatewayRateLimitException rejection(GatewayPriority priority, long retryAfterNanos) {
+            Duration retryAfter = Duration.ofNanos(Math.max(retryAfterNanos, TimeUnit.MILLISECONDS.toNanos(1)));
+            return new GatewayRateLimitException(
+                    "Stripe request rate limit reached for " + priority + " traffic", retryAfter);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.config.WorkloadRoutingDataSource;
+import com.dev.payment_service.enums.Workload;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.IdempotencyException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Re-runs transient Stripe failures on a background scheduler with exponential backoff and full jitter.
+ * Callers must capture the original idempotency key in the {@link StripeCall} so a retry can never
+ * create a second charge.
+ */
+@Component
+public class StripeRetryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(StripeRetryScheduler.class);
+
+    private final ScheduledExecutorService scheduler;
+    // Runs the attempts; null runs them on the scheduler thread itself
+    private final ExecutorService attempts;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long deadlineMs;
+
+    public StripeRetryScheduler(
+            @Value("${stripe.retry.threads:4}") int threads,
+            @Value("${stripe.retry.max-attempts:5}") int maxAttempts,
+            @Value("${stripe.retry.initial-backoff-ms:500}") long initialBackoffMs,
+            @Value("${stripe.retry.max-backoff-ms:30000}") long maxBackoffMs,
+            @Value("${stripe.retry.deadline-ms:120000}") long deadlineMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+
+        AtomicInteger counter = new AtomicInteger();
+        // With virtual threads one platform thread only keeps time; each attempt gets its own virtual thread
+        this.attempts = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stripe-retry-attempt-", 1).factory())
+                : null;
+        this.scheduler = Executors.newScheduledThreadPool(virtualThreads ? 1 : threads, runnable -> {
+            Thread thread = new Thread(runnable, "stripe-retry-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.deadlineMs = deadlineMs;
+    }
+
+    /**
+     * Connection failures, 5xx responses, 429s and lock timeouts are safe to repeat under the same
+     * idempotency key. Card declines, validation errors and idempotency conflicts are final.
+     */
+    public boolean isRetryable(StripeException e) {
+        if (e instanceof IdempotencyException) {
+            return false;
+        }
+        if (e instanceof ApiConnectionException || e instanceof RateLimitException) {
+            return true;
+        }
+        if ("lock_timeout".equals(e.getCode())) {
+            return true;
+        }
+        Integer statusCode = e.getStatusCode();
+        return e instanceof ApiException || (statusCode != null && (statusCode == 429 || statusCode >= 500));
+    }
+
+    /**
+     * Schedules further attempts of a call whose first attempt already failed with a retryable error.
+     * The returned future completes on the scheduler thread, never on the caller's.
+     */
+    public <T> CompletableFuture<T> retry(String operation, StripeCall<T> call) {
+        return retry(operation, Instant.now(), call, (value, error) -> { });
+    }
+
+    /**
+     * As {@link #retry(String, StripeCall)}, with {@code stripe.retry.deadline-ms} counted from
+     * {@code firstAttempt}, the failed call that led here, and {@code completion} run with the outcome
+     * on the attempt thread, under the payments workload. Chaining on the returned future instead may
+     * run on the caller's thread if the attempts finish first.
+     */
+    public <T> CompletableFuture<T> retry(String operation, Instant firstAttempt, StripeCall<T> call,
+                                          BiConsumer<? super T, ? super Throwable> completion) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // Attached before the first attempt is scheduled, so it runs wherever the result completes
+        CompletableFuture<T> completed = result.whenComplete(completion);
+        long deadline = firstAttempt.toEpochMilli() + deadlineMs;
+        schedule(operation, call, result, 2, deadline, backoffMillis(1));
+        return completed;
+    }
+
+    private <T> void schedule(String operation, StripeCall<T> call, CompletableFuture<T> result,
+                              int attempt, long deadline, long delayMs) {
+
+        Runnable task = () -> {
+            try {
+                T value = call.execute();
+                log.info("Stripe retry succeeded: operation={}, attempt={}", operation, attempt);
+                result.complete(value);
+            } catch (StripeException e) {
+                if (!isRetryable(e)) {
+                    log.warn("Stripe retry hit non-retryable error: operation={}, attempt={}, code={}",
+                            operation, attempt, e.getCode());
+                    result.completeExceptionally(e);
+                    return;
+                }
+                next(operation, call, result, attempt, deadline, backoffMillis(attempt), e);
+            } catch (GatewayRateLimitException e) {
+                long delay = Math.max(backoffMillis(attempt), e.getRetryAfter().toMillis());
+                next(operation, call, result, attempt, deadline, delay, e);
+            } catch (RuntimeException e) {
+                log.error("Unexpected error during Stripe retry: operation={}, attempt={}", operation, attempt, e);
+                result.completeExceptionally(e);
+            }
+        };
+        // Attempts and the completion passed to retry() write payment rows, so they use the
+        // payments pool rather than the admin pool untagged threads get
+        Runnable payments = () -> {
+            Workload previous = WorkloadRoutingDataSource.use(Workload.PAYMENTS);
+            try {
+                task.run();
+            } finally {
+                WorkloadRoutingDataSource.restore(previous);
+            }
+        };
+        scheduler.schedule(() -> {
+            if (attempts != null) {
+                attempts.execute(payments);
+            } else {
+                payments.run();
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> void next(String operation, StripeCall<T> call, CompletableFuture<T> result,
+                          int attempt, long deadline, long delayMs, Exception cause) {
+
+        if (attempt >= maxAttempts || System.currentTimeMillis() + delayMs > deadline) {
+            log.warn("Stripe retries exhausted: operation={}, attempts={}, lastError={}",
+                    operation, attempt, cause.getMessage());
+            result.completeExceptionally(cause);
+            return;
+        }
+        log.info("Stripe call failed transiently, retrying: operation={}, attempt={}, delayMs={}, error={}",
+                operation, attempt, delayMs, cause.getMessage());
+        schedule(operation, call, result, attempt + 1, deadline, delayMs);
+    }
+
+    /** Full jitter: uniform in [0, min(max, initial * 2^(attempt-1))]. */
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        if (attempts != null) {
+            attempts.shutdown();
+        }
+    }
+}
@@ -1,29 +1,65 @@
 package com.dev.payment_service.service;
 
+import com.dev.payment_service.config.StripeAccount;
 import com.dev.payment_service.dto.CreditCardDetails;
 import com.dev.payment_service.dto.BankTransferDetails;
+import com.dev.payment_service.enums.GatewayPriority;
+import com.dev.payment_service.model.Money;
 import com.stripe.exception.StripeException;
+import com.stripe.model.Balance;
 import com.stripe.model.PaymentIntent;
 import com.stripe.model.PaymentMethod;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.PaymentIntentCreateParams;
 import com.stripe.param.PaymentMethodCreateParams;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.function.Consumer;
 
 @Service
+@RequiredArgsConstructor
 public class StripeService {
 
     private static final Logger log = LoggerFactory.getLogger(StripeService.class);
 
+    // Latency series per Stripe API operation, judged against latency.slo.stripe-p99
+    public static final String CREATE_PAYMENT_INTENT = "stripe PaymentIntent.create";
+    public static final String CREATE_PAYMENT_METHOD = "stripe PaymentMethod.create";
+    static final String RETRIEVE_PAYMENT_INTENT = "stripe PaymentIntent.retrieve";
 
-    public PaymentIntent processCreditCardPayment(BigDecimal amount, String currency,
+    private final StripeRateLimiter rateLimiter;
+    private final StripeHedgingExecutor hedgingExecutor;
+    private final StripeAccountRouter accountRouter;
+    private final LatencyHistograms latencyHistograms;
+
+
+    // Tagged with the method and, for failures, the Stripe exception type
+    @Timed(value = "stripe.requests", description = "Stripe API calls", histogram = true)
+    public PaymentIntent processCreditCardPayment(String accountId, Money amount,
                                                    CreditCardDetails cardDetails,
                                                    String idempotencyKey) throws StripeException {
+        return createCardPaymentIntent(accountId, amount, cardDetails, idempotencyKey, false);
+    }
 
-        log.info("Processing credit card payment: amount={}, currency={}", amount, currency);
+    /**
+     * A {@link StripeRetryScheduler} attempt of {@link #processCreditCardPayment}: spends a background
+     * permit and never waits for one, so the scheduler backs off by the limiter's Retry-After instead.
+     */
+    @Timed(value = "stripe.requests", description = "Stripe API calls", histogram = true)
+    public PaymentIntent retryCreditCardPayment(String accountId, Money amount,
+                                                CreditCardDetails cardDetails,
+                                                String idempotencyKey) throws StripeException {
+        return createCardPaymentIntent(accountId, amount, cardDetails, idempotencyKey, true);
+    }
+
+    private PaymentIntent createCardPaymentIntent(String accountId, Money amount, CreditCardDetails cardDetails,
+                                                  String idempotencyKey, boolean retry) throws StripeException {
+
+        log.info("Processing credit card payment: account={}, amount={}", accountId, amount);
 
         // Use Stripe test token (paymentMethodId) - NEVER accept raw card numbers
         String paymentMethodId = cardDetails.getPaymentMethodId();
@@ -34,31 +70,17 @@ public class StripeService {
 
         log.info("Using Stripe payment method: {}", paymentMethodId);
 
-        // Convert amount to cents (Stripe requires smallest currency unit)
-        long amountInCents = amount.multiply(BigDecimal.valueOf(100)).longValue();
+        // Money already holds the smallest currency unit Stripe expects
+        log.info("Creating PaymentIntent: amount={} minor units, currency={}, paymentMethodId={}, idempotencyKey={}",
+                amount.minorUnits(), amount.currency(), paymentMethodId, idempotencyKey);
 
-        log.info("Creating PaymentIntent: amount={} cents, currency={}, paymentMethodId={}, idempotencyKey={}",
-                amountInCents, currency.toLowerCase(), paymentMethodId, idempotencyKey);
-
-        PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                .setAmount(amountInCents)
-                .setCurrency(currency.toLowerCase())
-                .setPaymentMethod(paymentMethodId)
-                .setConfirm(true)
-                .setAutomaticPaymentMethods(
-                        PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
-                                .setEnabled(true)
-                                .setAllowRedirects(PaymentIntentCreateParams.AutomaticPaymentMethods.AllowRedirects.NEVER)
-                                .build()
-                )
-                .setDescription("Payment transaction")
-                .build();
+        PaymentIntentCreateParams params = cardPaymentIntentParams(amount, paymentMethodId);
 
         try {
-            PaymentIntent intent = PaymentIntent.create(params,
-                    com.stripe.net.RequestOptions.builder()
-                            .setIdempotencyKey(idempotencyKey)
-                            .build());
+            StripeAccount account = accountRouter.get(accountId);
+            acquirePermits(account, retry, 1);
+            PaymentIntent intent = timed(CREATE_PAYMENT_INTENT,
+                    () -> PaymentIntent.create(params, requestOptions(account, idempotencyKey)));
 
             log.info("Payment Intent created successfully: id={}, status={}", intent.getId(), intent.getStatus());
             return intent;
@@ -71,49 +93,56 @@ public class StripeService {
     }
 
     /** Process bank transfer payment through Stripe SEPA Direct Debit*/
-    public PaymentIntent processBankTransferPayment(BigDecimal amount, String currency,
+    @Timed(value = "stripe.requests", description = "Stripe API calls", histogram = true)
+    public PaymentIntent processBankTransferPayment(String accountId, Money amount,
                                                      BankTransferDetails bankDetails,
                                                      String idempotencyKey) throws StripeException {
+        return processBankTransferPayment(accountId, amount, bankDetails, idempotencyKey, paymentMethodId -> { });
+    }
 
-        log.info("Processing bank transfer payment: amount={}, currency={}, iban={}",
-                amount, currency);
+    /**
+     * As above, handing the SEPA PaymentMethod id to {@code paymentMethodCreated} before the
+     * PaymentIntent is requested, so the caller can record it for {@link #replayPaymentIntent}.
+     */
+    @Timed(value = "stripe.requests", description = "Stripe API calls", histogram = true)
+    public PaymentIntent processBankTransferPayment(String accountId, Money amount,
+                                                     BankTransferDetails bankDetails,
+                                                     String idempotencyKey,
+                                                     Consumer<String> paymentMethodCreated) throws StripeException {
+        return createBankPaymentIntent(accountId, amount, bankDetails, idempotencyKey, paymentMethodCreated, false);
+    }
 
-        PaymentMethod paymentMethod = createBankPaymentMethod(bankDetails);
+    /** A {@link StripeRetryScheduler} attempt of the above, on background permits like {@link #retryCreditCardPayment}. */
+    @Timed(value = "stripe.requests", description = "Stripe API calls", histogram = true)
+    public PaymentIntent retryBankTransferPayment(String accountId, Money amount,
+                                                  BankTransferDetails bankDetails,
+                                                  String idempotencyKey,
+                                                  Consumer<String> paymentMethodCreated) throws StripeException {
+        return createBankPaymentIntent(accountId, amount, bankDetails, idempotencyKey, paymentMethodCreated, true);
+    }
 
-        long amountInCents = amount.multiply(BigDecimal.valueOf(100)).longValue();
+    private PaymentIntent createBankPaymentIntent(String accountId, Money amount, BankTransferDetails bankDetails,
+                                                  String idempotencyKey, Consumer<String> paymentMethodCreated,
+                                                  boolean retry) throws StripeException {
 
-        log.info("Creating Bank Transfer PaymentIntent: amount={} cents, currency={}, paymentMethodId={}, idempotencyKey={}",
-                amountInCents, currency.toLowerCase(), paymentMethod.getId(), idempotencyKey);
+        log.info("Processing bank transfer payment: account={}, amount={}", accountId, amount);
 
-        PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                .setAmount(amountInCents)
-                .setCurrency(currency.toLowerCase())
-                .setPaymentMethod(paymentMethod.getId())
-                .addPaymentMethodType("sepa_debit")
-                .setConfirm(true)
-                .setMandateData(
-                        PaymentIntentCreateParams.MandateData.builder()
-                                .setCustomerAcceptance(
-                                        PaymentIntentCreateParams.MandateData.CustomerAcceptance.builder()
-                                                .setType(PaymentIntentCreateParams.MandateData.CustomerAcceptance.Type.ONLINE)
-                                                .setOnline(
-                                                        PaymentIntentCreateParams.MandateData.CustomerAcceptance.Online.builder()
-                                                                .setIpAddress("127.0.0.1") // In production, use real customer IP
-                                                                .setUserAgent("PaymentService/1.0") // In production, use real user agent
-                                                                .build()
-                                                )
-                                                .build()
-                                )
-                                .build()
-                )
-                .setDescription("Bank transfer payment")
-                .build();
+        StripeAccount account = accountRouter.get(accountId);
+
+        // Reserve both calls up front so a SEPA payment is never left half-created
+        acquirePermits(account, retry, 2);
+
+        PaymentMethod paymentMethod = createBankPaymentMethod(account, bankDetails, idempotencyKey);
+        paymentMethodCreated.accept(paymentMethod.getId());
+
+        log.info("Creating Bank Transfer PaymentIntent: amount={} minor units, currency={}, paymentMethodId={}, idempotencyKey={}",
+                amount.minorUnits(), amount.currency(), paymentMethod.getId(), idempotencyKey);
+
+        PaymentIntentCreateParams params = bankPaymentIntentParams(amount, paymentMethod.getId());
 
         try {
-            PaymentIntent intent = PaymentIntent.create(params,
-                    com.stripe.net.RequestOptions.builder()
-                            .setIdempotencyKey(idempotencyKey)
-                            .build());
+            PaymentIntent intent = timed(CREATE_PAYMENT_INTENT,
+                    () -> PaymentIntent.create(params, requestOptions(account, idempotencyKey)));
 
             log.info("Bank Payment Intent created successfully: id={}, status={}", intent.getId(), intent.getStatus());
             return intent;
@@ -126,9 +155,75 @@ public class StripeService {
     }
 
 
-    private PaymentMethod createBankPaymentMethod(BankTransferDetails bankDetails) throws StripeException {
+    /**
+     * Sends a PaymentIntent create again under the key of an earlier attempt, for payments whose
+     * retries were lost with the instance that owned them. Stripe answers with the original intent
+     * if any attempt reached it within its 24h key retention.
+     */
+    @Timed(value = "stripe.requests", description = "Stripe API calls", histogram = true)
+    public PaymentIntent replayPaymentIntent(String accountId, PaymentIntentCreateParams params,
+                                             String idempotencyKey) throws StripeException {
+        StripeAccount account = accountRouter.get(accountId);
+        PaymentIntent intent = call(account, GatewayPriority.BACKGROUND, CREATE_PAYMENT_INTENT,
+                () -> PaymentIntent.create(params, requestOptions(account, idempotencyKey)));
+        log.info("Payment Intent replayed: id={}, status={}, idempotencyKey={}",
+                intent.getId(), intent.getStatus(), idempotencyKey);
+        return intent;
+    }
+
+    /** Read-only status lookup used by reconciliation; hedged and limited as background traffic. */
+    @Timed(value = "stripe.requests", description = "Stripe API calls", histogram = true)
+    public PaymentIntent retrievePaymentIntent(String accountId, String paymentIntentId) throws StripeException {
+        StripeAccount account = accountRouter.get(accountId);
+        // Permits are taken outside the hedged section so limiter waits stay out of the hedge delay
+        rateLimiter.acquire(account.id(), GatewayPriority.BACKGROUND);
+        return hedgingExecutor.execute("retrievePaymentIntent",
+                () -> timed(RETRIEVE_PAYMENT_INTENT,
+                        () -> PaymentIntent.retrieve(paymentIntentId, requestOptions(account, null))),
+                // A hedge is optional, so it never waits for a permit
+                () -> rateLimiter.tryAcquirePermits(account.id(), GatewayPriority.BACKGROUND, 1));
+    }
+
+    /**
+     * Opens the HTTPS connection to Stripe for the account and loads the client classes with a
+     * balance read. Kept out of the latency windows; any answer from Stripe, errors included, means
+     * the connection is up.
+     */
+    public void preconnect(String accountId) throws StripeException {
+        StripeAccount account = accountRouter.get(accountId);
+        rateLimiter.acquire(account.id(), GatewayPriority.BACKGROUND);
+        Balance.retrieve(requestOptions(account, null));
+    }
+
+    private PaymentMethod createBankPaymentMethod(StripeAccount account, BankTransferDetails bankDetails,
+                                                  String idempotencyKey) throws StripeException {
+
+        PaymentMethodCreateParams params = bankPaymentMethodParams(bankDetails);
+
+        // Derived key so a retried SEPA payment reuses the PaymentMethod created by the first attempt
+        return timed(CREATE_PAYMENT_METHOD,
+                () -> PaymentMethod.create(params, requestOptions(account, idempotencyKey + "-pm")));
+    }
 
-        PaymentMethodCreateParams params = PaymentMethodCreateParams.builder()
+    // Request parameters are shared with the reactive deployment so both stacks send identical requests
+    public static PaymentIntentCreateParams cardPaymentIntentParams(Money amount, String paymentMethodId) {
+        return PaymentIntentCreateParams.builder()
+                .setAmount(amount.minorUnits())
+                .setCurrency(amount.currency())
+                .setPaymentMethod(paymentMethodId)
+                .setConfirm(true)
+                .setAutomaticPaymentMethods(
+                        PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
+                                .setEnabled(true)
+                                .setAllowRedirects(PaymentIntentCreateParams.AutomaticPaymentMethods.AllowRedirects.NEVER)
+                                .build()
+                )
+                .setDescription("Payment transaction")
+                .build();
+    }
+
+    public static PaymentMethodCreateParams bankPaymentMethodParams(BankTransferDetails bankDetails) {
+        return PaymentMethodCreateParams.builder()
                 .setType(PaymentMethodCreateParams.Type.SEPA_DEBIT)
                 .setSepaDebit(PaymentMethodCreateParams.SepaDebit.builder()
                         .setIban(bankDetails.getIban())
@@ -138,8 +233,66 @@ public class StripeService {
                         .setEmail(bankDetails.getEmail())
                         .build())
                 .build();
+    }
 
-        return PaymentMethod.create(params);
+    public static PaymentIntentCreateParams bankPaymentIntentParams(Money amount, String paymentMethodId) {
+        return PaymentIntentCreateParams.builder()
+                .setAmount(amount.minorUnits())
+                .setCurrency(amount.currency())
+                .setPaymentMethod(paymentMethodId)
+                .addPaymentMethodType("sepa_debit")
+                .setConfirm(true)
+                .setMandateData(
+                        PaymentIntentCreateParams.MandateData.builder()
+                                .setCustomerAcceptance(
+                                        PaymentIntentCreateParams.MandateData.CustomerAcceptance.builder()
+                                                .setType(PaymentIntentCreateParams.MandateData.CustomerAcceptance.Type.ONLINE)
+                                                .setOnline(
+                                                        PaymentIntentCreateParams.MandateData.CustomerAcceptance.Online.builder()
+                                                                .setIpAddress("127.0.0.1") // In production, use real customer IP
+                                                                .setUserAgent("PaymentService/1.0") // In production, use real user agent
+                                                                .build()
+                                                )
+                                                .build()
+                                )
+                                .build()
+                )
+                .setDescription("Bank transfer payment")
+                .build();
+    }
+
+    // A retry thread waiting on the limiter would hold up every retry queued behind it
+    private void acquirePermits(StripeAccount account, boolean retry, int permits) {
+        if (retry) {
+            rateLimiter.tryAcquire(account.id(), GatewayPriority.BACKGROUND, permits);
+        } else {
+            rateLimiter.acquire(account.id(), GatewayPriority.LIVE, permits);
+        }
+    }
+
+    private <T> T call(StripeAccount account, GatewayPriority priority, String operation,
+                       StripeCall<T> stripeCall) throws StripeException {
+        rateLimiter.acquire(account.id(), priority);
+        return timed(operation, stripeCall);
+    }
+
+    /** Times the Stripe request itself, excluding any wait for a rate limit permit. */
+    private <T> T timed(String operation, StripeCall<T> stripeCall) throws StripeException {
+        long start = System.nanoTime();
+        try {
+            return stripeCall.execute();
+        } finally {
+            latencyHistograms.record(operation, System.nanoTime() - start);
+        }
+    }
+
+    private RequestOptions requestOptions(StripeAccount account, String idempotencyKey) {
+        RequestOptions.RequestOptionsBuilder builder = RequestOptions.builder()
+                .setApiKey(account.secretKey());
+        if (idempotencyKey != null) {
+            builder.setIdempotencyKey(idempotencyKey);
+        }
+        return builder.build();
     }
 
 }
@@ -5,10 +5,12 @@ import com.dev.payment_service.model.Transaction;
 import com.dev.payment_service.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +20,7 @@ import java.util.Optional;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final PaymentMetrics paymentMetrics;
 
 
     public Optional<Transaction> findByIdempotencyKey(String idempotencyKey) {
@@ -30,18 +33,39 @@ public class TransactionService {
     }
 
 
+    @Transactional(readOnly = true)
     public Optional<Transaction> findById(Long id) {
         return transactionRepository.findById(id);
     }
 
+    /** Always reads the primary, for callers that must see their own writes. */
+    @Transactional
+    public Optional<Transaction> findByIdOnPrimary(Long id) {
+        return transactionRepository.findById(id);
+    }
+
+    @Transactional(readOnly = true)
     public List<Transaction> findAll() {
         return transactionRepository.findAll();
     }
 
+    public List<Transaction> findStalePendingPaymentIntents(Instant updatedBefore, int limit) {
+        return transactionRepository.findByStatusAndProviderReferenceIdStartingWithAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                PaymentStatus.PENDING, "pi_", updatedBefore, PageRequest.of(0, limit));
+    }
+
+
+    /** PENDING rows still carrying one of the given placeholder references, oldest first. */
+    public List<Transaction> findStalePending(Collection<String> providerReferenceIds, Instant updatedBefore, int limit) {
+        return transactionRepository.findByStatusAndProviderReferenceIdInAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                PaymentStatus.PENDING, providerReferenceIds, updatedBefore, PageRequest.of(0, limit));
+    }
+
 
     @Transactional
     public Transaction createTransaction(Transaction transaction) {
         Transaction savedTransaction = transactionRepository.save(transaction);
+        paymentMetrics.recordTransition(savedTransaction);
         log.info("User {} created transaction: ID={}, Reference={}, Amount={}, Currency={}, Method={}, Status={}",
                 savedTransaction.getCreatedBy(),
                 savedTransaction.getId(),
@@ -58,6 +82,7 @@ public class TransactionService {
     public Transaction updateTransaction(Transaction transaction) {
         transaction.setUpdatedAt(Instant.now());
         Transaction updatedTransaction = transactionRepository.save(transaction);
+        paymentMetrics.recordTransition(updatedTransaction);
         log.info("User {} modified transaction: ID={}, Reference={}, Status={}",
                 updatedTransaction.getLastModifiedBy(),
                 updatedTransaction.getId(),
@@ -78,6 +103,7 @@ public class TransactionService {
         transaction.setLastModifiedBy(modifiedBy);
 
         Transaction updatedTransaction = transactionRepository.save(transaction);
+        paymentMetrics.recordTransition(updatedTransaction);
         log.info("User {} modified transaction: ID={}, Reference={}, NewStatus={}",
                 modifiedBy,
                 updatedTransaction.getId(),
@@ -86,4 +112,36 @@ public class TransactionService {
         return updatedTransaction;
     }
 
+
+    @Transactional
+    public Transaction updateProviderResult(Long transactionId, String providerReferenceId,
+                                            PaymentStatus newStatus, String modifiedBy) {
+        Transaction transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new IllegalArgumentException("Transaction not found: " + transactionId));
+
+        transaction.setProviderReferenceId(providerReferenceId);
+        transaction.setStatus(newStatus);
+        transaction.setUpdatedAt(Instant.now());
+        transaction.setLastModifiedBy(modifiedBy);
+
+        Transaction updatedTransaction = transactionRepository.save(transaction);
+        paymentMetrics.recordTransition(updatedTransaction);
+        log.info("User {} modified transaction: ID={}, Reference={}, ProviderReference={}, NewStatus={}",
+                modifiedBy,
+                updatedTransaction.getId(),
+                updatedTransaction.getTransactionReference(),
+                providerReferenceId,
+                newStatus);
+        return updatedTransaction;
+    }
+
+
+    @Transactional
+    public void updatePaymentMethodRef(Long transactionId, String paymentMethodRef) {
+        Transaction transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new IllegalArgumentException("Transaction not found: " + transactionId));
+        transaction.setPaymentMethodRef(paymentMethodRef);
+        transactionRepository.save(transaction);
+    }
+
 }
@@ -4,6 +4,7 @@ import com.dev.payment_service.enums.PaymentStatus;
 import com.dev.payment_service.model.Transaction;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,82 +20,86 @@ public class WebhookService {
     private static final Logger log = LoggerFactory.getLogger(WebhookService.class);
 
     private final TransactionService transactionService;
+    private final PaymentMetrics paymentMetrics;
+    private final StripeAccountRouter accountRouter;
 
     @Transactional
-    public void handleWebhookEvent(Event event) {
-        log.info("Processing webhook event: type={}, id={}", event.getType(), event.getId());
+    @Timed(value = "payments.webhook.handle", description = "Webhook event processing", histogram = true)
+    public void handleWebhookEvent(Event event, String accountId) {
+        log.info("Processing webhook event: type={}, id={}, account={}", event.getType(), event.getId(), accountId);
+        paymentMetrics.recordWebhookLag(event);
 
         switch (event.getType()) {
-            case "payment_intent.succeeded" -> handlePaymentIntentSucceeded(event);
-            case "payment_intent.payment_failed" -> handlePaymentIntentFailed(event);
-            case "payment_intent.canceled" -> handlePaymentIntentCanceled(event);
-            case "payment_intent.processing" -> handlePaymentIntentProcessing(event);
+            case "payment_intent.succeeded" -> handlePaymentIntentSucceeded(event, accountId);
+            case "payment_intent.payment_failed" -> handlePaymentIntentFailed(event, accountId);
+            case "payment_intent.canceled" -> handlePaymentIntentCanceled(event, accountId);
+            case "payment_intent.processing" -> handlePaymentIntentProcessing(event, accountId);
             case "charge.refunded" -> handleChargeRefunded(event);
             default -> log.info("Unhandled event type: {}", event.getType());
         }
     }
 
-    private void handlePaymentIntentSucceeded(Event event) {
+    private void handlePaymentIntentSucceeded(Event event, String accountId) {
         PaymentIntent paymentIntent = extractPaymentIntent(event);
         if (paymentIntent == null) return;
 
         String stripePaymentIntentId = paymentIntent.getId();
         log.info("Payment succeeded: stripeId={}, amount={}", stripePaymentIntentId, paymentIntent.getAmount());
 
-        Optional<Transaction> txOpt = transactionService.findByProviderReferenceId(stripePaymentIntentId);
+        Optional<Transaction> txOpt = findTransaction(stripePaymentIntentId, accountId);
 
         if (txOpt.isPresent()) {
             Transaction tx = txOpt.get();
-            transactionService.updateTransactionStatus(tx.getId(), PaymentStatus.COMPLETED, "WEBHOOK_STRIPE");
+            updateStatus(tx, PaymentStatus.COMPLETED);
             log.info("Transaction updated to COMPLETED: id={}, reference={}", tx.getId(), tx.getTransactionReference());
         } else {
             log.warn("Transaction not found for Stripe PaymentIntent: {}", stripePaymentIntentId);
         }
     }
-    private void handlePaymentIntentFailed(Event event) {
+    private void handlePaymentIntentFailed(Event event, String accountId) {
         PaymentIntent paymentIntent = extractPaymentIntent(event);
         if (paymentIntent == null) return;
 
         String stripePaymentIntentId = paymentIntent.getId();
         log.warn("Payment failed: stripeId={}", stripePaymentIntentId);
 
-        Optional<Transaction> txOpt = transactionService.findByProviderReferenceId(stripePaymentIntentId);
+        Optional<Transaction> txOpt = findTransaction(stripePaymentIntentId, accountId);
 
         if (txOpt.isPresent()) {
             Transaction tx = txOpt.get();
-            transactionService.updateTransactionStatus(tx.getId(), PaymentStatus.FAILED, "WEBHOOK_STRIPE");
+            updateStatus(tx, PaymentStatus.FAILED);
             log.info("Transaction updated to FAILED: id={}, reference={}", tx.getId(), tx.getTransactionReference());
         } else {
             log.warn("Transaction not found for Stripe PaymentIntent: {}", stripePaymentIntentId);
         }
     }
 
-    private void handlePaymentIntentCanceled(Event event) {
+    private void handlePaymentIntentCanceled(Event event, String accountId) {
         PaymentIntent paymentIntent = extractPaymentIntent(event);
         if (paymentIntent == null) return;
 
         String stripePaymentIntentId = paymentIntent.getId();
         log.info("Payment canceled: stripeId={}", stripePaymentIntentId);
 
-        Optional<Transaction> txOpt = transactionService.findByProviderReferenceId(stripePaymentIntentId);
+        Optional<Transaction> txOpt = findTransaction(stripePaymentIntentId, accountId);
 
         if (txOpt.isPresent()) {
             Transaction tx = txOpt.get();
-            transactionService.updateTransactionStatus(tx.getId(), PaymentStatus.FAILED, "WEBHOOK_STRIPE");
+            updateStatus(tx, PaymentStatus.FAILED);
             log.info("Transaction updated to FAILED (canceled): id={}, reference={}", tx.getId(), tx.getTransactionReference());
         } else {
             log.warn("Transaction not found for Stripe PaymentIntent: {}", stripePaymentIntentId);
         }
     }
 
-    private void handlePaymentIntentProcessing(Event event) {
+    private void handlePaymentIntentProcessing(Event event, String accountId) {
         PaymentIntent paymentIntent = extractPaymentIntent(event);
         if (paymentIntent == null) return;
 
         String stripePaymentIntentId = paymentIntent.getId();
         log.info("Payment processing: stripeId={}", stripePaymentIntentId);
 
-        Optional<Transaction> txOpt = transactionService.findByProviderReferenceId(stripePaymentIntentId);
+        Optional<Transaction> txOpt = findTransaction(stripePaymentIntentId, accountId);
 
         if (txOpt.isPresent()) {
             Transaction tx = txOpt.get();
@@ -112,6 +117,24 @@ public class WebhookService {
         // TODO: Implement refund handling
     }
 
+    /** Ignores transactions created on a different Stripe account than the one that sent the event. */
+    private Optional<Transaction> findTransaction(String stripePaymentIntentId, String accountId) {
+        PaymentPhaseEvent lookup = PaymentPhaseEvent.begin(PaymentPhaseEvent.WEBHOOK_LOOKUP);
+        Optional<Transaction> txOpt = transactionService.findByProviderReferenceId(stripePaymentIntentId);
+        lookup.end(txOpt.orElse(null));
+        if (txOpt.isPresent() && !accountRouter.matches(txOpt.get().getStripeAccount(), accountId)) {
+            log.warn("Ignoring webhook for transaction on another Stripe account: id={}, account={}, eventAccount={}",
+                    txOpt.get().getId(), txOpt.get().getStripeAccount(), accountId);
+            return Optional.empty();
+        }
+        return txOpt;
+    }
+
+    private void updateStatus(Transaction tx, PaymentStatus status) {
+        PaymentPhaseEvent update = PaymentPhaseEvent.begin(PaymentPhaseEvent.WEBHOOK_UPDATE);
+        transactionService.updateTransactionStatus(tx.getId(), status, "WEBHOOK_STRIPE");
+        update.end(tx);
+    }
 
     private PaymentIntent extractPaymentIntent(Event event) {
         try {
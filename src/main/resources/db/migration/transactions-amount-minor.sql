@@ -0,0 +1,11 @@
+-- Rows written before transactions.amount_minor existed have it NULL, and the application converts
+-- their amount on every read until the row is next updated. Run once against such a database. Exponents follow CurrencyUnits; amounts with more decimals than their currency are
+-- rounded half away from zero (the application rounds half to even).
+UPDATE transactions
+SET amount_minor = ROUND(amount * CASE
+        WHEN LOWER(currency) IN ('bif', 'clp', 'djf', 'gnf', 'jpy', 'kmf', 'krw', 'mga',
+                                 'pyg', 'rwf', 'ugx', 'vnd', 'vuv', 'xaf', 'xof', 'xpf') THEN 1
+        WHEN LOWER(currency) IN ('bhd', 'jod', 'kwd', 'omr', 'tnd') THEN 1000
+        ELSE 100
+    END)
+WHERE amount_minor IS NULL;
@@ -0,0 +1,4 @@
+-- Hibernate ddl-auto=update does not change the scale of an existing column. Databases created before
+-- amounts became currency-aware have transactions.amount as NUMERIC(19, 2), which rounds three-decimal
+-- currencies (KWD, BHD, ...) on write. Run once against such a database; it rewrites the table.
+ALTER TABLE transactions ALTER COLUMN amount TYPE NUMERIC(19, 3);
@@ -0,0 +1,59 @@
+package com.dev.payment_service.reactive;
+
+import com.dev.payment_service.config.PaymentRateLimitProperties;
+import com.dev.payment_service.config.SchedulingConfig;
+import com.dev.payment_service.config.StripeConfig;
+import com.dev.payment_service.exception.GlobalExceptionHandler;
+import com.dev.payment_service.security.JwtTokenVerifier;
+import com.dev.payment_service.security.JwtUtil;
+import com.dev.payment_service.security.VerifiedTokenCache;
+import com.dev.payment_service.service.LatencyHistograms;
+import com.dev.payment_service.service.PaymentMetrics;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.dev.payment_service.service.StripeRateLimiter;
+import com.dev.payment_service.service.StripeRetryScheduler;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Reactive deployment of the payment API, built with {@code -Preactive}: WebFlux on Netty, R2DBC and
+ * Stripe over a non-blocking WebClient, so a payment waiting on Stripe holds neither a thread nor a
+ * database connection. Serves the same {@code /api/v1/payments} and {@code /api/v1/webhooks} contract
+ * as the servlet deployment and accepts its tokens; registration and login stay there.
+ * <p>
+ * Beans that do not touch JDBC are imported from the servlet deployment rather than copied.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class})
+@EnableConfigurationProperties(PaymentRateLimitProperties.class)
+@Import({
+        StripeConfig.class,
+        StripeAccountRouter.class,
+        StripeRateLimiter.class,
+        StripeRetryScheduler.class,
+        LatencyHistograms.class,
+        PaymentMetrics.class,
+        JwtTokenVerifier.class,
+        JwtUtil.class,
+        VerifiedTokenCache.class,
+        GlobalExceptionHandler.class,
+        SchedulingConfig.class})
+public class ReactivePaymentServiceApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactivePaymentServiceApplication.class)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
@@ -0,0 +1,80 @@
+package com.dev.payment_service.reactive.config;
+
+import com.dev.payment_service.config.PaymentRateLimitProperties;
+import com.dev.payment_service.reactive.security.ReactiveJwtAuthenticationFilter;
+import com.dev.payment_service.reactive.security.ReactivePaymentRateLimitFilter;
+import com.dev.payment_service.reactive.security.ReactiveTokenRevocationService;
+import com.dev.payment_service.security.VerifiedTokenCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/** {@link com.dev.payment_service.config.SecurityConfig} for the reactive deployment. */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    private final ReactiveJwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ReactivePaymentRateLimitFilter paymentRateLimitFilter;
+
+    public ReactiveSecurityConfig(VerifiedTokenCache tokenCache,
+                                  ReactiveTokenRevocationService revocationService,
+                                  PaymentRateLimitProperties rateLimitProperties,
+                                  ObjectMapper objectMapper) {
+        this.jwtAuthenticationFilter = new ReactiveJwtAuthenticationFilter(tokenCache, revocationService);
+        this.paymentRateLimitFilter = new ReactivePaymentRateLimitFilter(rateLimitProperties, objectMapper);
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                // Stateless: the JWT filter authenticates every request
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        // Public endpoints
+                        .pathMatchers("/api/v1/webhooks/**").permitAll()
+
+                        // Health checks and Prometheus scraping
+                        .pathMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+
+                        // Admin-only endpoints
+                        .pathMatchers(HttpMethod.GET, "/api/v1/payments").hasRole("ADMIN")
+
+                        // Customer and Admin
+                        .pathMatchers(HttpMethod.POST, "/api/v1/payments").hasAnyRole("CUSTOMER", "ADMIN")
+                        .pathMatchers(HttpMethod.GET, "/api/v1/payments/{id}").hasAnyRole("CUSTOMER", "ADMIN")
+
+                        // All other requests need authentication
+                        .anyExchange().authenticated()
+                )
+                // Same status as the servlet deployment's default entry point
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN))
+                )
+                .addFilterAt(jwtAuthenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                // After authentication so the user's role selects the limit
+                .addFilterAfter(paymentRateLimitFilter, SecurityWebFiltersOrder.AUTHENTICATION);
+
+        return http.build();
+    }
+
+    @Scheduled(fixedDelayString = "${payments.rate-limit.purge-interval-ms:60000}")
+    public void purgeIdleRateLimitBuckets() {
+        paymentRateLimitFilter.purgeIdleBuckets();
+    }
+}
@@ -0,0 +1,57 @@
+package com.dev.payment_service.reactive.controller;
+
+import com.dev.payment_service.dto.PaymentInitiationRequest;
+import com.dev.payment_service.dto.PaymentInitiationResponse;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.reactive.service.ReactivePaymentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Same contract as {@link com.dev.payment_service.controller.PaymentController}. */
+@RestController
+@RequestMapping("/api/v1/payments")
+@RequiredArgsConstructor
+public class ReactivePaymentController {
+
+    private final ReactivePaymentService paymentService;
+
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    public Mono<ResponseEntity<PaymentInitiationResponse>> initiatePayment(
+            @Valid @RequestBody PaymentInitiationRequest request,
+            @RequestHeader(value = "Idempotency-Key") String idempotencyKey) {
+
+        return paymentService.initiatePayment(request, idempotencyKey)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    public Mono<ResponseEntity<PaymentInitiationResponse>> getPaymentById(@PathVariable Long id) {
+        return paymentService.getPaymentById(id)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<List<PaymentInitiationResponse>>> getAllPayments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount) {
+
+        return paymentService.getAllPayments(status, startDate, endDate, minAmount, maxAmount)
+                .map(ResponseEntity::ok);
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.dev.payment_service.reactive.controller;
+
+import com.dev.payment_service.config.StripeAccount;
+import com.dev.payment_service.reactive.service.ReactiveWebhookService;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/** Same contract as {@link com.dev.payment_service.controller.WebhookController}. */
+@RestController
+@RequestMapping("/api/v1/webhooks")
+@RequiredArgsConstructor
+public class ReactiveWebhookController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveWebhookController.class);
+
+    private final ReactiveWebhookService webhookService;
+    private final ObjectMapper objectMapper;
+    private final StripeAccountRouter accountRouter;
+
+    @PostMapping("/payment")
+    public Mono<ResponseEntity<String>> handleStripeWebhook(
+            @RequestBody String payload,
+            @RequestHeader("Stripe-Signature") String sigHeader) {
+
+        return handleWebhook(accountRouter.primary(), payload, sigHeader);
+    }
+
+    @PostMapping("/payment/{accountId}")
+    public Mono<ResponseEntity<String>> handleStripeAccountWebhook(
+            @PathVariable String accountId,
+            @RequestBody String payload,
+            @RequestHeader("Stripe-Signature") String sigHeader) {
+
+        StripeAccount account;
+        try {
+            account = accountRouter.get(accountId);
+        } catch (IllegalStateException e) {
+            log.error("Webhook received for unknown Stripe account: {}", accountId);
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Unknown account"));
+        }
+        return handleWebhook(account, payload, sigHeader);
+    }
+
+    private Mono<ResponseEntity<String>> handleWebhook(StripeAccount account, String payload, String sigHeader) {
+
+        log.info("Received Stripe webhook event: account={}", account.id());
+        String webhookSecret = account.webhookSecret();
+
+        Event event;
+
+        // Verify webhook signature for security (production)
+        if (webhookSecret != null && !webhookSecret.isEmpty()) {
+            try {
+                event = Webhook.constructEvent(payload, sigHeader, webhookSecret);
+                log.info("Webhook signature verified successfully");
+            } catch (SignatureVerificationException e) {
+                log.error("Invalid webhook signature: {}", e.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid signature"));
+            }
+        } else {
+            // For development/testing parse without signature verification
+            log.warn("Webhook secret not configured - skipping signature verification (NOT SAFE FOR PRODUCTION!)");
+            try {
+                event = objectMapper.readValue(payload, Event.class);
+            } catch (Exception e) {
+                log.error("Failed to parse webhook payload: {}", e.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid payload"));
+            }
+        }
+
+        return webhookService.handleWebhookEvent(event, account.id())
+                .then(Mono.fromSupplier(() -> {
+                    log.info("Webhook event processed successfully: type={}, id={}", event.getType(), event.getId());
+                    return ResponseEntity.ok("Webhook received");
+                }))
+                .onErrorResume(e -> {
+                    log.error("Error processing webhook event: type={}, id={}, error={}",
+                            event.getType(), event.getId(), e.getMessage(), e);
+
+                    // Return 200 anyway to prevent Stripe from retrying
+                    return Mono.just(ResponseEntity.ok("Webhook received but processing failed"));
+                });
+    }
+}
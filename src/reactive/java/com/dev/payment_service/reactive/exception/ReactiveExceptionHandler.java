@@ -0,0 +1,118 @@
+package com.dev.payment_service.reactive.exception;
+
+import com.dev.payment_service.exception.GlobalExceptionHandler;
+import com.dev.payment_service.exception.GlobalExceptionHandler.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.MissingRequestValueException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WebFlux reports binding failures with its own exception types; these map them to the responses
+ * {@link GlobalExceptionHandler} gives on the servlet stack. Everything else falls through to it.
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ReactiveExceptionHandler {
+
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(WebExchangeBindException ex) {
+
+        List<String> errorMessages = new ArrayList<>();
+
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errorMessages.add(fieldName + ": " + errorMessage);
+        });
+
+        log.warn("Validation error: {}", errorMessages);
+        return badRequest("Validation Failed", "Invalid input parameters: " + String.join(", ", errorMessages));
+    }
+
+
+    @ExceptionHandler(MissingRequestValueException.class)
+    public ResponseEntity<ErrorResponse> handleMissingRequestValue(MissingRequestValueException ex) {
+
+        log.warn("Missing required {}: {}", ex.getLabel(), ex.getName());
+        if ("header".equals(ex.getLabel())) {
+            return badRequest("Missing Required Header", String.format("Required header '%s' is missing", ex.getName()));
+        }
+        return badRequest("Bad Request", ex.getReason());
+    }
+
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInput(ServerWebInputException ex) {
+
+        if (ex.getCause() instanceof TypeMismatchException mismatch) {
+            String parameterName = ex.getMethodParameter() != null ? ex.getMethodParameter().getParameterName() : mismatch.getPropertyName();
+            String requiredType = mismatch.getRequiredType() != null ? mismatch.getRequiredType().getSimpleName() : "unknown";
+            String providedValue = mismatch.getValue() != null ? mismatch.getValue().toString() : "null";
+
+            log.warn("Type mismatch for parameter '{}': expected {}, got '{}'",
+                    parameterName, requiredType, providedValue);
+            return badRequest("Invalid Parameter Type", String.format("Invalid value '%s' for parameter '%s'. Expected type: %s",
+                    providedValue, parameterName, requiredType));
+        }
+
+        log.warn("Invalid request input: {}", ex.getReason());
+        return badRequest("Bad Request", ex.getReason());
+    }
+
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAccessDenied(AccessDeniedException ex) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.FORBIDDEN.value())
+                .error("Forbidden")
+                .message(ex.getMessage())
+                .build();
+
+        log.warn("Access denied: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+    }
+
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatus(ResponseStatusException ex) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(ex.getStatusCode().value())
+                .error(ex.getStatusCode().toString())
+                .message(ex.getReason())
+                .build();
+
+        log.warn("Request failed: {}", ex.getMessage());
+        return ResponseEntity.status(ex.getStatusCode()).body(errorResponse);
+    }
+
+    private static ResponseEntity<ErrorResponse> badRequest(String error, String message) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(error)
+                .message(message)
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+}
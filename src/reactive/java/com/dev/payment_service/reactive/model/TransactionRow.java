@@ -0,0 +1,81 @@
+package com.dev.payment_service.reactive.model;
+
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.model.CurrencyUnits;
+import com.dev.payment_service.model.Money;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * R2DBC mapping of the {@code transactions} table written by {@link com.dev.payment_service.model.Transaction},
+ * with the same columns and the same minor-unit semantics. Audit fields are set by the caller; there are
+ * no entity callbacks.
+ */
+@Table("transactions")
+@NoArgsConstructor
+@Setter
+@Getter
+public class TransactionRow {
+
+    @Id
+    private Long id;
+
+    private BigDecimal amount;
+
+    // Authoritative amount in the currency's minor units; null only on rows written before the column existed
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Long amountMinor;
+
+    private String transactionReference;
+
+    private PaymentMethod paymentMethod;
+
+    private PaymentStatus status;
+
+    private String idempotencyKey;
+
+    private String currency;
+
+    private String providerReferenceId;
+
+    private String provider;
+
+    private String stripeAccount;
+
+    private String paymentMethodRef;
+
+    private String createdBy;
+
+    private String lastModifiedBy;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public long getAmountMinor() {
+        if (amountMinor == null) {
+            amountMinor = CurrencyUnits.toMinor(amount, currency, RoundingMode.HALF_EVEN);
+        }
+        return amountMinor;
+    }
+
+    public Money getMoney() {
+        return new Money(getAmountMinor(), currency);
+    }
+
+    public void setMoney(Money money) {
+        this.amountMinor = money.minorUnits();
+        this.amount = money.toBigDecimal();
+        this.currency = money.currency();
+    }
+}
@@ -0,0 +1,14 @@
+package com.dev.payment_service.reactive.repository;
+
+import com.dev.payment_service.reactive.model.TransactionRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/** R2DBC counterpart of {@link com.dev.payment_service.repository.TransactionRepository}. */
+@Repository
+public interface ReactiveTransactionRepository extends R2dbcRepository<TransactionRow, Long> {
+    Mono<TransactionRow> findByIdempotencyKey(String idempotencyKey);
+
+    Mono<TransactionRow> findByProviderReferenceId(String providerReferenceId);
+}
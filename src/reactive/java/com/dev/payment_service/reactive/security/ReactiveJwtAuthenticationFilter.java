@@ -0,0 +1,67 @@
+package com.dev.payment_service.reactive.security;
+
+import com.dev.payment_service.security.VerifiedTokenCache;
+import com.dev.payment_service.security.VerifiedTokenCache.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link com.dev.payment_service.security.JwtAuthenticationFilter} for WebFlux, claims-only: the
+ * reactive deployment has no blocking user lookup. Not a bean, since WebFlux would also register it
+ * outside the security chain.
+ */
+@RequiredArgsConstructor
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveJwtAuthenticationFilter.class);
+
+    private final VerifiedTokenCache tokenCache;
+    private final ReactiveTokenRevocationService revocationService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        // Skip JWT authentication for public endpoints
+        String path = exchange.getRequest().getPath().value();
+        if (path.startsWith("/api/v1/auth/") || path.startsWith("/api/v1/webhooks/")) {
+            return chain.filter(exchange);
+        }
+
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        // Verified at most once per distinct token; repeat requests are a digest lookup
+        VerifiedToken token = null;
+
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            String jwt = authorizationHeader.substring(7);
+            try {
+                token = tokenCache.resolve(jwt);
+            } catch (Exception e) {
+                log.error("Error parsing JWT: {}", e.getMessage());
+            }
+        }
+
+        if (token == null || token.username() == null) {
+            return chain.filter(exchange);
+        }
+        if (revocationService.isRevoked(token.username(), token.tokenVersion())) {
+            log.warn("Rejected revoked JWT for user: {}", token.username());
+            return chain.filter(exchange);
+        }
+
+        UserDetails userDetails = token.principal();
+        UsernamePasswordAuthenticationToken authenticationToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authenticationToken));
+    }
+}
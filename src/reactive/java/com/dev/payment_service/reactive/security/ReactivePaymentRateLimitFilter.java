@@ -0,0 +1,134 @@
+package com.dev.payment_service.reactive.security;
+
+import com.dev.payment_service.config.PaymentRateLimitProperties;
+import com.dev.payment_service.exception.GlobalExceptionHandler.ErrorResponse;
+import com.dev.payment_service.security.PaymentRateLimitFilter;
+import com.dev.payment_service.security.PaymentRateLimitFilter.Bucket;
+import com.dev.payment_service.security.PaymentRateLimitFilter.Decision;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link PaymentRateLimitFilter} for WebFlux, sharing its buckets and per-role limits. Not a bean,
+ * since WebFlux would also register it outside the security chain.
+ */
+@RequiredArgsConstructor
+public class ReactivePaymentRateLimitFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactivePaymentRateLimitFilter.class);
+
+    private static final String PAYMENTS_PATH = "/api/v1/payments";
+
+    private final PaymentRateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> userBuckets = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled()
+                || !HttpMethod.POST.equals(request.getMethod())
+                || !PAYMENTS_PATH.equals(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> {
+                    long now = System.nanoTime();
+                    String ip = remoteAddress(request);
+                    Decision decision = bucket(ipBuckets, ip, properties.getIp()).tryAcquire(now);
+
+                    Authentication auth = authentication.orElse(null);
+                    if (decision.allowed() && auth != null && auth.isAuthenticated()) {
+                        PaymentRateLimitProperties.Limit limit = PaymentRateLimitFilter.limitFor(properties, auth);
+                        if (limit != null) {
+                            Decision userDecision = bucket(userBuckets, auth.getName(), limit).tryAcquire(now);
+                            decision = userDecision.allowed() && decision.remaining() < userDecision.remaining()
+                                    ? decision : userDecision;
+                        }
+                    }
+
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.getHeaders().set("RateLimit-Limit", String.valueOf(decision.limit()));
+                    response.getHeaders().set("RateLimit-Remaining", String.valueOf(decision.remaining()));
+                    response.getHeaders().set("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+
+                    if (decision.allowed()) {
+                        return chain.filter(exchange);
+                    }
+
+                    log.warn("Payment rate limit exceeded: user={}, ip={}", auth != null ? auth.getName() : null, ip);
+                    return reject(response, decision.retryAfterSeconds());
+                });
+    }
+
+    /** Drops buckets that have refilled completely; they are indistinguishable from new ones. */
+    public void purgeIdleBuckets() {
+        long now = System.nanoTime();
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public int trackedBuckets() {
+        return ipBuckets.size() + userBuckets.size();
+    }
+
+    private static Bucket bucket(Map<String, Bucket> buckets, String key, PaymentRateLimitProperties.Limit limit) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(limit.getRequestsPerMinute(), limit.getBurst()));
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, long retryAfterSeconds) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("Payment rate limit exceeded. Retry after " + retryAfterSeconds + "s")
+                .build();
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(errorResponse);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.dev.payment_service.reactive.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read side of {@link com.dev.payment_service.security.TokenRevocationService}: picks up the token
+ * versions the servlet deployment writes, on the same refresh interval. Revoking stays there.
+ */
+@Service
+@RequiredArgsConstructor
+@DependsOnDatabaseInitialization
+public class ReactiveTokenRevocationService {
+
+    private final DatabaseClient databaseClient;
+
+    private final Map<String, Long> currentVersions = new ConcurrentHashMap<>();
+
+    // Blocks the scheduler thread, never a request thread
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:30000}",
+            initialDelayString = "${jwt.revocation.refresh-ms:30000}")
+    public void refresh() {
+        databaseClient.sql("SELECT username, token_version FROM users WHERE token_version > 0")
+                .map(row -> Map.entry(row.get("username", String.class), row.get("token_version", Long.class)))
+                .all()
+                .doOnNext(entry -> currentVersions.merge(entry.getKey(), entry.getValue(), Math::max))
+                .blockLast();
+    }
+
+    public boolean isRevoked(String username, long tokenVersion) {
+        Long current = currentVersions.get(username);
+        return current != null && tokenVersion < current;
+    }
+
+    public int trackedUsers() {
+        return currentVersions.size();
+    }
+}
@@ -0,0 +1,343 @@
+package com.dev.payment_service.reactive.service;
+
+import com.dev.payment_service.dto.BankTransferDetails;
+import com.dev.payment_service.dto.CreditCardDetails;
+import com.dev.payment_service.dto.PaymentInitiationRequest;
+import com.dev.payment_service.dto.PaymentInitiationResponse;
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import com.dev.payment_service.model.CurrencyUnits;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.reactive.model.TransactionRow;
+import com.dev.payment_service.reactive.repository.ReactiveTransactionRepository;
+import com.dev.payment_service.service.PaymentMetrics;
+import com.dev.payment_service.service.PaymentService;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.dev.payment_service.service.StripeRetryScheduler;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Payment initiation on R2DBC. Unlike {@link PaymentService} nothing spans the Stripe call: the PENDING
+ * row is committed first and the Stripe result applied in a second statement, so a payment in flight
+ * holds no connection. The row is already visible while Stripe answers, PENDING and marked
+ * {@link PaymentService#IN_FLIGHT_REFERENCE}, with the PaymentMethod id the request used. The Stripe
+ * call and the update after it run to the end even if the client goes away; when the instance itself
+ * goes, {@link ReactiveReconciliationService} replays the call under the same idempotency key.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactivePaymentService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactivePaymentService.class);
+
+
+    private final ReactiveTransactionRepository transactionRepository;
+    private final R2dbcEntityTemplate template;
+    private final ReactiveStripeService stripeService;
+    private final StripeRetryScheduler retryScheduler;
+    private final StripeAccountRouter accountRouter;
+    private final PaymentMetrics paymentMetrics;
+
+    public Mono<PaymentInitiationResponse> initiatePayment(PaymentInitiationRequest request, String idempotencyKey) {
+
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Idempotency-Key header is required and cannot be empty"));
+        }
+
+        return transactionRepository.findByIdempotencyKey(idempotencyKey)
+                .doOnNext(existing -> log.info("Duplicate request detected with idempotency key: {}", idempotencyKey))
+                .switchIfEmpty(Mono.defer(() -> create(request, idempotencyKey)))
+                .map(ReactivePaymentService::mapResponse);
+    }
+
+    public Mono<PaymentInitiationResponse> getPaymentById(Long id) {
+        return transactionRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Payment not found with id: " + id)))
+                .map(ReactivePaymentService::mapResponse);
+    }
+
+    public Mono<List<PaymentInitiationResponse>> getAllPayments(
+            PaymentStatus status,
+            String startDateStr,
+            String endDateStr,
+            BigDecimal minAmount,
+            BigDecimal maxAmount) {
+
+        return Mono.defer(() -> {
+            LocalDate startDate = parseDate("startDate", startDateStr);
+            LocalDate endDate = parseDate("endDate", endDateStr);
+
+            // Status and dates filter in the query; amounts compare per currency exponent below
+            Criteria criteria = Criteria.empty();
+            if (status != null) {
+                criteria = criteria.and("status").is(status.name());
+            }
+            if (startDate != null) {
+                criteria = criteria.and("createdAt").greaterThanOrEquals(startDate.atStartOfDay().toInstant(ZoneOffset.UTC));
+            }
+            if (endDate != null) {
+                criteria = criteria.and("createdAt").lessThan(endDate.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+            }
+
+            long[] minMinor = minAmount != null ? CurrencyUnits.boundsByExponent(minAmount, RoundingMode.CEILING) : null;
+            long[] maxMinor = maxAmount != null ? CurrencyUnits.boundsByExponent(maxAmount, RoundingMode.FLOOR) : null;
+
+            return template.select(TransactionRow.class)
+                    .matching(Query.query(criteria).sort(Sort.by("id")))
+                    .all()
+                    .filter(row -> withinAmount(row, minMinor, maxMinor))
+                    .map(ReactivePaymentService::mapResponse)
+                    .collectList();
+        });
+    }
+
+    private Mono<TransactionRow> create(PaymentInitiationRequest request, String idempotencyKey) {
+        return currentMerchant().flatMap(merchant -> {
+            Instant now = Instant.now();
+            TransactionRow tx = new TransactionRow();
+            tx.setMoney(Money.of(request.getAmount(), request.getCurrency().toLowerCase()));
+            tx.setPaymentMethod(request.getPaymentMethod());
+            tx.setStatus(PaymentStatus.PENDING);
+            tx.setProvider("STRIPE");
+            tx.setTransactionReference(generateTransactionReference());
+            tx.setCreatedAt(now);
+            tx.setUpdatedAt(now);
+            tx.setIdempotencyKey(idempotencyKey);
+            tx.setCreatedBy(merchant.orElse(null));
+            tx.setLastModifiedBy(merchant.orElse(null));
+            tx.setStripeAccount(accountRouter.select(tx.getCurrency(), merchant.orElse(null), idempotencyKey));
+            tx.setProviderReferenceId(PaymentService.IN_FLIGHT_REFERENCE);
+            if (request.getDetails() instanceof CreditCardDetails cardDetails) {
+                tx.setPaymentMethodRef(cardDetails.getPaymentMethodId());
+            }
+
+            return transactionRepository.save(tx)
+                    .doOnNext(saved -> {
+                        paymentMetrics.recordTransition(null, PaymentStatus.PENDING);
+                        log.info("Transaction created: id={}, reference={}, method={}",
+                                saved.getId(), saved.getTransactionReference(), saved.getPaymentMethod());
+                    })
+                    .flatMap(saved -> process(saved, request, idempotencyKey));
+        })
+                // A concurrent request with the same key won the insert; answer with its row
+                .onErrorResume(DataIntegrityViolationException.class, e -> transactionRepository.findByIdempotencyKey(idempotencyKey)
+                        .switchIfEmpty(Mono.error(e)));
+    }
+
+    private Mono<TransactionRow> process(TransactionRow tx, PaymentInitiationRequest request, String idempotencyKey) {
+        Supplier<Mono<PaymentIntent>> call;
+        String label;
+        if (request.getPaymentMethod() == PaymentMethod.CREDIT_CARD) {
+            if (!(request.getDetails() instanceof CreditCardDetails cardDetails)) {
+                log.error("Invalid card details for transaction: {}", tx.getId());
+                return fail(tx, "INVALID_CARD_DETAILS");
+            }
+            call = () -> stripeService.processCreditCardPayment(tx.getStripeAccount(), tx.getMoney(), cardDetails, idempotencyKey);
+            label = "Card";
+        } else if (request.getPaymentMethod() == PaymentMethod.BANK_TRANSFER) {
+            if (!(request.getDetails() instanceof BankTransferDetails bankDetails)) {
+                log.error("Invalid bank details for transaction: {}", tx.getId());
+                return fail(tx, "INVALID_BANK_DETAILS");
+            }
+            call = () -> stripeService.processBankTransferPayment(tx.getStripeAccount(), tx.getMoney(), bankDetails,
+                    idempotencyKey, paymentMethodId -> recordPaymentMethod(tx, paymentMethodId));
+            label = "Bank";
+        } else {
+            return Mono.just(tx);
+        }
+
+        Instant firstAttempt = Instant.now();
+        Mono<TransactionRow> outcome = call.get()
+                .flatMap(intent -> applyIntent(tx, intent, label))
+                .onErrorResume(StripeException.class, e -> {
+                    if (retryScheduler.isRetryable(e)) {
+                        return scheduleRetry(tx, call, firstAttempt, label, e);
+                    }
+                    String errorCode = e.getCode() != null ? e.getCode() : "UNKNOWN";
+                    log.error("Stripe error processing {} payment: transactionId={}, errorCode={}, errorMessage={}, stripeCode={}",
+                            label.toLowerCase(), tx.getId(), errorCode, e.getMessage(),
+                            e.getStripeError() != null ? e.getStripeError().getCode() : "null", e);
+                    return fail(tx, "STRIPE_ERROR:" + errorCode);
+                })
+                // The servlet deployment rolls the insert back on these; here it is already committed
+                .onErrorResume(e -> e instanceof IllegalArgumentException || e instanceof GatewayRateLimitException,
+                        e -> transactionRepository.delete(tx).then(Mono.error(e)))
+                .cache();
+        // Started here rather than by the caller, so a client disconnect cancels only the caller's
+        // subscription. Errors also reach a caller that is still there, but nobody else sees them once it has gone
+        outcome.subscribe(saved -> { }, error -> log.warn("{} payment processing failed: transactionId={}",
+                label, tx.getId(), error));
+        return outcome;
+    }
+
+    /** Saved before the PaymentIntent is requested, so the reconciler can replay a SEPA payment. */
+    private Mono<Long> recordPaymentMethod(TransactionRow tx, String paymentMethodId) {
+        if (paymentMethodId.equals(tx.getPaymentMethodRef())) {
+            return Mono.empty();
+        }
+        return template.update(TransactionRow.class)
+                .matching(Query.query(Criteria.where("id").is(tx.getId())))
+                .apply(Update.update("paymentMethodRef", paymentMethodId))
+                .doOnNext(updated -> tx.setPaymentMethodRef(paymentMethodId));
+    }
+
+    private Mono<TransactionRow> applyIntent(TransactionRow tx, PaymentIntent intent, String label) {
+        tx.setProviderReferenceId(intent.getId());
+        tx.setStatus(PaymentService.mapStripeStatus(intent.getStatus()));
+        switch (tx.getStatus()) {
+            case COMPLETED -> log.info("{} payment succeeded: transactionId={}, stripeId={}", label, tx.getId(), intent.getId());
+            case PENDING -> log.info("{} payment pending: transactionId={}, stripeStatus={}", label, tx.getId(), intent.getStatus());
+            default -> log.warn("{} payment failed: transactionId={}, stripeStatus={}", label, tx.getId(), intent.getStatus());
+        }
+        return update(tx);
+    }
+
+    private Mono<TransactionRow> fail(TransactionRow tx, String providerReference) {
+        tx.setStatus(PaymentStatus.FAILED);
+        tx.setProviderReferenceId(providerReference);
+        return update(tx);
+    }
+
+    /**
+     * Leaves the row PENDING and hands further attempts to the retry scheduler. Its threads repeat the
+     * cold publisher and block on it, which costs a scheduler thread per attempt rather than per request.
+     */
+    private Mono<TransactionRow> scheduleRetry(TransactionRow tx, Supplier<Mono<PaymentIntent>> call,
+                                               Instant firstAttempt, String label, StripeException cause) {
+        Long transactionId = tx.getId();
+        tx.setProviderReferenceId(PaymentService.RETRY_PENDING_REFERENCE);
+        log.warn("Transient Stripe error, payment queued for retry: transactionId={}, errorCode={}, statusCode={}",
+                transactionId, cause.getCode(), cause.getStatusCode());
+
+        return update(tx).doOnNext(saved -> retryScheduler.retry(label + " payment " + transactionId, firstAttempt, () -> await(call.get()),
+                (intent, error) -> {
+                    if (error == null) {
+                        updateProviderResult(transactionId, intent.getId(),
+                                PaymentService.mapStripeStatus(intent.getStatus()));
+                        return;
+                    }
+                    String errorCode = error instanceof StripeException se && se.getCode() != null
+                            ? se.getCode() : "RETRY_EXHAUSTED";
+                    updateProviderResult(transactionId, "STRIPE_ERROR:" + errorCode, PaymentStatus.FAILED);
+                    log.error("{} payment failed after retries: transactionId={}, errorCode={}",
+                            label, transactionId, errorCode, error);
+                }));
+    }
+
+    private void updateProviderResult(Long transactionId, String providerReferenceId, PaymentStatus newStatus) {
+        transactionRepository.findById(transactionId)
+                .flatMap(tx -> {
+                    PaymentStatus from = tx.getStatus();
+                    tx.setProviderReferenceId(providerReferenceId);
+                    tx.setStatus(newStatus);
+                    tx.setUpdatedAt(Instant.now());
+                    tx.setLastModifiedBy(PaymentService.RETRY_MODIFIED_BY);
+                    return transactionRepository.save(tx).doOnNext(saved -> paymentMetrics.recordTransition(from, newStatus));
+                })
+                .subscribe(
+                        saved -> log.info("User {} modified transaction: ID={}, Reference={}, ProviderReference={}, NewStatus={}",
+                                PaymentService.RETRY_MODIFIED_BY, saved.getId(), saved.getTransactionReference(),
+                                providerReferenceId, newStatus),
+                        error -> log.error("Failed to record Stripe retry result: transactionId={}", transactionId, error));
+    }
+
+    private Mono<TransactionRow> update(TransactionRow tx) {
+        tx.setUpdatedAt(Instant.now());
+        return transactionRepository.save(tx)
+                .doOnNext(saved -> {
+                    paymentMetrics.recordTransition(PaymentStatus.PENDING, saved.getStatus());
+                    log.info("User {} modified transaction: ID={}, Reference={}, Status={}",
+                            saved.getLastModifiedBy(), saved.getId(), saved.getTransactionReference(), saved.getStatus());
+                });
+    }
+
+    private static PaymentIntent await(Mono<PaymentIntent> call) throws StripeException {
+        try {
+            return call.block();
+        } catch (RuntimeException e) {
+            if (Exceptions.unwrap(e) instanceof StripeException stripeException) {
+                throw stripeException;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean withinAmount(TransactionRow row, long[] minMinor, long[] maxMinor) {
+        if (minMinor == null && maxMinor == null) {
+            return true;
+        }
+        int exponent = CurrencyUnits.exponent(row.getCurrency());
+        long amountMinor = row.getAmountMinor();
+        return (minMinor == null || amountMinor >= minMinor[exponent])
+                && (maxMinor == null || amountMinor <= maxMinor[exponent]);
+    }
+
+    private static LocalDate parseDate(String name, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (Exception e) {
+            log.error("Invalid {} format received: '{}'. Error: {}. Expected format: yyyy-MM-dd (e.g., 2025-11-24)",
+                    name, value, e.getMessage());
+            throw new IllegalArgumentException(
+                    String.format("Invalid %s format: '%s'. Expected format: yyyy-MM-dd (e.g., 2025-11-24)", name, value));
+        }
+    }
+
+    static PaymentInitiationResponse mapResponse(TransactionRow transaction) {
+        PaymentInitiationResponse response = new PaymentInitiationResponse();
+        response.setTransactionId(transaction.getId().toString());
+        response.setTransactionReference(transaction.getTransactionReference());
+        response.setAmount(CurrencyUnits.toMajor(transaction.getAmountMinor(), transaction.getCurrency()));
+        response.setCurrency(transaction.getCurrency());
+        response.setStatus(transaction.getStatus().name());
+        response.setCreatedAt(transaction.getCreatedAt());
+        response.setProvider(transaction.getProvider());
+        response.setPaymentMethod(transaction.getPaymentMethod().name());
+        response.setProviderReferenceId(transaction.getProviderReferenceId());
+        return response;
+    }
+
+    /** Authenticated caller, used as the merchant key for Stripe account routing and recorded as the row's author. */
+    private static Mono<Optional<String>> currentMerchant() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getName)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    private static String generateTransactionReference() {
+        return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
@@ -0,0 +1,118 @@
+package com.dev.payment_service.reactive.service;
+
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import com.dev.payment_service.reactive.model.TransactionRow;
+import com.dev.payment_service.service.PaymentMetrics;
+import com.dev.payment_service.service.PaymentService;
+import com.dev.payment_service.service.ReconciliationService;
+import com.stripe.exception.StripeException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The replay half of {@link ReconciliationService} for the reactive deployment: PENDING rows left
+ * {@link PaymentService#IN_FLIGHT_REFERENCE} or {@link PaymentService#RETRY_PENDING_REFERENCE} by an
+ * instance that stopped before recording the Stripe result are sent again under their idempotency
+ * key, on the same reconciliation.* settings. Rows with a PaymentIntent id are left to webhooks.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveReconciliationService.class);
+
+    private static final String MODIFIED_BY = "RECONCILIATION";
+
+    private final R2dbcEntityTemplate template;
+    private final ReactiveStripeService stripeService;
+    private final PaymentMetrics paymentMetrics;
+
+    @Value("${reconciliation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reconciliation.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${reconciliation.batch-size:100}")
+    private int batchSize;
+
+    // Blocks the scheduler thread, never a request thread
+    @Scheduled(fixedDelayString = "${reconciliation.interval-ms:60000}",
+            initialDelayString = "${reconciliation.interval-ms:60000}")
+    public void reconcileStrandedPayments() {
+        if (!enabled) {
+            return;
+        }
+        resumeStranded(Instant.now().minus(Duration.ofMillis(staleAfterMs))).block();
+    }
+
+    /** Replays unresolved rows last updated before {@code updatedBefore}; emits how many were settled. */
+    public Mono<Long> resumeStranded(Instant updatedBefore) {
+        Query query = Query.query(Criteria.where("status").is(PaymentStatus.PENDING.name())
+                        .and("providerReferenceId").in(ReconciliationService.UNRESOLVED_REFERENCES)
+                        .and("updatedAt").lessThan(updatedBefore))
+                .sort(Sort.by("updatedAt"))
+                .limit(batchSize);
+
+        return template.select(TransactionRow.class)
+                .matching(query)
+                .all()
+                .concatMap(this::resume)
+                .count()
+                .onErrorResume(GatewayRateLimitException.class, e -> {
+                    log.info("Reconciliation paused by Stripe rate limiter, resuming next run");
+                    return Mono.just(0L);
+                });
+    }
+
+    private Mono<TransactionRow> resume(TransactionRow tx) {
+        return Mono.defer(() -> {
+            String paymentMethodId = tx.getPaymentMethodRef();
+            if (paymentMethodId == null) {
+                // The SEPA PaymentMethod was never recorded, so no PaymentIntent was requested
+                log.error("Stranded payment has no payment method, marking failed: id={}", tx.getId());
+                return settle(tx, "STRIPE_ERROR:RETRY_ABANDONED", PaymentStatus.FAILED);
+            }
+            return stripeService.replayPaymentIntent(tx.getStripeAccount(),
+                            ReconciliationService.replayParams(tx.getPaymentMethod(), tx.getMoney(), paymentMethodId),
+                            tx.getIdempotencyKey())
+                    .flatMap(intent -> settle(tx, intent.getId(), PaymentService.mapStripeStatus(intent.getStatus())));
+        })
+                .onErrorResume(StripeException.class, e -> {
+                    // Left as is; the next run tries again
+                    log.warn("Failed to resume payment: id={}, errorCode={}", tx.getId(), e.getCode());
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> !(e instanceof GatewayRateLimitException), e -> {
+                    log.error("Failed to resume payment: id={}, account={}", tx.getId(), tx.getStripeAccount(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<TransactionRow> settle(TransactionRow tx, String providerReferenceId, PaymentStatus status) {
+        PaymentStatus from = tx.getStatus();
+        tx.setProviderReferenceId(providerReferenceId);
+        tx.setStatus(status);
+        tx.setUpdatedAt(Instant.now());
+        tx.setLastModifiedBy(MODIFIED_BY);
+        return template.update(tx)
+                .doOnNext(saved -> {
+                    paymentMetrics.recordTransition(from, status);
+                    log.info("Stranded payment settled: id={}, providerReference={}, status={}",
+                            saved.getId(), providerReferenceId, status);
+                });
+    }
+}
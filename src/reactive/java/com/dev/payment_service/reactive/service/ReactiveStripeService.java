@@ -0,0 +1,236 @@
+package com.dev.payment_service.reactive.service;
+
+import com.dev.payment_service.config.StripeAccount;
+import com.dev.payment_service.config.StripeProperties;
+import com.dev.payment_service.dto.BankTransferDetails;
+import com.dev.payment_service.dto.CreditCardDetails;
+import com.dev.payment_service.enums.GatewayPriority;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.service.LatencyHistograms;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.dev.payment_service.service.StripeRateLimiter;
+import com.dev.payment_service.service.StripeService;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.stripe.Stripe;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.AuthenticationException;
+import com.stripe.exception.CardException;
+import com.stripe.exception.IdempotencyException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.PermissionException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.PaymentMethod;
+import com.stripe.model.StripeError;
+import com.stripe.model.StripeObject;
+import com.stripe.net.ApiRequestParams;
+import com.stripe.net.ApiResource;
+import com.stripe.net.FormEncoder;
+import com.stripe.param.PaymentIntentCreateParams;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * The Stripe calls of {@link StripeService} as publishers on a non-blocking WebClient: same request
+ * parameters, idempotency keys, rate limiter and latency series. The stripe-java client blocks a thread
+ * per call, so requests are form-encoded and responses parsed with the SDK's own encoder and Gson, and
+ * error responses become the {@link StripeException} subclasses the SDK would throw.
+ * <p>
+ * Every returned publisher is cold and repeats the request on each subscription, which is how
+ * {@link com.dev.payment_service.service.StripeRetryScheduler} retries it under the same idempotency key.
+ */
+@Service
+public class ReactiveStripeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveStripeService.class);
+
+    private static final String PAYMENT_INTENTS = "/v1/payment_intents";
+    private static final String PAYMENT_METHODS = "/v1/payment_methods";
+
+    private final ConnectionProvider connections;
+    private final WebClient webClient;
+    private final StripeRateLimiter rateLimiter;
+    private final StripeAccountRouter accountRouter;
+    private final LatencyHistograms latencyHistograms;
+
+    public ReactiveStripeService(
+            WebClient.Builder webClientBuilder,
+            StripeProperties properties,
+            StripeRateLimiter rateLimiter,
+            StripeAccountRouter accountRouter,
+            LatencyHistograms latencyHistograms,
+            @Value("${stripe.reactive.max-connections:500}") int maxConnections,
+            @Value("${stripe.reactive.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${stripe.reactive.connect-timeout:30s}") Duration connectTimeout,
+            @Value("${stripe.reactive.response-timeout:80s}") Duration responseTimeout) {
+
+        // Dedicated pool: each payment in flight holds one connection for the length of its Stripe call
+        this.connections = ConnectionProvider.builder("stripe")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .build();
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+
+        String apiBase = properties.getApiBase() != null && !properties.getApiBase().isBlank()
+                ? properties.getApiBase() : Stripe.LIVE_API_BASE;
+        this.webClient = webClientBuilder
+                .baseUrl(apiBase)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader("Stripe-Version", Stripe.API_VERSION)
+                .build();
+        this.rateLimiter = rateLimiter;
+        this.accountRouter = accountRouter;
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    public Mono<PaymentIntent> processCreditCardPayment(String accountId, Money amount,
+                                                        CreditCardDetails cardDetails,
+                                                        String idempotencyKey) {
+        return Mono.defer(() -> {
+            // Use Stripe test token (paymentMethodId) - NEVER accept raw card numbers
+            String paymentMethodId = cardDetails.getPaymentMethodId();
+            if (paymentMethodId == null || paymentMethodId.isEmpty()) {
+                throw new IllegalArgumentException("Payment method ID is required. Use Stripe test tokens like 'pm_card_visa'");
+            }
+
+            StripeAccount account = accountRouter.get(accountId);
+            rateLimiter.tryAcquire(account.id(), GatewayPriority.LIVE, 1);
+            log.info("Creating PaymentIntent: account={}, amount={} minor units, currency={}, paymentMethodId={}, idempotencyKey={}",
+                    account.id(), amount.minorUnits(), amount.currency(), paymentMethodId, idempotencyKey);
+
+            return post(account, PAYMENT_INTENTS, StripeService.cardPaymentIntentParams(amount, paymentMethodId),
+                    idempotencyKey, PaymentIntent.class, StripeService.CREATE_PAYMENT_INTENT);
+        })
+                .doOnNext(intent -> log.info("Payment Intent created successfully: id={}, status={}", intent.getId(), intent.getStatus()))
+                .doOnError(StripeException.class, e -> log.error("Failed to create PaymentIntent: errorCode={}, message={}, statusCode={}, requestId={}",
+                        e.getCode(), e.getMessage(), e.getStatusCode(), e.getRequestId()));
+    }
+
+    /** Process bank transfer payment through Stripe SEPA Direct Debit */
+    public Mono<PaymentIntent> processBankTransferPayment(String accountId, Money amount,
+                                                          BankTransferDetails bankDetails,
+                                                          String idempotencyKey) {
+        return processBankTransferPayment(accountId, amount, bankDetails, idempotencyKey, paymentMethodId -> Mono.empty());
+    }
+
+    /**
+     * As above, subscribing to {@code paymentMethodCreated} with the SEPA PaymentMethod id before the
+     * PaymentIntent is requested; its error fails the payment without one.
+     */
+    public Mono<PaymentIntent> processBankTransferPayment(String accountId, Money amount,
+                                                          BankTransferDetails bankDetails,
+                                                          String idempotencyKey,
+                                                          Function<String, Mono<?>> paymentMethodCreated) {
+        return Mono.defer(() -> {
+            StripeAccount account = accountRouter.get(accountId);
+            // Reserve both calls up front so a SEPA payment is never left half-created
+            rateLimiter.tryAcquire(account.id(), GatewayPriority.LIVE, 2);
+
+            // Derived key so a retried SEPA payment reuses the PaymentMethod created by the first attempt
+            return post(account, PAYMENT_METHODS, StripeService.bankPaymentMethodParams(bankDetails),
+                    idempotencyKey + "-pm", PaymentMethod.class, StripeService.CREATE_PAYMENT_METHOD)
+                    .flatMap(paymentMethod -> paymentMethodCreated.apply(paymentMethod.getId()).thenReturn(paymentMethod))
+                    .flatMap(paymentMethod -> {
+                        log.info("Creating Bank Transfer PaymentIntent: amount={} minor units, currency={}, paymentMethodId={}, idempotencyKey={}",
+                                amount.minorUnits(), amount.currency(), paymentMethod.getId(), idempotencyKey);
+                        return post(account, PAYMENT_INTENTS, StripeService.bankPaymentIntentParams(amount, paymentMethod.getId()),
+                                idempotencyKey, PaymentIntent.class, StripeService.CREATE_PAYMENT_INTENT);
+                    });
+        })
+                .doOnNext(intent -> log.info("Bank Payment Intent created successfully: id={}, status={}", intent.getId(), intent.getStatus()))
+                .doOnError(StripeException.class, e -> log.error("Failed to create Bank Transfer PaymentIntent: errorCode={}, message={}, statusCode={}, requestId={}",
+                        e.getCode(), e.getMessage(), e.getStatusCode(), e.getRequestId()));
+    }
+
+    /** {@link StripeService#replayPaymentIntent} without blocking; background priority. */
+    public Mono<PaymentIntent> replayPaymentIntent(String accountId, PaymentIntentCreateParams params,
+                                                   String idempotencyKey) {
+        return Mono.defer(() -> {
+            StripeAccount account = accountRouter.get(accountId);
+            rateLimiter.tryAcquire(account.id(), GatewayPriority.BACKGROUND, 1);
+            return post(account, PAYMENT_INTENTS, params, idempotencyKey, PaymentIntent.class, StripeService.CREATE_PAYMENT_INTENT);
+        })
+                .doOnNext(intent -> log.info("Payment Intent replayed: id={}, status={}, idempotencyKey={}",
+                        intent.getId(), intent.getStatus(), idempotencyKey));
+    }
+
+    private <T extends StripeObject> Mono<T> post(StripeAccount account, String path, ApiRequestParams params,
+                                                  String idempotencyKey, Class<T> type, String operation) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri(path)
+                    .headers(headers -> {
+                        headers.setBearerAuth(account.secretKey());
+                        headers.set("Idempotency-Key", idempotencyKey);
+                    })
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .bodyValue(FormEncoder.createQueryString(params.toMap()))
+                    .exchangeToMono(response -> response.bodyToMono(String.class)
+                            .defaultIfEmpty("")
+                            .flatMap(body -> response.statusCode().is2xxSuccessful()
+                                    ? Mono.just(ApiResource.GSON.fromJson(body, type))
+                                    : Mono.error(apiError(response.statusCode().value(),
+                                            response.headers().asHttpHeaders().getFirst("Request-Id"), body))))
+                    .onErrorMap(WebClientRequestException.class, e -> new ApiConnectionException(
+                            "IOException during API request to Stripe (" + path + "): " + e.getMessage(), e))
+                    // Times the Stripe request itself, excluding any wait for a rate limit permit
+                    .doFinally(signal -> latencyHistograms.record(operation, System.nanoTime() - start));
+        });
+    }
+
+    /** The exception stripe-java throws for this error response. */
+    static StripeException apiError(int statusCode, String requestId, String body) {
+        StripeError error = null;
+        try {
+            JsonObject json = ApiResource.GSON.fromJson(body, JsonObject.class);
+            if (json != null && json.has("error")) {
+                error = ApiResource.GSON.fromJson(json.get("error"), StripeError.class);
+            }
+        } catch (JsonParseException ignored) {
+            // Not JSON; reported below as an invalid response
+        }
+        if (error == null) {
+            return new ApiException(String.format("Invalid response object from API: %s. (HTTP response code was %d)",
+                    body, statusCode), requestId, null, statusCode, null);
+        }
+
+        StripeException exception = switch (statusCode) {
+            case 400, 404 -> "idempotency_error".equals(error.getType())
+                    ? new IdempotencyException(error.getMessage(), requestId, error.getCode(), statusCode)
+                    : new InvalidRequestException(error.getMessage(), error.getParam(), requestId, error.getCode(), statusCode, null);
+            case 401 -> new AuthenticationException(error.getMessage(), requestId, error.getCode(), statusCode);
+            case 402 -> new CardException(error.getMessage(), requestId, error.getCode(), error.getParam(),
+                    error.getDeclineCode(), error.getCharge(), statusCode, null);
+            case 403 -> new PermissionException(error.getMessage(), requestId, error.getCode(), statusCode);
+            case 429 -> new RateLimitException(error.getMessage(), error.getParam(), requestId, error.getCode(), statusCode, null);
+            default -> new ApiException(error.getMessage(), requestId, error.getCode(), statusCode, null);
+        };
+        exception.setStripeError(error);
+        return exception;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.dispose();
+    }
+}
@@ -0,0 +1,122 @@
+package com.dev.payment_service.reactive.service;
+
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.reactive.model.TransactionRow;
+import com.dev.payment_service.reactive.repository.ReactiveTransactionRepository;
+import com.dev.payment_service.service.PaymentMetrics;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/** {@link com.dev.payment_service.service.WebhookService} on R2DBC, with the same event handling. */
+@Service
+@RequiredArgsConstructor
+public class ReactiveWebhookService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveWebhookService.class);
+
+    private static final String MODIFIED_BY = "WEBHOOK_STRIPE";
+
+    private final ReactiveTransactionRepository transactionRepository;
+    private final PaymentMetrics paymentMetrics;
+    private final StripeAccountRouter accountRouter;
+
+    public Mono<Void> handleWebhookEvent(Event event, String accountId) {
+        return Mono.defer(() -> {
+            log.info("Processing webhook event: type={}, id={}, account={}", event.getType(), event.getId(), accountId);
+            paymentMetrics.recordWebhookLag(event);
+
+            return switch (event.getType()) {
+                case "payment_intent.succeeded" -> updateStatus(event, accountId, PaymentStatus.COMPLETED, "COMPLETED");
+                case "payment_intent.payment_failed" -> updateStatus(event, accountId, PaymentStatus.FAILED, "FAILED");
+                case "payment_intent.canceled" -> updateStatus(event, accountId, PaymentStatus.FAILED, "FAILED (canceled)");
+                case "payment_intent.processing" -> handlePaymentIntentProcessing(event, accountId);
+                case "charge.refunded" -> {
+                    log.info("Charge refunded event received: {}", event.getId());
+                    // TODO: Implement refund handling
+                    yield Mono.empty();
+                }
+                default -> {
+                    log.info("Unhandled event type: {}", event.getType());
+                    yield Mono.empty();
+                }
+            };
+        });
+    }
+
+    private Mono<Void> updateStatus(Event event, String accountId, PaymentStatus status, String description) {
+        PaymentIntent paymentIntent = extractPaymentIntent(event);
+        if (paymentIntent == null) {
+            return Mono.empty();
+        }
+        String stripePaymentIntentId = paymentIntent.getId();
+        log.info("Payment {}: stripeId={}", event.getType(), stripePaymentIntentId);
+
+        return findTransaction(stripePaymentIntentId, accountId)
+                .flatMap(tx -> {
+                    PaymentStatus from = tx.getStatus();
+                    tx.setStatus(status);
+                    tx.setUpdatedAt(Instant.now());
+                    tx.setLastModifiedBy(MODIFIED_BY);
+                    return transactionRepository.save(tx)
+                            .doOnNext(saved -> {
+                                paymentMetrics.recordTransition(from, status);
+                                log.info("Transaction updated to {}: id={}, reference={}",
+                                        description, saved.getId(), saved.getTransactionReference());
+                            });
+                })
+                .switchIfEmpty(Mono.fromRunnable(() ->
+                        log.warn("Transaction not found for Stripe PaymentIntent: {}", stripePaymentIntentId)))
+                .then();
+    }
+
+    private Mono<Void> handlePaymentIntentProcessing(Event event, String accountId) {
+        PaymentIntent paymentIntent = extractPaymentIntent(event);
+        if (paymentIntent == null) {
+            return Mono.empty();
+        }
+        String stripePaymentIntentId = paymentIntent.getId();
+        log.info("Payment processing: stripeId={}", stripePaymentIntentId);
+
+        return findTransaction(stripePaymentIntentId, accountId)
+                .doOnNext(tx -> {
+                    if (tx.getStatus() == PaymentStatus.PENDING) {
+                        log.info("Transaction remains PENDING (processing): id={}, reference={}", tx.getId(), tx.getTransactionReference());
+                    }
+                })
+                .switchIfEmpty(Mono.fromRunnable(() ->
+                        log.warn("Transaction not found for Stripe PaymentIntent: {}", stripePaymentIntentId)))
+                .then();
+    }
+
+    /** Ignores transactions created on a different Stripe account than the one that sent the event. */
+    private Mono<TransactionRow> findTransaction(String stripePaymentIntentId, String accountId) {
+        return transactionRepository.findByProviderReferenceId(stripePaymentIntentId)
+                .filter(tx -> {
+                    if (!accountRouter.matches(tx.getStripeAccount(), accountId)) {
+                        log.warn("Ignoring webhook for transaction on another Stripe account: id={}, account={}, eventAccount={}",
+                                tx.getId(), tx.getStripeAccount(), accountId);
+                        return false;
+                    }
+                    return true;
+                });
+    }
+
+    private PaymentIntent extractPaymentIntent(Event event) {
+        try {
+            return (PaymentIntent) event.getDataObjectDeserializer()
+                    .getObject()
+                    .orElse(null);
+        } catch (Exception e) {
+            log.error("Failed to extract PaymentIntent from event: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+-- Tables the reactive deployment reads and writes, as Hibernate creates them for the servlet deployment.
+-- Only for running the reactive deployment on its own (tests, load harness):
+-- spring.sql.init.mode=always and spring.sql.init.schema-locations=classpath:reactive-schema.sql
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    amount NUMERIC(19, 3) NOT NULL,
+    amount_minor BIGINT,
+    transaction_reference VARCHAR(255) NOT NULL,
+    payment_method VARCHAR(255),
+    status VARCHAR(255),
+    idempotency_key VARCHAR(255) NOT NULL,
+    currency VARCHAR(255),
+    provider_reference_id VARCHAR(100),
+    provider VARCHAR(50) NOT NULL,
+    stripe_account VARCHAR(50),
+    payment_method_ref VARCHAR(100),
+    created_by VARCHAR(255),
+    last_modified_by VARCHAR(255),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    user_id BIGINT,
+    CONSTRAINT uk_transactions_idempotency_key UNIQUE (idempotency_key)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_role VARCHAR(255),
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    token_version BIGINT DEFAULT 0 NOT NULL
+);
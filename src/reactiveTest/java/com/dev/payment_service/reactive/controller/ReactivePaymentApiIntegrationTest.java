@@ -0,0 +1,319 @@
+package com.dev.payment_service.reactive.controller;
+
+import com.dev.payment_service.dto.CreditCardDetails;
+import com.dev.payment_service.dto.PaymentInitiationRequest;
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.reactive.ReactivePaymentServiceApplication;
+import com.dev.payment_service.reactive.model.TransactionRow;
+import com.dev.payment_service.reactive.repository.ReactiveTransactionRepository;
+import com.dev.payment_service.reactive.security.ReactiveTokenRevocationService;
+import com.dev.payment_service.reactive.service.ReactivePaymentService;
+import com.dev.payment_service.reactive.service.ReactiveStripeService;
+import com.dev.payment_service.security.JwtUtil;
+import com.dev.payment_service.service.PaymentService;
+import com.stripe.exception.CardException;
+import com.stripe.model.PaymentIntent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = ReactivePaymentServiceApplication.class, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivetest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:reactive-schema.sql"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", ReactivePaymentServiceApplication.PROFILE})
+@DisplayName("Reactive Payment API Integration Tests")
+class ReactivePaymentApiIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ReactiveTransactionRepository transactionRepository;
+
+    @Autowired
+    private ReactiveTokenRevocationService revocationService;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactivePaymentService paymentService;
+
+    @MockitoBean
+    private ReactiveStripeService stripeService;
+
+    private String customerToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        customerToken = jwtUtil.generateToken("customer@test.com", UserRole.CUSTOMER, 0);
+        adminToken = jwtUtil.generateToken("admin@test.com", UserRole.ADMIN, 0);
+    }
+
+    @Test
+    @DisplayName("Should initiate a card payment and record the Stripe result")
+    void shouldInitiateCardPayment() {
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
+                .thenReturn(Mono.just(paymentIntent("pi_reactive_1", "succeeded")));
+        String idempotencyKey = "reactive-create-" + System.nanoTime();
+
+        webTestClient.post().uri("/api/v1/payments")
+                .header("Authorization", "Bearer " + customerToken)
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(cardRequest("100.00"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals("RateLimit-Limit", "1000")
+                .expectBody()
+                .jsonPath("$.transactionId").exists()
+                .jsonPath("$.transactionReference").exists()
+                .jsonPath("$.amount").isEqualTo(100.0)
+                .jsonPath("$.currency").isEqualTo("usd")
+                .jsonPath("$.status").isEqualTo("COMPLETED")
+                .jsonPath("$.paymentMethod").isEqualTo("CREDIT_CARD")
+                .jsonPath("$.provider").isEqualTo("STRIPE")
+                .jsonPath("$.providerReferenceId").isEqualTo("pi_reactive_1");
+
+        TransactionRow saved = transactionRepository.findByIdempotencyKey(idempotencyKey).block();
+        assertThat(saved.getCreatedBy()).isEqualTo("customer@test.com");
+    }
+
+    @Test
+    @DisplayName("Should return the original payment for a repeated idempotency key")
+    void shouldReturnSameResponseForDuplicateIdempotencyKey() {
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
+                .thenReturn(Mono.just(paymentIntent("pi_reactive_dup", "processing")));
+        String idempotencyKey = "reactive-dup-" + System.nanoTime();
+
+        initiate(idempotencyKey, customerToken)
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("PENDING");
+        String first = transactionId(idempotencyKey);
+
+        initiate(idempotencyKey, customerToken)
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.transactionId").isEqualTo(first)
+                .jsonPath("$.providerReferenceId").isEqualTo("pi_reactive_dup");
+
+        verify(stripeService, times(1)).processCreditCardPayment(anyString(), any(Money.class), any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should keep the Stripe call running and record its result after the client goes away")
+    void shouldCompletePaymentAfterClientCancels() {
+        Sinks.One<PaymentIntent> stripe = Sinks.one();
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
+                .thenReturn(stripe.asMono());
+        String idempotencyKey = "reactive-cancel-" + System.nanoTime();
+
+        Disposable request = paymentService.initiatePayment(cardRequest("25.00"), idempotencyKey).subscribe();
+        TransactionRow inFlight = awaitRow(idempotencyKey, row -> true);
+        assertThat(inFlight.getProviderReferenceId()).isEqualTo(PaymentService.IN_FLIGHT_REFERENCE);
+        assertThat(inFlight.getPaymentMethodRef()).isEqualTo("pm_card_visa");
+
+        request.dispose();
+        stripe.tryEmitValue(paymentIntent("pi_reactive_cancel", "succeeded"));
+
+        TransactionRow settled = awaitRow(idempotencyKey, row -> row.getStatus() == PaymentStatus.COMPLETED);
+        assertThat(settled.getProviderReferenceId()).isEqualTo("pi_reactive_cancel");
+    }
+
+    @Test
+    @DisplayName("Should mark the payment FAILED on a card decline")
+    void shouldFailPaymentOnCardDecline() {
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
+                .thenReturn(Mono.error(new CardException("Declined", "req_1", "card_declined", null,
+                        "insufficient_funds", null, 402, null)));
+
+        initiate("reactive-decline-" + System.nanoTime(), customerToken)
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("FAILED")
+                .jsonPath("$.providerReferenceId").isEqualTo("STRIPE_ERROR:card_declined");
+    }
+
+    @Test
+    @DisplayName("Should answer 429 and drop the payment when the gateway limiter rejects")
+    void shouldRejectWhenGatewayIsBusy() {
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
+                .thenReturn(Mono.error(new GatewayRateLimitException("busy", Duration.ofMillis(1500))));
+        String idempotencyKey = "reactive-busy-" + System.nanoTime();
+
+        initiate(idempotencyKey, customerToken)
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals("Retry-After", "2");
+
+        assertThat(transactionRepository.findByIdempotencyKey(idempotencyKey).blockOptional()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fail when Idempotency-Key header is missing")
+    void shouldFailWhenIdempotencyKeyIsMissing() {
+        webTestClient.post().uri("/api/v1/payments")
+                .header("Authorization", "Bearer " + customerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(cardRequest("10.00"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Missing Required Header")
+                .jsonPath("$.message").isEqualTo("Required header 'Idempotency-Key' is missing");
+    }
+
+    @Test
+    @DisplayName("Should fail validation for a negative amount")
+    void shouldFailValidationForNegativeAmount() {
+        webTestClient.post().uri("/api/v1/payments")
+                .header("Authorization", "Bearer " + customerToken)
+                .header("Idempotency-Key", "reactive-invalid-" + System.nanoTime())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(cardRequest("-5.00"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed");
+    }
+
+    @Test
+    @DisplayName("Should fail when authentication token is missing")
+    void shouldFailWhenTokenIsMissing() {
+        webTestClient.post().uri("/api/v1/payments")
+                .header("Idempotency-Key", "reactive-noauth-" + System.nanoTime())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(cardRequest("10.00"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    @DisplayName("Should reject a token issued before the user's tokens were revoked")
+    void shouldRejectRevokedToken() {
+        databaseClient.sql("INSERT INTO users (user_role, username, password, created_at, token_version) "
+                        + "VALUES ('CUSTOMER', 'revoked@test.com', 'x', CURRENT_TIMESTAMP, 1)")
+                .then()
+                .block();
+        revocationService.refresh();
+
+        webTestClient.get().uri("/api/v1/payments/1")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken("revoked@test.com", UserRole.CUSTOMER, 0))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an unknown payment")
+    void shouldReturnNotFoundForUnknownPayment() {
+        webTestClient.get().uri("/api/v1/payments/999999")
+                .header("Authorization", "Bearer " + customerToken)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Payment not found with id: 999999");
+    }
+
+    @Test
+    @DisplayName("Should list payments for admins only, filtered by status")
+    void shouldListPaymentsForAdminOnly() {
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
+                .thenReturn(Mono.just(paymentIntent("pi_reactive_list", "requires_payment_method")));
+        String idempotencyKey = "reactive-list-" + System.nanoTime();
+        initiate(idempotencyKey, customerToken).expectStatus().isCreated();
+
+        webTestClient.get().uri("/api/v1/payments")
+                .header("Authorization", "Bearer " + customerToken)
+                .exchange()
+                .expectStatus().isForbidden();
+
+        webTestClient.get().uri("/api/v1/payments?status=FAILED&minAmount=10&maxAmount=30")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.transactionId == '" + transactionId(idempotencyKey) + "')].status").isEqualTo("FAILED");
+
+        webTestClient.get().uri("/api/v1/payments?startDate=not-a-date")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private WebTestClient.ResponseSpec initiate(String idempotencyKey, String token) {
+        return webTestClient.post().uri("/api/v1/payments")
+                .header("Authorization", "Bearer " + token)
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(cardRequest("25.00"))
+                .exchange();
+    }
+
+    private TransactionRow awaitRow(String idempotencyKey, Predicate<TransactionRow> condition) {
+        return Flux.interval(Duration.ofMillis(20))
+                .concatMap(tick -> transactionRepository.findByIdempotencyKey(idempotencyKey))
+                .filter(condition)
+                .blockFirst(Duration.ofSeconds(5));
+    }
+
+    private String transactionId(String idempotencyKey) {
+        return String.valueOf(transactionRepository.findByIdempotencyKey(idempotencyKey).block().getId());
+    }
+
+    private static PaymentInitiationRequest cardRequest(String amount) {
+        CreditCardDetails creditCardDetails = new CreditCardDetails();
+        creditCardDetails.setPaymentMethodId("pm_card_visa");
+        creditCardDetails.setCardHolder("John Doe");
+        creditCardDetails.setExpiryMonth("12");
+        creditCardDetails.setExpiryYear("2030");
+
+        PaymentInitiationRequest request = new PaymentInitiationRequest();
+        request.setAmount(new BigDecimal(amount));
+        request.setCurrency("USD");
+        request.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        request.setDetails(creditCardDetails);
+        return request;
+    }
+
+    private static PaymentIntent paymentIntent(String id, String status) {
+        PaymentIntent intent = new PaymentIntent();
+        intent.setId(id);
+        intent.setStatus(status);
+        return intent;
+    }
+}
@@ -0,0 +1,107 @@
+package com.dev.payment_service.reactive.service;
+
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.reactive.ReactivePaymentServiceApplication;
+import com.dev.payment_service.reactive.model.TransactionRow;
+import com.dev.payment_service.reactive.repository.ReactiveTransactionRepository;
+import com.dev.payment_service.service.PaymentService;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCreateParams;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = ReactivePaymentServiceApplication.class, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivetest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:reactive-schema.sql"
+})
+@ActiveProfiles({"test", ReactivePaymentServiceApplication.PROFILE})
+@DisplayName("ReactiveReconciliationService Tests")
+class ReactiveReconciliationServiceTest {
+
+    private static final Duration STALE = Duration.ofMinutes(10);
+
+    @Autowired
+    private ReactiveReconciliationService reconciliationService;
+
+    @Autowired
+    private ReactiveTransactionRepository transactionRepository;
+
+    @MockitoBean
+    private ReactiveStripeService stripeService;
+
+    @Test
+    @DisplayName("Should replay a payment left in flight under its original idempotency key")
+    void testReplayInFlightPayment() {
+        TransactionRow stranded = save(row("reconcile-in-flight-" + System.nanoTime(), PaymentMethod.CREDIT_CARD,
+                PaymentService.IN_FLIGHT_REFERENCE, "pm_card_visa"));
+        PaymentIntent intent = new PaymentIntent();
+        intent.setId("pi_reconciled");
+        intent.setStatus("succeeded");
+        when(stripeService.replayPaymentIntent(any(), any(PaymentIntentCreateParams.class), any()))
+                .thenReturn(Mono.empty());
+        when(stripeService.replayPaymentIntent(eq("default"), any(PaymentIntentCreateParams.class), eq(stranded.getIdempotencyKey())))
+                .thenReturn(Mono.just(intent));
+
+        reconciliationService.resumeStranded(Instant.now().minus(STALE.dividedBy(2))).block();
+
+        TransactionRow settled = transactionRepository.findById(stranded.getId()).block();
+        assertThat(settled.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(settled.getProviderReferenceId()).isEqualTo("pi_reconciled");
+    }
+
+    @Test
+    @DisplayName("Should fail a stranded SEPA payment whose payment method was never recorded")
+    void testAbandonWithoutPaymentMethod() {
+        TransactionRow stranded = save(row("reconcile-no-pm-" + System.nanoTime(), PaymentMethod.BANK_TRANSFER,
+                PaymentService.RETRY_PENDING_REFERENCE, null));
+        when(stripeService.replayPaymentIntent(any(), any(PaymentIntentCreateParams.class), any()))
+                .thenReturn(Mono.empty());
+
+        reconciliationService.resumeStranded(Instant.now().minus(STALE.dividedBy(2))).block();
+
+        TransactionRow settled = transactionRepository.findById(stranded.getId()).block();
+        assertThat(settled.getStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(settled.getProviderReferenceId()).isEqualTo("STRIPE_ERROR:RETRY_ABANDONED");
+        verify(stripeService, never()).replayPaymentIntent(any(), any(), eq(stranded.getIdempotencyKey()));
+    }
+
+    private TransactionRow save(TransactionRow row) {
+        return transactionRepository.save(row).block();
+    }
+
+    private static TransactionRow row(String idempotencyKey, PaymentMethod method, String reference, String paymentMethodRef) {
+        Instant updatedAt = Instant.now().minus(STALE);
+        TransactionRow tx = new TransactionRow();
+        tx.setMoney(new Money(2500, "usd"));
+        tx.setPaymentMethod(method);
+        tx.setStatus(PaymentStatus.PENDING);
+        tx.setProvider("STRIPE");
+        tx.setTransactionReference("TXN-" + idempotencyKey.hashCode());
+        tx.setIdempotencyKey(idempotencyKey);
+        tx.setStripeAccount("default");
+        tx.setProviderReferenceId(reference);
+        tx.setPaymentMethodRef(paymentMethodRef);
+        tx.setCreatedAt(updatedAt);
+        tx.setUpdatedAt(updatedAt);
+        return tx;
+    }
+}
@@ -0,0 +1,242 @@
+package com.dev.payment_service.reactive.service;
+
+import com.dev.payment_service.config.StripeAccount;
+import com.dev.payment_service.config.StripeProperties;
+import com.dev.payment_service.dto.BankTransferDetails;
+import com.dev.payment_service.dto.CreditCardDetails;
+import com.dev.payment_service.enums.GatewayPriority;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.service.LatencyHistograms;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.dev.payment_service.service.StripeRateLimiter;
+import com.dev.payment_service.service.StripeService;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.CardException;
+import com.stripe.exception.IdempotencyException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveStripeService Unit Tests")
+class ReactiveStripeServiceTest {
+
+    @Mock
+    private StripeRateLimiter rateLimiter;
+
+    @Mock
+    private StripeAccountRouter accountRouter;
+
+    @Mock
+    private LatencyHistograms latencyHistograms;
+
+    private HttpServer server;
+    private final ConcurrentLinkedQueue<Recorded> requests = new ConcurrentLinkedQueue<>();
+    private volatile String responseBody = "{\"id\":\"pi_test123\",\"object\":\"payment_intent\",\"status\":\"succeeded\"}";
+
+    private ReactiveStripeService stripeService;
+    private CreditCardDetails creditCardDetails;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        StripeProperties properties = new StripeProperties();
+        properties.setApiBase("http://127.0.0.1:" + server.getAddress().getPort());
+        stripeService = new ReactiveStripeService(WebClient.builder(), properties, rateLimiter, accountRouter,
+                latencyHistograms, 10, 100, Duration.ofSeconds(5), Duration.ofSeconds(5));
+
+        lenient().when(accountRouter.get("default")).thenReturn(new StripeAccount("default", "sk_test_default", null));
+
+        creditCardDetails = new CreditCardDetails();
+        creditCardDetails.setPaymentMethodId("pm_card_visa");
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripeService.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should send the card PaymentIntent as a form with the account key and idempotency key")
+    void testCreditCardPaymentRequest() {
+        StepVerifier.create(stripeService.processCreditCardPayment("default", Money.of(new BigDecimal("100.00"), "usd"),
+                        creditCardDetails, "idem-key-1"))
+                .assertNext(intent -> {
+                    assertEquals("pi_test123", intent.getId());
+                    assertEquals("succeeded", intent.getStatus());
+                })
+                .verifyComplete();
+
+        Recorded request = requests.poll();
+        assertNotNull(request);
+        assertEquals("/v1/payment_intents", request.path());
+        assertEquals("Bearer sk_test_default", request.authorization());
+        assertEquals("idem-key-1", request.idempotencyKey());
+        assertNotNull(request.stripeVersion());
+        assertEquals("10000", request.form().get("amount"));
+        assertEquals("usd", request.form().get("currency"));
+        assertEquals("pm_card_visa", request.form().get("payment_method"));
+        verify(rateLimiter).tryAcquire("default", GatewayPriority.LIVE, 1);
+        // Recorded in doFinally, which runs after the subscriber has seen completion
+        verify(latencyHistograms, timeout(1000)).record(eq(StripeService.CREATE_PAYMENT_INTENT), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should create the SEPA PaymentMethod under a derived key before the PaymentIntent")
+    void testBankTransferPaymentRequests() {
+        BankTransferDetails bankDetails = new BankTransferDetails();
+        bankDetails.setIban("DE89370400440532013000");
+        bankDetails.setAccountHolder("John Doe");
+        bankDetails.setEmail("john@example.com");
+        server.removeContext("/");
+        server.createContext("/", exchange -> {
+            responseBody = exchange.getRequestURI().getPath().endsWith("payment_methods")
+                    ? "{\"id\":\"pm_sepa_1\",\"object\":\"payment_method\"}"
+                    : "{\"id\":\"pi_sepa_1\",\"object\":\"payment_intent\",\"status\":\"processing\"}";
+            handle(exchange);
+        });
+
+        StepVerifier.create(stripeService.processBankTransferPayment("default", Money.of(new BigDecimal("50.00"), "eur"),
+                        bankDetails, "idem-key-2"))
+                .assertNext(intent -> assertEquals("pi_sepa_1", intent.getId()))
+                .verifyComplete();
+
+        Recorded method = requests.poll();
+        Recorded intent = requests.poll();
+        assertEquals("/v1/payment_methods", method.path());
+        assertEquals("idem-key-2-pm", method.idempotencyKey());
+        assertEquals("DE89370400440532013000", method.form().get("sepa_debit[iban]"));
+        assertEquals("/v1/payment_intents", intent.path());
+        assertEquals("idem-key-2", intent.idempotencyKey());
+        assertEquals("pm_sepa_1", intent.form().get("payment_method"));
+        verify(rateLimiter).tryAcquire("default", GatewayPriority.LIVE, 2);
+    }
+
+    @Test
+    @DisplayName("Should map Stripe error responses to the exceptions stripe-java throws")
+    void testErrorMapping() {
+        assertMapped(402, "{\"error\":{\"type\":\"card_error\",\"code\":\"card_declined\",\"decline_code\":\"insufficient_funds\",\"message\":\"Declined\"}}",
+                CardException.class, "card_declined");
+        assertMapped(400, "{\"error\":{\"type\":\"invalid_request_error\",\"code\":\"parameter_missing\",\"param\":\"amount\",\"message\":\"Missing\"}}",
+                InvalidRequestException.class, "parameter_missing");
+        assertMapped(400, "{\"error\":{\"type\":\"idempotency_error\",\"message\":\"Keys reused\"}}",
+                IdempotencyException.class, null);
+        assertMapped(429, "{\"error\":{\"type\":\"invalid_request_error\",\"code\":\"rate_limit\",\"message\":\"Too many\"}}",
+                RateLimitException.class, "rate_limit");
+        assertMapped(500, "{\"error\":{\"type\":\"api_error\",\"message\":\"Boom\"}}",
+                ApiException.class, null);
+        assertMapped(502, "<html>Bad gateway</html>", ApiException.class, null);
+    }
+
+    @Test
+    @DisplayName("Should report connection failures as ApiConnectionException")
+    void testConnectionFailure() {
+        server.stop(0);
+
+        StepVerifier.create(stripeService.processCreditCardPayment("default", Money.of(new BigDecimal("1.00"), "usd"),
+                        creditCardDetails, "idem-key-3"))
+                .expectError(ApiConnectionException.class)
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Should fail without a request when the rate limiter rejects")
+    void testRateLimiterRejection() {
+        doThrow(new GatewayRateLimitException("busy", Duration.ofSeconds(1)))
+                .when(rateLimiter).tryAcquire("default", GatewayPriority.LIVE, 1);
+
+        StepVerifier.create(stripeService.processCreditCardPayment("default", Money.of(new BigDecimal("1.00"), "usd"),
+                        creditCardDetails, "idem-key-4"))
+                .expectError(GatewayRateLimitException.class)
+                .verify();
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a missing payment method ID without calling Stripe")
+    void testMissingPaymentMethodId() {
+        creditCardDetails.setPaymentMethodId(null);
+
+        StepVerifier.create(stripeService.processCreditCardPayment("default", Money.of(new BigDecimal("1.00"), "usd"),
+                        creditCardDetails, "idem-key-5"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        assertTrue(requests.isEmpty());
+        verifyNoInteractions(rateLimiter);
+    }
+
+    private void assertMapped(int statusCode, String body, Class<? extends StripeException> type, String code) {
+        StripeException e = ReactiveStripeService.apiError(statusCode, "req_123", body);
+        assertInstanceOf(type, e);
+        assertEquals(statusCode, e.getStatusCode());
+        assertEquals("req_123", e.getRequestId());
+        assertEquals(code, e.getCode());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requests.add(new Recorded(
+                exchange.getRequestURI().getPath(),
+                exchange.getRequestHeaders().getFirst("Authorization"),
+                exchange.getRequestHeaders().getFirst("Idempotency-Key"),
+                exchange.getRequestHeaders().getFirst("Stripe-Version"),
+                parseForm(body)));
+
+        byte[] response = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            List<String> parts = List.of(pair.split("=", 2));
+            if (parts.size() == 2) {
+                form.put(URLDecoder.decode(parts.get(0), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parts.get(1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private record Recorded(String path, String authorization, String idempotencyKey, String stripeVersion,
+                            Map<String, String> form) {
+    }
+}
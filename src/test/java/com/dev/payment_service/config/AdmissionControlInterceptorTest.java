@@ -0,0 +1,66 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.service.AdmissionController;
+import com.dev.payment_service.service.AdmissionController.Priority;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdmissionControlInterceptor Unit Tests")
+class AdmissionControlInterceptorTest {
+
+    @Mock
+    private AdmissionController admissionController;
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when a new payment is shed")
+    void testRejectsPayment() throws Exception {
+        when(admissionController.tryAdmit(Priority.PAYMENTS)).thenReturn(false);
+        when(admissionController.retryAfterSeconds()).thenReturn(2L);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/payments");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor().preHandle(request, response, new Object()));
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Idempotency-Key"));
+    }
+
+    @Test
+    @DisplayName("Should release the slot of an admitted request once it completes")
+    void testReleasesAdmitted() throws Exception {
+        when(admissionController.tryAdmit(Priority.LOW)).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/payments");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AdmissionControlInterceptor interceptor = interceptor();
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        interceptor.afterCompletion(request, response, new Object(), null);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        verify(admissionController, times(1)).release(Priority.LOW);
+    }
+
+    @Test
+    @DisplayName("Should not consult admission control for other methods")
+    void testOtherMethods() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/api/v1/payments");
+
+        assertTrue(interceptor().preHandle(request, new MockHttpServletResponse(), new Object()));
+        verifyNoInteractions(admissionController);
+    }
+
+    private AdmissionControlInterceptor interceptor() {
+        return new AdmissionControlInterceptor(admissionController, JsonMapper.builder().findAndAddModules().build());
+    }
+}
@@ -0,0 +1,110 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConcurrencyLimitedDataSource Unit Tests")
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Should hold a permit until the connection is closed, releasing it only once")
+    void testPermitHeldUntilClose() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.availablePermits());
+
+        first.close();
+        first.close();
+
+        assertEquals(2, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Should fail with a transient error once the cap is reached")
+    void testCapReached() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the pool fails to hand out a connection")
+    void testPermitReturnedOnFailure() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should pass other calls through to the real connection")
+    void testDelegates() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        Connection limited = dataSource.getConnection();
+
+        assertFalse(limited.getAutoCommit());
+        assertTrue(limited.isWrapperFor(Connection.class));
+    }
+
+    @Test
+    @DisplayName("Should give each workload its own permits, with untagged threads on the admin permits")
+    void testPerWorkloadPermits() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new ConcurrencyLimitedDataSource(target,
+                Map.of(Workload.PAYMENTS, 2, Workload.WEBHOOKS, 1, Workload.ADMIN, 1), Duration.ofMillis(50));
+
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+        Workload previous = WorkloadRoutingDataSource.use(Workload.PAYMENTS);
+        try {
+            Connection payment = dataSource.getConnection();
+            assertEquals(1, dataSource.availablePermits(Workload.PAYMENTS));
+            assertEquals(0, dataSource.availablePermits(Workload.ADMIN));
+
+            WorkloadRoutingDataSource.use(Workload.ADMIN);
+            payment.close();
+            assertEquals(2, dataSource.availablePermits(Workload.PAYMENTS));
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+        assertEquals(1, dataSource.availablePermits(Workload.WEBHOOKS));
+    }
+}
@@ -0,0 +1,65 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.dto.BankTransferDetails;
+import com.dev.payment_service.dto.CreditCardDetails;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCreateParams;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PaymentRuntimeHints Unit Tests")
+class PaymentRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new PaymentRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Should register Stripe models and their nested classes for Gson field binding")
+    void testStripeModels() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(PaymentIntent.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(PaymentIntent.NextAction.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Event.Data.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(PaymentIntentCreateParams.PaymentMethodOptions.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+    }
+
+    @Test
+    @DisplayName("Should register the PaymentDetails subtypes for Jackson binding")
+    void testPaymentDetailsSubtypes() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CreditCardDetails.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(BankTransferDetails.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(CreditCardDetails.class, "setPaymentMethodId")
+                .test(hints));
+    }
+
+    @Test
+    @DisplayName("Should register the JJWT implementation classes loaded by name")
+    void testJjwtImplementation() throws ClassNotFoundException {
+        for (String type : new String[]{"io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer"}) {
+            // Fails on a JJWT upgrade that renames the class
+            Class.forName(type);
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), type);
+        }
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer")
+                .test(hints));
+    }
+}
@@ -0,0 +1,135 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReadReplicas Unit Tests")
+class ReadReplicasTest {
+
+    private static final String SERVICE_READ = ReplicaRoutingDataSource.SERVICE_PACKAGE + "PaymentService.getAllPayments";
+
+    private DataSource replica;
+    private ReadReplicas replicas;
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE lag(seconds DOUBLE)");
+        new JdbcTemplate(replica).update("INSERT INTO lag VALUES (0)");
+
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setMaxLag(Duration.ofSeconds(2));
+        properties.setLagQuery("SELECT seconds FROM lag");
+        Map<Workload, DataSource> pools = Map.of(
+                Workload.PAYMENTS, database("replica-payments"), Workload.WEBHOOKS, replica, Workload.ADMIN, replica);
+        replicas = new ReadReplicas(Map.of("replica-0", pools), properties);
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicas));
+        jdbc = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @Test
+    @DisplayName("Should send read-only service transactions to a replica and everything else to the primary")
+    void testRouting() {
+        replicas.checkLag();
+
+        assertEquals("replica", node(SERVICE_READ, true));
+        assertEquals("primary", node(SERVICE_READ, false));
+        assertEquals("primary", node("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById", true));
+    }
+
+    @Test
+    @DisplayName("Should read from the replica pool of the current workload")
+    void testWorkloadPools() {
+        replicas.checkLag();
+
+        Workload previous = WorkloadRoutingDataSource.use(Workload.PAYMENTS);
+        try {
+            assertEquals("replica-payments", node(SERVICE_READ, true));
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+        assertEquals("replica", node(SERVICE_READ, true));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary while the replica lags or before its first check")
+    void testLagFallback() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        replicas.bindTo(registry);
+
+        assertEquals("primary", node(SERVICE_READ, true));
+
+        new JdbcTemplate(replica).update("UPDATE lag SET seconds = 5");
+        replicas.checkLag();
+        assertEquals("primary", node(SERVICE_READ, true));
+        assertEquals(5.0, registry.get("db.replica.lag").tag("replica", "replica-0").gauge().value());
+        assertEquals(0.0, registry.get("db.replica.available").tag("replica", "replica-0").gauge().value());
+
+        new JdbcTemplate(replica).update("UPDATE lag SET seconds = 0.5");
+        replicas.checkLag();
+        assertEquals("replica", node(SERVICE_READ, true));
+        assertEquals(2.0, registry.get("db.replica.fallbacks").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should check lag on its own thread once started")
+    void testStartChecksInBackground() throws Exception {
+        replicas.start();
+        try {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!"replica".equals(node(SERVICE_READ, true)) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("replica", node(SERVICE_READ, true));
+        } finally {
+            replicas.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should mark a replica whose lag check fails as unavailable")
+    void testCheckFailure() {
+        replicas.checkLag();
+        new JdbcTemplate(replica).execute("DROP TABLE lag");
+
+        replicas.checkLag();
+
+        assertEquals("primary", node(SERVICE_READ, true));
+    }
+
+    private String node(String transactionName, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName(transactionName);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:replicas-" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node(name VARCHAR(16))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
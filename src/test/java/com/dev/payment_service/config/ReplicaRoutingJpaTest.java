@@ -0,0 +1,170 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.dto.CreditCardDetails;
+import com.dev.payment_service.dto.PaymentInitiationRequest;
+import com.dev.payment_service.dto.PaymentInitiationResponse;
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.enums.Workload;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.model.Transaction;
+import com.dev.payment_service.repository.TransactionRepository;
+import com.dev.payment_service.service.PaymentMetrics;
+import com.dev.payment_service.service.PaymentService;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.dev.payment_service.service.StripeRetryScheduler;
+import com.dev.payment_service.service.StripeService;
+import com.dev.payment_service.service.TransactionService;
+import com.stripe.model.PaymentIntent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Routes through the real JPA stack: JpaTransactionManager, Hibernate and the lazy read-only proxy
+ * from {@link DataSourceConfig}. The "replica" is the test database itself behind a counter, so only
+ * where connections come from is under test.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({DataSourceConfig.class, TransactionService.class, PaymentService.class})
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Read Replica Routing Tests")
+class ReplicaRoutingJpaTest {
+
+    private static final AtomicInteger replicaConnections = new AtomicInteger();
+
+    @MockitoBean
+    private StripeService stripeService;
+
+    @MockitoBean
+    private StripeRetryScheduler retryScheduler;
+
+    @MockitoBean
+    private StripeAccountRouter accountRouter;
+
+    @MockitoBean
+    private PaymentMetrics paymentMetrics;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ReadReplicas readReplicas;
+
+    @TestConfiguration
+    static class Replica {
+
+        @Bean
+        ReadReplicas readReplicas(DataSourceProperties properties) {
+            DataSource replica = new DelegatingDataSource(new DriverManagerDataSource(
+                    properties.determineUrl(), properties.determineUsername(), properties.determinePassword())) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    replicaConnections.incrementAndGet();
+                    return super.getConnection();
+                }
+            };
+            Map<Workload, DataSource> pools = new EnumMap<>(Workload.class);
+            for (Workload workload : Workload.values()) {
+                pools.put(workload, replica);
+            }
+            ReplicaProperties replicaProperties = new ReplicaProperties();
+            replicaProperties.setLagQuery("SELECT 0");
+            return new ReadReplicas(Map.of("replica-0", pools), replicaProperties);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        readReplicas.checkLag();
+        replicaConnections.set(0);
+    }
+
+    @Test
+    @DisplayName("Should read a payment by id from the replica")
+    void testFindByIdReadsReplica() {
+        Transaction saved = transactionRepository.saveAndFlush(transaction("replica-read"));
+
+        assertTrue(transactionService.findById(saved.getId()).isPresent());
+
+        assertEquals(1, replicaConnections.get());
+    }
+
+    @Test
+    @DisplayName("Should keep the idempotency lookup of payment initiation on the primary")
+    void testInitiatePaymentReadsPrimary() throws Exception {
+        Transaction existing = transactionRepository.saveAndFlush(transaction("replica-duplicate"));
+        PaymentIntent intent = new PaymentIntent();
+        intent.setId("pi_replica");
+        intent.setStatus("succeeded");
+        when(accountRouter.select(any(), any(), anyString())).thenReturn("default");
+        when(stripeService.processCreditCardPayment(any(), any(), any(), anyString())).thenReturn(intent);
+
+        PaymentInitiationResponse duplicate = paymentService.initiatePayment(request(), "replica-duplicate");
+        PaymentInitiationResponse created = paymentService.initiatePayment(request(), "replica-new");
+
+        assertEquals(existing.getId().toString(), duplicate.getTransactionId());
+        assertEquals("COMPLETED", created.getStatus());
+        assertEquals(0, replicaConnections.get());
+    }
+
+    private static PaymentInitiationRequest request() {
+        CreditCardDetails details = new CreditCardDetails();
+        details.setPaymentMethodId("pm_card_visa");
+        PaymentInitiationRequest request = new PaymentInitiationRequest();
+        request.setAmount(new BigDecimal("10.00"));
+        request.setCurrency("EUR");
+        request.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        request.setDetails(details);
+        return request;
+    }
+
+    private static Transaction transaction(String idempotencyKey) {
+        Transaction tx = new Transaction();
+        tx.setMoney(new Money(1000, "eur"));
+        tx.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        tx.setStatus(PaymentStatus.PENDING);
+        tx.setProvider("STRIPE");
+        tx.setTransactionReference("TXN-" + idempotencyKey);
+        tx.setIdempotencyKey(idempotencyKey);
+        tx.setCreatedAt(Instant.now());
+        tx.setUpdatedAt(Instant.now());
+        return tx;
+    }
+}
@@ -0,0 +1,68 @@
+package com.dev.payment_service.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SampledLogFilter Unit Tests")
+class SampledLogFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private SampledLogFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SampledLogFilter();
+        filter.setRate(10);
+        filter.setLoggers(" com.dev.payment_service.service.PaymentService , com.dev.payment_service.service.StripeService");
+    }
+
+    @Test
+    @DisplayName("Should keep roughly one in rate INFO events from sampled loggers")
+    void testSamplesInfo() {
+        Logger logger = context.getLogger("com.dev.payment_service.service.PaymentService");
+
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (decide(logger, Level.INFO, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertTrue(kept > 700 && kept < 1300, "kept " + kept);
+    }
+
+    @Test
+    @DisplayName("Should always keep warnings, errors and events with exceptions")
+    void testKeepsProblems() {
+        Logger logger = context.getLogger("com.dev.payment_service.service.StripeService");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN, null));
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.ERROR, null));
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.INFO, new IllegalStateException()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave other loggers alone")
+    void testOtherLoggers() {
+        Logger other = context.getLogger("com.dev.payment_service.service.PaymentServiceHelper");
+        Logger security = context.getLogger("com.dev.payment_service.security.JwtAuthenticationFilter");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(other, Level.INFO, null));
+            assertEquals(FilterReply.NEUTRAL, decide(security, Level.INFO, null));
+        }
+    }
+
+    private FilterReply decide(Logger logger, Level level, Throwable t) {
+        return filter.decide(null, logger, level, "message {}", new Object[]{1}, t);
+    }
+}
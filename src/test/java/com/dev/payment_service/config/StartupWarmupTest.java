@@ -0,0 +1,114 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.security.JwtTokenVerifier;
+import com.dev.payment_service.security.JwtUtil;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.dev.payment_service.service.StripeService;
+import com.dev.payment_service.service.TransactionService;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.stripe.exception.ApiConnectionException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StartupWarmup Unit Tests")
+class StartupWarmupTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private StripeService stripeService;
+
+    @Mock
+    private StripeAccountRouter accountRouter;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(accountRouter.all()).thenReturn(List.of(
+                new StripeAccount("eu", "sk_test_eu", null),
+                new StripeAccount("us", "sk_test_us", null)));
+    }
+
+    @Test
+    @DisplayName("Should run every step, pre-connect each Stripe account and report step durations")
+    void testRunsAllSteps() throws Exception {
+        StartupWarmup warmup = warmup(true, Duration.ofSeconds(30));
+
+        warmup.run(null);
+
+        assertEquals(List.of("json", "validation", "jwt", "repository", "stripe"), List.copyOf(warmup.timings().keySet()));
+        verify(transactionService, times(5)).findByIdempotencyKey(anyString());
+        verify(stripeService).preconnect("eu");
+        verify(stripeService).preconnect("us");
+        assertEquals(1, registry.get("application.warmup").tag("step", "jwt").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should carry on past a failing step")
+    void testFailingStep() throws Exception {
+        doThrow(new ApiConnectionException("unreachable")).when(stripeService).preconnect("eu");
+        when(transactionService.findByIdempotencyKey(anyString())).thenThrow(new IllegalStateException("db down"));
+        StartupWarmup warmup = warmup(true, Duration.ofSeconds(30));
+
+        warmup.run(null);
+
+        assertTrue(warmup.timings().containsKey("repository"));
+        assertTrue(warmup.timings().containsKey("stripe"));
+        verify(stripeService).preconnect("eu");
+    }
+
+    @Test
+    @DisplayName("Should give up at the timeout and skip the remaining steps")
+    void testTimeout() {
+        // Lenient: on a slow machine the earlier steps may use up the whole timeout
+        lenient().when(transactionService.findByIdempotencyKey(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return Optional.empty();
+        });
+        StartupWarmup warmup = warmup(true, Duration.ofMillis(500));
+
+        long start = System.nanoTime();
+        warmup.run(null);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5_000);
+        assertFalse(warmup.timings().containsKey("stripe"));
+        verifyNoInteractions(stripeService);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void testDisabled() {
+        StartupWarmup warmup = warmup(false, Duration.ofSeconds(30));
+
+        warmup.run(null);
+
+        assertTrue(warmup.timings().isEmpty());
+        verifyNoInteractions(transactionService, stripeService, accountRouter);
+    }
+
+    private StartupWarmup warmup(boolean enabled, Duration timeout) {
+        JwtTokenVerifier verifier = new JwtTokenVerifier("testSecretKeyForJWTTokenGenerationAndValidation1234567890");
+        return new StartupWarmup(JsonMapper.builder().findAndAddModules().build(),
+                Validation.buildDefaultValidatorFactory().getValidator(), new JwtUtil(verifier, 60_000L), verifier,
+                transactionService, stripeService, accountRouter, registry, new StaticApplicationContext(),
+                enabled, timeout, 5);
+    }
+}
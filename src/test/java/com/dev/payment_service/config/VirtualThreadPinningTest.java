@@ -0,0 +1,219 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.dto.BankTransferDetails;
+import com.dev.payment_service.dto.CreditCardDetails;
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.model.Transaction;
+import com.dev.payment_service.repository.TransactionRepository;
+import com.dev.payment_service.service.LatencyHistograms;
+import com.dev.payment_service.service.StripeAccountRouter;
+import com.dev.payment_service.service.StripeHedgingExecutor;
+import com.dev.payment_service.service.StripeRateLimiter;
+import com.dev.payment_service.service.StripeService;
+import com.stripe.Stripe;
+import com.stripe.model.PaymentIntent;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Stripe path of payment initiation (StripeService with its real rate limiter and hedging
+ * executor, on virtual threads) and the JPA/Hikari/JDBC path on many virtual threads at once, and
+ * fails on any {@code jdk.VirtualThreadPinned} event, whatever its duration.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(DataSourceConfig.class)
+@TestPropertySource(properties = {"db.max-concurrency=4", "spring.jpa.show-sql=false"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Virtual Thread Pinning Tests")
+class VirtualThreadPinningTest {
+
+    private static final int TASKS = 64;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+    private RecordingStream recording;
+    private HttpServer stripe;
+    private StripeHedgingExecutor hedgingExecutor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        recording = new RecordingStream();
+        recording.enable(VirtualThreadPinningMonitor.PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+        recording.onEvent(VirtualThreadPinningMonitor.PINNED_EVENT, pinned::add);
+        recording.startAsync();
+
+        stripe = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Platform threads: the JDK server's own request reads pin virtual threads and are not under test
+        stripe.setExecutor(Executors.newCachedThreadPool());
+        stripe.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            sleep(20);
+            String object = exchange.getRequestURI().getPath().startsWith("/v1/payment_methods")
+                    ? "{\"id\": \"pm_test\", \"object\": \"payment_method\"}"
+                    : "{\"id\": \"pi_test\", \"object\": \"payment_intent\", \"status\": \"succeeded\"}";
+            byte[] body = object.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stripe.start();
+        Stripe.overrideApiBase("http://127.0.0.1:" + stripe.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        Stripe.overrideApiBase(Stripe.LIVE_API_BASE);
+        if (hedgingExecutor != null) {
+            hedgingExecutor.shutdown();
+        }
+        stripe.stop(0);
+        recording.close();
+    }
+
+    @Test
+    @DisplayName("Should not pin virtual threads on Stripe calls through the rate limiter and hedging executor")
+    void testStripeCallsDoNotPin() throws Exception {
+        StripeProperties properties = new StripeProperties();
+        properties.setSecretKey("sk_test_pinning");
+        StripeAccountRouter accountRouter = new StripeAccountRouter(properties);
+        // A small bucket so callers queue on the limiter; a short hedge delay and a full budget so reads hedge
+        StripeRateLimiter rateLimiter = new StripeRateLimiter(1000, 10, 0.5, 10_000, 10_000, 10_000);
+        hedgingExecutor = new StripeHedgingExecutor(4, 5, 1, 100, TASKS, true);
+        StripeService stripeService = new StripeService(rateLimiter, hedgingExecutor, accountRouter,
+                new LatencyHistograms(10_000, Duration.ofMillis(500), Duration.ofSeconds(2)));
+        String account = StripeAccountRouter.DEFAULT_ACCOUNT_ID;
+        Money amount = new Money(1000, "eur");
+
+        CreditCardDetails card = new CreditCardDetails();
+        card.setPaymentMethodId("pm_card_visa");
+        BankTransferDetails bank = new BankTransferDetails();
+        bank.setIban("DE89370400440532013000");
+        bank.setAccountHolder("Pinning Test");
+        bank.setEmail("pinning@test.com");
+
+        runOnVirtualThreads(() -> {
+            PaymentIntent intent = stripeService.processCreditCardPayment(account, amount, card, UUID.randomUUID().toString());
+            assertEquals("pi_test", intent.getId());
+            stripeService.processBankTransferPayment(account, amount, bank, UUID.randomUUID().toString());
+            stripeService.retrievePaymentIntent(account, "pi_test");
+            return null;
+        });
+
+        assertNoPinning();
+    }
+
+    @Test
+    @DisplayName("Should not pin virtual threads on JPA and JDBC work, including under the concurrency cap")
+    void testJdbcDoesNotPin() throws Exception {
+        assertInstanceOf(ConcurrencyLimitedDataSource.class, dataSource);
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+
+        runOnVirtualThreads(() -> transactions.execute(status -> {
+            String key = UUID.randomUUID().toString();
+            assertTrue(transactionRepository.findByIdempotencyKey(key).isEmpty());
+            Transaction saved = transactionRepository.save(transaction(key));
+            saved.setStatus(PaymentStatus.COMPLETED);
+            transactionRepository.saveAndFlush(saved);
+            return null;
+        }));
+
+        assertNoPinning();
+        assertEquals(4, ((ConcurrencyLimitedDataSource) dataSource).availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should detect a virtual thread blocking inside synchronized")
+    void testDetectsPinning() throws Exception {
+        Object monitor = new Object();
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                sleep(20);
+            }
+        }).join();
+
+        recording.stop();
+        assertFalse(pinned.isEmpty());
+    }
+
+    private void runOnVirtualThreads(Callable<Object> task) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Object>> results = executor.invokeAll(Collections.nCopies(TASKS, task));
+            for (Future<Object> result : results) {
+                result.get();
+            }
+        }
+    }
+
+    private void assertNoPinning() {
+        // Flushes buffered events to the stream's handlers
+        recording.stop();
+        assertTrue(pinned.isEmpty(), () -> "Pinned virtual threads: " + pinned);
+    }
+
+    private static Transaction transaction(String idempotencyKey) {
+        Transaction tx = new Transaction();
+        tx.setMoney(new Money(1000, "eur"));
+        tx.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        tx.setStatus(PaymentStatus.PENDING);
+        tx.setProvider("STRIPE");
+        tx.setTransactionReference("TXN-" + idempotencyKey);
+        tx.setIdempotencyKey(idempotencyKey);
+        tx.setCreatedAt(Instant.now());
+        tx.setUpdatedAt(Instant.now());
+        return tx;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WorkloadExecutors Unit Tests")
+class WorkloadExecutorsTest {
+
+    private WorkloadExecutors executors;
+
+    @AfterEach
+    void tearDown() {
+        if (executors != null) {
+            executors.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run tasks on the workload's threads with its pool selected")
+    void testRunsOnWorkloadThread() throws Exception {
+        executors = new WorkloadExecutors(new WorkloadProperties());
+
+        WebAsyncTask<String> task = executors.submit(Workload.WEBHOOKS,
+                () -> Thread.currentThread().getName() + "/" + WorkloadRoutingDataSource.current());
+        Future<?> result = task.getExecutor().submit(task.getCallable());
+
+        assertTrue(String.valueOf(result.get(5, TimeUnit.SECONDS)).matches("webhooks-\\d+/WEBHOOKS"));
+        assertEquals(Duration.ofSeconds(30).toMillis(), task.getTimeout());
+        assertNull(WorkloadRoutingDataSource.current());
+    }
+
+    @Test
+    @DisplayName("Should reject work once the threads are busy and the queue is full")
+    void testRejectsWhenFull() throws Exception {
+        WorkloadProperties properties = new WorkloadProperties();
+        properties.getAdmin().setThreads(1);
+        properties.getAdmin().setQueueCapacity(1);
+        executors = new WorkloadExecutors(properties);
+        CountDownLatch release = new CountDownLatch(1);
+
+        WebAsyncTask<Object> blocked = executors.submit(Workload.ADMIN, () -> release.await(5, TimeUnit.SECONDS));
+        blocked.getExecutor().submit(blocked.getCallable());
+        blocked.getExecutor().submit(blocked.getCallable());
+
+        assertThrows(TaskRejectedException.class, () -> blocked.getExecutor().submit(blocked.getCallable()));
+        release.countDown();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executors.bindTo(registry);
+        assertNotNull(registry.find("executor.queued").tag("name", "admin").gauge());
+    }
+
+    @Test
+    @DisplayName("Should run on the request thread when workloads are disabled")
+    void testDisabled() throws Exception {
+        WorkloadProperties properties = new WorkloadProperties();
+        properties.setEnabled(false);
+        executors = new WorkloadExecutors(properties);
+
+        WebAsyncTask<String> task = executors.submit(Workload.ADMIN, () -> Thread.currentThread().getName());
+
+        assertEquals(Thread.currentThread().getName(), task.getExecutor().submit(task.getCallable()).get());
+    }
+}
@@ -0,0 +1,75 @@
+package com.dev.payment_service.config;
+
+import com.dev.payment_service.enums.Workload;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.sql.Connection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WorkloadRoutingDataSource Unit Tests")
+class WorkloadRoutingDataSourceTest {
+
+    private WorkloadRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setJdbcUrl("jdbc:h2:mem:workloads;DB_CLOSE_DELAY=-1");
+            pool.setPoolName(workload.id());
+            pool.setMaximumPoolSize(1);
+            pools.put(workload, pool);
+        }
+        dataSource = new WorkloadRoutingDataSource(pools);
+        dataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should take connections from the current workload's pool and the admin pool otherwise")
+    void testRouting() throws Exception {
+        Workload previous = WorkloadRoutingDataSource.use(Workload.WEBHOOKS);
+        try (Connection ignored = dataSource.getConnection()) {
+            assertEquals(1, active(Workload.WEBHOOKS));
+            assertEquals(0, active(Workload.PAYMENTS));
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+
+        assertNull(WorkloadRoutingDataSource.current());
+        try (Connection ignored = dataSource.getConnection()) {
+            assertEquals(1, active(Workload.ADMIN));
+        }
+    }
+
+    @Test
+    @DisplayName("Should classify requests by path and method")
+    void testClassify() {
+        assertEquals(Workload.WEBHOOKS, WorkloadFilter.classify(new MockHttpServletRequest("POST", "/api/v1/webhooks/payment")));
+        assertEquals(Workload.ADMIN, WorkloadFilter.classify(new MockHttpServletRequest("GET", "/api/v1/payments")));
+        assertEquals(Workload.ADMIN, WorkloadFilter.classify(new MockHttpServletRequest("GET", "/api/v1/admin/slo")));
+        assertEquals(Workload.PAYMENTS, WorkloadFilter.classify(new MockHttpServletRequest("POST", "/api/v1/payments")));
+        assertEquals(Workload.PAYMENTS, WorkloadFilter.classify(new MockHttpServletRequest("GET", "/api/v1/payments/7")));
+        assertEquals(Workload.PAYMENTS, WorkloadFilter.classify(new MockHttpServletRequest("POST", "/api/v1/auth/login")));
+    }
+
+    private int active(Workload workload) {
+        // Pools start on their first connection
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource.pool(workload)).getHikariPoolMXBean();
+        return pool != null ? pool.getActiveConnections() : 0;
+    }
+}
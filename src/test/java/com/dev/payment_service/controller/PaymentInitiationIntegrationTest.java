@@ -4,6 +4,7 @@ import com.dev.payment_service.dto.CreditCardDetails;
 import com.dev.payment_service.dto.PaymentInitiationRequest;
 import com.dev.payment_service.enums.PaymentMethod;
 import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.model.Money;
 import com.dev.payment_service.model.User;
 import com.dev.payment_service.repository.UserRepository;
 import com.dev.payment_service.security.JwtUtil;
@@ -21,6 +22,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -29,6 +31,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -88,7 +91,7 @@ class PaymentInitiationIntegrationTest {
         mockPaymentIntent.setId("pi_test_123456");
         mockPaymentIntent.setStatus("requires_confirmation");
 
-        when(stripeService.processCreditCardPayment(any(BigDecimal.class), anyString(), any(), anyString()))
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
                 .thenReturn(mockPaymentIntent);
 
         CreditCardDetails creditCardDetails = new CreditCardDetails();
@@ -117,7 +120,9 @@ class PaymentInitiationIntegrationTest {
                 .andExpect(jsonPath("$.paymentMethod").value("CREDIT_CARD"))
                 .andExpect(jsonPath("$.provider").value("STRIPE"))
                 .andExpect(jsonPath("$.providerReferenceId").value("pi_test_123456"))
-                .andExpect(jsonPath("$.createdAt").exists());
+                .andExpect(jsonPath("$.createdAt").exists())
+                .andExpect(header().string("RateLimit-Limit", "1000"))
+                .andExpect(header().exists("RateLimit-Remaining"));
     }
 
     @Test
@@ -127,7 +132,7 @@ class PaymentInitiationIntegrationTest {
         mockPaymentIntent.setId("pi_test_duplicate");
         mockPaymentIntent.setStatus("requires_confirmation");
 
-        when(stripeService.processCreditCardPayment(any(BigDecimal.class), anyString(), any(), anyString()))
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
                 .thenReturn(mockPaymentIntent);
 
         CreditCardDetails creditCardDetails = new CreditCardDetails();
@@ -327,7 +332,7 @@ class PaymentInitiationIntegrationTest {
         mockPaymentIntent.setId("pi_test_admin");
         mockPaymentIntent.setStatus("requires_confirmation");
 
-        when(stripeService.processCreditCardPayment(any(BigDecimal.class), anyString(), any(), anyString()))
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
                 .thenReturn(mockPaymentIntent);
 
         CreditCardDetails creditCardDetails = new CreditCardDetails();
@@ -388,7 +393,7 @@ class PaymentInitiationIntegrationTest {
         mockPaymentIntent.setId("pi_test_retrieve");
         mockPaymentIntent.setStatus("requires_confirmation");
 
-        when(stripeService.processCreditCardPayment(any(BigDecimal.class), anyString(), any(), anyString()))
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
                 .thenReturn(mockPaymentIntent);
 
         CreditCardDetails creditCardDetails = new CreditCardDetails();
@@ -436,7 +441,7 @@ class PaymentInitiationIntegrationTest {
         mockPaymentIntent.setId("pi_test_admin_retrieve");
         mockPaymentIntent.setStatus("succeeded");
 
-        when(stripeService.processCreditCardPayment(any(BigDecimal.class), anyString(), any(), anyString()))
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
                 .thenReturn(mockPaymentIntent);
 
         CreditCardDetails creditCardDetails = new CreditCardDetails();
@@ -490,6 +495,42 @@ class PaymentInitiationIntegrationTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("Should reject tokens issued before an admin revoked them")
+    void shouldRejectRevokedToken() throws Exception {
+        User revokedUser = new User();
+        revokedUser.setUsername("revoked@test.com");
+        revokedUser.setPassword(passwordEncoder.encode("password123"));
+        revokedUser.setUserRole(UserRole.CUSTOMER);
+        revokedUser = userRepository.save(revokedUser);
+        String oldToken = jwtUtil.generateToken(revokedUser);
+
+        mockMvc.perform(get("/api/v1/payments/999999")
+                        .header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/v1/admin/users/revoked@test.com/revoke-tokens")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/payments/999999")
+                        .header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isForbidden());
+
+        String newToken = jwtUtil.generateToken(userRepository.findByUsername("revoked@test.com").orElseThrow());
+        mockMvc.perform(get("/api/v1/payments/999999")
+                        .header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should forbid token revocation for non-admin users")
+    void shouldForbidRevocationForCustomer() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/users/admin@test.com/revoke-tokens")
+                        .header("Authorization", "Bearer " + customerToken))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @DisplayName("Should fail to retrieve payment with invalid ID format")
     void shouldFailToRetrievePaymentWithInvalidIdFormat() throws Exception {
@@ -506,7 +547,7 @@ class PaymentInitiationIntegrationTest {
         mockPaymentIntent.setId("pi_test_idempotent_retrieve");
         mockPaymentIntent.setStatus("requires_confirmation");
 
-        when(stripeService.processCreditCardPayment(any(BigDecimal.class), anyString(), any(), anyString()))
+        when(stripeService.processCreditCardPayment(anyString(), any(Money.class), any(), anyString()))
                 .thenReturn(mockPaymentIntent);
 
         CreditCardDetails creditCardDetails = new CreditCardDetails();
@@ -549,5 +590,17 @@ class PaymentInitiationIntegrationTest {
 
         assertThat(secondRetrieve).isEqualTo(firstRetrieve);
     }
-}
 
+    @Test
+    @DisplayName("Should list payments for admins on the admin executor")
+    void shouldListPaymentsForAdminAsynchronously() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/payments")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+    }
+}
@@ -0,0 +1,72 @@
+package com.dev.payment_service.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money and CurrencyUnits Unit Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should use each currency's minor-unit exponent")
+    void testExponents() {
+        assertEquals(2, CurrencyUnits.exponent("usd"));
+        assertEquals(2, CurrencyUnits.exponent("EUR"));
+        assertEquals(0, CurrencyUnits.exponent("jpy"));
+        assertEquals(0, CurrencyUnits.exponent("KRW"));
+        assertEquals(3, CurrencyUnits.exponent("kwd"));
+        assertEquals(3, CurrencyUnits.exponent("bhd"));
+    }
+
+    @Test
+    @DisplayName("Should convert amounts to minor units exactly")
+    void testToMinor() {
+        assertEquals(10050L, Money.of(new BigDecimal("100.50"), "usd").minorUnits());
+        assertEquals(100L, Money.of(new BigDecimal("100"), "jpy").minorUnits());
+        assertEquals(100L, Money.of(new BigDecimal("100.00"), "jpy").minorUnits());
+        assertEquals(1234L, Money.of(new BigDecimal("1.234"), "kwd").minorUnits());
+        assertEquals(99999999L, Money.of(new BigDecimal("999999.99"), "usd").minorUnits());
+    }
+
+    @Test
+    @DisplayName("Should reject excess precision and invalid currency codes")
+    void testRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("100.5"), "jpy"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.001"), "usd"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.00"), "us"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.00"), "u5d"));
+    }
+
+    @Test
+    @DisplayName("Should convert minor units back to a scaled amount")
+    void testToMajor() {
+        assertEquals(new BigDecimal("100.50"), new Money(10050L, "usd").toBigDecimal());
+        assertEquals(new BigDecimal("500"), CurrencyUnits.toMajor(500L, "jpy"));
+        assertEquals(new BigDecimal("1.234"), CurrencyUnits.toMajor(1234L, "kwd"));
+    }
+
+    @Test
+    @DisplayName("Should precompute rounded filter bounds for every exponent")
+    void testBoundsByExponent() {
+        long[] min = CurrencyUnits.boundsByExponent(new BigDecimal("10.005"), RoundingMode.CEILING);
+        assertArrayEquals(new long[]{11L, 101L, 1001L, 10005L}, min);
+
+        long[] max = CurrencyUnits.boundsByExponent(new BigDecimal("10.005"), RoundingMode.FLOOR);
+        assertArrayEquals(new long[]{10L, 100L, 1000L, 10005L}, max);
+
+        long[] huge = CurrencyUnits.boundsByExponent(new BigDecimal("1e30"), RoundingMode.FLOOR);
+        assertEquals(Long.MAX_VALUE, huge[2]);
+    }
+
+    @Test
+    @DisplayName("Should refuse to compare different currencies")
+    void testCompareTo() {
+        assertTrue(new Money(100L, "usd").compareTo(new Money(200L, "usd")) < 0);
+        assertThrows(IllegalArgumentException.class,
+            () -> new Money(100L, "usd").compareTo(new Money(100L, "eur")));
+    }
+}
@@ -0,0 +1,82 @@
+package com.dev.payment_service.security;
+
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtUtil and JwtTokenVerifier Unit Tests")
+class JwtUtilTest {
+
+    private JwtTokenVerifier verifier;
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new JwtTokenVerifier("testSecretKeyForJWTTokenGenerationAndValidation1234567890");
+        jwtUtil = new JwtUtil(verifier, 60_000L);
+
+        user = new User();
+        user.setUsername("customer@test.com");
+        user.setUserRole(UserRole.CUSTOMER);
+        user.setTokenVersion(3);
+    }
+
+    @Test
+    @DisplayName("Should carry roles as strings and the token version in the claims")
+    void testGeneratedClaims() {
+        Claims claims = verifier.verify(jwtUtil.generateToken(user));
+
+        assertEquals("customer@test.com", claims.getSubject());
+        assertEquals(List.of("ROLE_CUSTOMER"), JwtUtil.extractRoles(claims));
+        assertEquals(3L, JwtUtil.extractTokenVersion(claims));
+    }
+
+    @Test
+    @DisplayName("Should read roles and version from tokens issued before the claim format changed")
+    void testLegacyClaims() {
+        Claims claims = Jwts.claims()
+                .subject("admin@test.com")
+                .add(JwtUtil.ROLES_CLAIM, List.of(Map.of("authority", "ROLE_ADMIN")))
+                .build();
+
+        assertEquals(List.of("ROLE_ADMIN"), JwtUtil.extractRoles(claims));
+        assertEquals(0L, JwtUtil.extractTokenVersion(claims));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens")
+    void testTamperedToken() {
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> verifier.verify(tampered));
+    }
+
+    @Test
+    @DisplayName("Should reject tokens signed with a different secret")
+    void testForeignKey() {
+        JwtUtil otherIssuer = new JwtUtil(new JwtTokenVerifier("anotherSecretKeyForJWTTokenGenerationAndValidation0987654321"), 60_000L);
+
+        assertThrows(JwtException.class, () -> verifier.verify(otherIssuer.generateToken(user)));
+    }
+
+    @Test
+    @DisplayName("Should reject expired tokens")
+    void testExpiredToken() {
+        JwtUtil expiredIssuer = new JwtUtil(verifier, -1_000L);
+
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(expiredIssuer.generateToken(user)));
+    }
+}
@@ -0,0 +1,147 @@
+package com.dev.payment_service.security;
+
+import com.dev.payment_service.config.PaymentRateLimitProperties;
+import com.dev.payment_service.enums.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PaymentRateLimitFilter Unit Tests")
+class PaymentRateLimitFilterTest {
+
+    private PaymentRateLimitProperties properties;
+    private PaymentRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PaymentRateLimitProperties();
+        properties.setIp(new PaymentRateLimitProperties.Limit(60, 5));
+        properties.getRoles().put(UserRole.CUSTOMER, new PaymentRateLimitProperties.Limit(60, 2));
+        filter = new PaymentRateLimitFilter(properties, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should allow the burst, then refill at the sustained rate")
+    void testBucketBurstAndRefill() {
+        PaymentRateLimitFilter.Bucket bucket = new PaymentRateLimitFilter.Bucket(60, 3);
+        long now = 0;
+
+        assertEquals(2, bucket.tryAcquire(now).remaining());
+        assertEquals(1, bucket.tryAcquire(now).remaining());
+        assertEquals(0, bucket.tryAcquire(now).remaining());
+
+        PaymentRateLimitFilter.Decision rejected = bucket.tryAcquire(now);
+        assertFalse(rejected.allowed());
+        assertEquals(1, rejected.retryAfterSeconds());
+
+        assertTrue(bucket.tryAcquire(now + TimeUnit.SECONDS.toNanos(1)).allowed());
+        assertFalse(bucket.isFull(now + TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(bucket.isFull(now + TimeUnit.SECONDS.toNanos(4)));
+    }
+
+    @Test
+    @DisplayName("Should limit by the user's role and answer 429 with Retry-After")
+    void testPerUserLimit() throws Exception {
+        authenticate("customer@test.com", "ROLE_CUSTOMER");
+
+        MockHttpServletResponse first = perform("10.0.0.1");
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader("RateLimit-Limit"));
+        assertEquals("1", first.getHeader("RateLimit-Remaining"));
+
+        assertEquals(200, perform("10.0.0.2").getStatus());
+
+        MockHttpServletResponse rejected = perform("10.0.0.3");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("0", rejected.getHeader("RateLimit-Remaining"));
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Payment rate limit exceeded"));
+    }
+
+    @Test
+    @DisplayName("Should limit by client IP across users")
+    void testPerIpLimit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            authenticate("user" + i + "@test.com", "ROLE_CUSTOMER");
+            assertEquals(200, perform("10.0.0.1").getStatus());
+        }
+
+        authenticate("user5@test.com", "ROLE_CUSTOMER");
+        assertEquals(429, perform("10.0.0.1").getStatus());
+        assertEquals(200, perform("10.0.0.9").getStatus());
+    }
+
+    @Test
+    @DisplayName("Should give the IP token back when the user's own limit rejects the request")
+    void testUserRejectionRefundsIpToken() throws Exception {
+        authenticate("throttled@test.com", "ROLE_CUSTOMER");
+        for (int i = 0; i < 6; i++) {
+            perform("10.0.0.1");
+        }
+
+        for (int i = 0; i < 3; i++) {
+            authenticate("other" + i + "@test.com", "ROLE_CUSTOMER");
+            assertEquals(200, perform("10.0.0.1").getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Should only apply to payment initiation and when enabled")
+    void testSkipsOtherRequests() throws Exception {
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/v1/payments");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(get, response, new MockFilterChain());
+        assertNull(response.getHeader("RateLimit-Limit"));
+
+        properties.setEnabled(false);
+        assertNull(perform("10.0.0.1").getHeader("RateLimit-Limit"));
+        assertEquals(0, filter.trackedBuckets());
+    }
+
+    @Test
+    @DisplayName("Should purge buckets that have fully refilled")
+    void testPurgeIdleBuckets() throws Exception {
+        properties.setIp(new PaymentRateLimitProperties.Limit(Integer.MAX_VALUE, 1));
+        properties.getRoles().put(UserRole.CUSTOMER, new PaymentRateLimitProperties.Limit(Integer.MAX_VALUE, 1));
+        authenticate("customer@test.com", "ROLE_CUSTOMER");
+        perform("10.0.0.1");
+        assertEquals(2, filter.trackedBuckets());
+
+        Thread.sleep(1);
+        filter.purgeIdleBuckets();
+
+        assertEquals(0, filter.trackedBuckets());
+    }
+
+    private MockHttpServletResponse perform(String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/payments");
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+}
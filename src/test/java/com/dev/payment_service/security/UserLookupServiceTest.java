@@ -0,0 +1,107 @@
+package com.dev.payment_service.security;
+
+import com.dev.payment_service.config.CacheConfig;
+import com.dev.payment_service.dto.CacheStatsResponse;
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.model.User;
+import com.dev.payment_service.repository.UserRepository;
+import com.dev.payment_service.service.CacheStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(classes = {CacheConfig.class, UserLookupService.class, CacheStatsService.class})
+@DisplayName("UserLookupService Unit Tests")
+class UserLookupServiceTest {
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(UserLookupService.USERS_CACHE).clear();
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("customer@test.com");
+        user.setPassword("hash");
+        user.setUserRole(UserRole.CUSTOMER);
+        when(userRepository.findByUsername("customer@test.com")).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Should query the database once for repeated lookups")
+    void testRepeatedLookupsAreCached() {
+        // Statistics accumulate over the shared context
+        long hitsBefore = cacheStatsService.stats().get(0).getHitCount();
+
+        for (int i = 0; i < 3; i++) {
+            UserLookupService.CachedUser cached = userLookupService.findByUsername("customer@test.com").orElseThrow();
+            assertEquals(UserRole.CUSTOMER, cached.userRole());
+            assertEquals("ROLE_CUSTOMER", cached.toUserDetails().getAuthorities().iterator().next().getAuthority());
+        }
+
+        verify(userRepository, times(1)).findByUsername("customer@test.com");
+
+        CacheStatsResponse stats = cacheStatsService.stats().get(0);
+        assertEquals(UserLookupService.USERS_CACHE, stats.getName());
+        assertEquals(hitsBefore + 2, stats.getHitCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown usernames")
+    void testMissesAreNotCached() {
+        when(userRepository.findByUsername("new@test.com")).thenReturn(Optional.empty());
+
+        assertTrue(userLookupService.findByUsername("new@test.com").isEmpty());
+        assertTrue(userLookupService.findByUsername("new@test.com").isEmpty());
+
+        verify(userRepository, times(2)).findByUsername("new@test.com");
+    }
+
+    @Test
+    @DisplayName("Should evict the entry when the user is saved")
+    void testSaveEvicts() {
+        userLookupService.findByUsername("customer@test.com");
+        user.setTokenVersion(3);
+        userLookupService.save(user);
+
+        assertEquals(3, userLookupService.findByUsername("customer@test.com").orElseThrow().tokenVersion());
+        verify(userRepository, times(2)).findByUsername("customer@test.com");
+    }
+
+    @Test
+    @DisplayName("Should clear a cache by name and reject unknown names")
+    void testClear() {
+        userLookupService.findByUsername("customer@test.com");
+
+        cacheStatsService.clear(UserLookupService.USERS_CACHE);
+        userLookupService.findByUsername("customer@test.com");
+
+        verify(userRepository, times(2)).findByUsername("customer@test.com");
+        assertThrows(NoSuchElementException.class, () -> cacheStatsService.clear("unknown"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.dev.payment_service.security;
+
+import com.dev.payment_service.enums.UserRole;
+import com.dev.payment_service.model.User;
+import com.dev.payment_service.security.VerifiedTokenCache.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("VerifiedTokenCache Unit Tests")
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    private JwtTokenVerifier verifier;
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        verifier = spy(new JwtTokenVerifier("testSecretKeyForJWTTokenGenerationAndValidation1234567890"));
+        jwtUtil = new JwtUtil(verifier, 60_000L);
+
+        user = new User();
+        user.setUsername("customer@test.com");
+        user.setUserRole(UserRole.CUSTOMER);
+        user.setTokenVersion(2);
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeats from the cache")
+    void testRepeatTokenIsCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(verifier, 100, ticker);
+        String token = jwtUtil.generateToken(user);
+
+        VerifiedToken first = cache.resolve(token);
+        VerifiedToken second = cache.resolve(token);
+
+        assertSame(first, second);
+        assertEquals("customer@test.com", first.username());
+        assertEquals(2L, first.tokenVersion());
+        assertEquals("ROLE_CUSTOMER", first.principal().getAuthorities().iterator().next().getAuthority());
+        verify(verifier, times(1)).verify(anyString());
+    }
+
+    @Test
+    @DisplayName("Should drop cached tokens once they reach their expiry")
+    void testEntryExpiresWithToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(verifier, 100, ticker);
+        String token = jwtUtil.generateToken(user);
+
+        cache.resolve(token);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+        assertEquals(0, cache.size());
+        cache.resolve(token);
+        verify(verifier, times(2)).verify(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not cache tokens that fail verification")
+    void testInvalidTokenIsNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(verifier, 100, ticker);
+        String valid = jwtUtil.generateToken(user);
+        int signatureStart = valid.lastIndexOf('.') + 1;
+        String token = valid.substring(0, signatureStart)
+                + (valid.charAt(signatureStart) == 'A' ? 'B' : 'A') + valid.substring(signatureStart + 1);
+
+        assertThrows(JwtException.class, () -> cache.resolve(token));
+        assertThrows(JwtException.class, () -> cache.resolve(token));
+        verify(verifier, times(2)).verify(anyString());
+    }
+
+    @Test
+    @DisplayName("Should keep at most the configured number of tokens")
+    void testCacheIsBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(verifier, 5, ticker);
+
+        for (int i = 0; i < 50; i++) {
+            user.setUsername("user-" + i);
+            cache.resolve(jwtUtil.generateToken(user));
+        }
+
+        assertTrue(cache.size() <= 5);
+    }
+}
@@ -0,0 +1,181 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.config.AdmissionProperties;
+import com.dev.payment_service.service.AdmissionController.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdmissionController Unit Tests")
+class AdmissionControllerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdmissionProperties properties = new AdmissionProperties();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private Timer acquire;
+    private Counter timeouts;
+    private AdmissionController controller;
+
+    @BeforeEach
+    void setUp() {
+        acquire = Timer.builder("hikaricp.connections.acquire").tag("pool", "primary").register(registry);
+        timeouts = Counter.builder("hikaricp.connections.timeout").tag("pool", "primary").register(registry);
+        Gauge.builder("hikaricp.connections.pending", pending, AtomicInteger::get).tag("pool", "primary").register(registry);
+        controller = new AdmissionController(properties, registry, clock::get);
+        controller.sample();
+    }
+
+    @Test
+    @DisplayName("Should shed the admin listing before new payments as connection waits grow")
+    void testShedsLowPriorityFirst() {
+        recordAcquires(10, Duration.ofMillis(100));
+        controller.sample();
+
+        assertTrue(controller.isShedding(Priority.LOW));
+        assertFalse(controller.isShedding(Priority.PAYMENTS));
+        assertFalse(controller.tryAdmit(Priority.LOW));
+        assertTrue(controller.tryAdmit(Priority.PAYMENTS));
+
+        recordAcquires(10, Duration.ofMillis(2500));
+        controller.sample();
+
+        assertTrue(controller.isShedding(Priority.PAYMENTS));
+        assertFalse(controller.tryAdmit(Priority.PAYMENTS));
+        assertEquals(1, registry.get("admission.rejected").tag("priority", "low").counter().count());
+        assertEquals(1, registry.get("admission.rejected").tag("priority", "payments").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should shed on the number of callers queued for a connection and on acquire timeouts")
+    void testPendingAndTimeouts() {
+        pending.set(60);
+        controller.sample();
+        assertTrue(controller.isShedding(Priority.PAYMENTS));
+        assertTrue(controller.isShedding(Priority.LOW));
+
+        AdmissionController fresh = new AdmissionController(properties, new SimpleMeterRegistry(), clock::get);
+        fresh.update(0, 0, true);
+        assertTrue(fresh.isShedding(Priority.PAYMENTS));
+        assertTrue(fresh.isShedding(Priority.LOW));
+    }
+
+    @Test
+    @DisplayName("Should keep shedding until the pool has been healthy for the recovery period, readmitting low priority last")
+    void testRecovery() {
+        timeouts.increment();
+        controller.sample();
+        assertTrue(controller.isShedding(Priority.PAYMENTS));
+
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        controller.sample();
+        assertTrue(controller.isShedding(Priority.PAYMENTS));
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        controller.sample();
+        assertFalse(controller.isShedding(Priority.PAYMENTS));
+        assertTrue(controller.isShedding(Priority.LOW));
+        assertEquals(0.0, registry.get("admission.shedding").tag("priority", "payments").gauge().value());
+
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        controller.sample();
+        assertFalse(controller.isShedding(Priority.LOW));
+    }
+
+    @Test
+    @DisplayName("Should cap requests in flight per priority and free the slot on release")
+    void testInFlightCap() {
+        properties.getLowPriority().setMaxInFlight(2);
+
+        assertTrue(controller.tryAdmit(Priority.LOW));
+        assertTrue(controller.tryAdmit(Priority.LOW));
+        assertFalse(controller.tryAdmit(Priority.LOW));
+        assertEquals(2.0, registry.get("admission.in_flight").tag("priority", "low").gauge().value());
+
+        controller.release(Priority.LOW);
+        assertTrue(controller.tryAdmit(Priority.LOW));
+    }
+
+    @Test
+    @DisplayName("Should judge each priority by its own workload pool")
+    void testPerPool() {
+        AtomicInteger adminPending = new AtomicInteger();
+        Gauge.builder("hikaricp.connections.pending", adminPending, AtomicInteger::get).tag("pool", "admin").register(registry);
+        Timer payments = Timer.builder("hikaricp.connections.acquire").tag("pool", "payments").register(registry);
+        controller.sample();
+
+        adminPending.set(100);
+        payments.record(Duration.ofMillis(10));
+        controller.sample();
+
+        assertTrue(controller.isShedding(Priority.LOW));
+        assertFalse(controller.isShedding(Priority.PAYMENTS));
+        assertEquals(10.0, registry.get("admission.db.acquire_wait").tag("priority", "payments").gauge().value(), 0.5);
+    }
+
+    @Test
+    @DisplayName("Should count only the priority's own workload queue for the concurrency cap")
+    void testPerWorkloadCapQueue() {
+        AtomicInteger adminWaiting = new AtomicInteger();
+        AtomicInteger paymentsWaiting = new AtomicInteger();
+        Timer.builder("hikaricp.connections.acquire").tag("pool", "admin").register(registry);
+        Timer.builder("hikaricp.connections.acquire").tag("pool", "payments").register(registry);
+        Gauge.builder("db.concurrency.waiting", adminWaiting, AtomicInteger::get).tag("workload", "admin").register(registry);
+        Gauge.builder("db.concurrency.waiting", paymentsWaiting, AtomicInteger::get).tag("workload", "payments").register(registry);
+        controller.sample();
+
+        adminWaiting.set(100);
+        controller.sample();
+        assertTrue(controller.isShedding(Priority.LOW));
+        assertFalse(controller.isShedding(Priority.PAYMENTS));
+
+        paymentsWaiting.set(60);
+        controller.sample();
+        assertTrue(controller.isShedding(Priority.PAYMENTS));
+    }
+
+    @Test
+    @DisplayName("Should sample on its own thread once started")
+    void testOwnSamplerThread() throws InterruptedException {
+        properties.setSampleInterval(Duration.ofMillis(10));
+        controller.start();
+        try {
+            pending.set(60);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!controller.isShedding(Priority.PAYMENTS) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(controller.isShedding(Priority.PAYMENTS));
+        } finally {
+            controller.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should admit everything when disabled")
+    void testDisabled() {
+        properties.setEnabled(false);
+        pending.set(100);
+        controller.sample();
+
+        assertTrue(controller.tryAdmit(Priority.LOW));
+        assertTrue(controller.tryAdmit(Priority.PAYMENTS));
+    }
+
+    private void recordAcquires(int count, Duration each) {
+        for (int i = 0; i < count; i++) {
+            acquire.record(each);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.dto.FlightRecordingResponse;
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.model.Transaction;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FlightRecordingService Unit Tests")
+class FlightRecordingServiceTest {
+
+    private FlightRecordingService flightRecordingService;
+
+    @BeforeEach
+    void setUp() {
+        flightRecordingService = new FlightRecordingService(Duration.ofMinutes(5), Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRecordingService.close();
+    }
+
+    @Test
+    @DisplayName("Should record payment phase events and dump them to a file")
+    void testRecordAndDump() throws Exception {
+        FlightRecordingResponse started = flightRecordingService.start("default");
+        assertEquals("RUNNING", started.getState());
+        assertEquals(started.getId(), flightRecordingService.start("profile").getId());
+
+        Transaction tx = new Transaction();
+        tx.setId(42L);
+        tx.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        tx.setStripeAccount("default");
+        PaymentPhaseEvent event = PaymentPhaseEvent.begin(PaymentPhaseEvent.STRIPE);
+        event.end(tx);
+
+        Path file = flightRecordingService.dump();
+        try {
+            List<RecordedEvent> phases = RecordingFile.readAllEvents(file).stream()
+                    .filter(recorded -> recorded.getEventType().getName().equals("com.dev.payment_service.PaymentPhase"))
+                    .toList();
+            assertEquals(1, phases.size());
+            assertEquals("stripe", phases.get(0).getString("phase"));
+            assertEquals(42L, phases.get(0).getLong("transactionId"));
+            assertEquals("CREDIT_CARD", phases.get(0).getString("paymentMethod"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report missing recordings and unknown settings")
+    void testErrors() {
+        assertThrows(NoSuchElementException.class, () -> flightRecordingService.status());
+        assertThrows(NoSuchElementException.class, () -> flightRecordingService.dump());
+        assertThrows(IllegalArgumentException.class, () -> flightRecordingService.start("no-such-settings"));
+
+        flightRecordingService.start("default");
+        flightRecordingService.stop();
+
+        assertThrows(NoSuchElementException.class, () -> flightRecordingService.stop());
+    }
+}
@@ -0,0 +1,56 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.security.PaymentRateLimitFilter;
+import com.dev.payment_service.security.TokenRevocationService;
+import com.dev.payment_service.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InMemoryStateMetrics Unit Tests")
+class InMemoryStateMetricsTest {
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private PaymentRateLimitFilter paymentRateLimitFilter;
+
+    @Mock
+    private LatencyHistograms latencyHistograms;
+
+    @InjectMocks
+    private InMemoryStateMetrics inMemoryStateMetrics;
+
+    @Test
+    @DisplayName("Should report the current size of each in-memory structure")
+    void testBindTo() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        inMemoryStateMetrics.bindTo(registry);
+
+        when(verifiedTokenCache.size()).thenReturn(3L);
+        when(tokenRevocationService.trackedUsers()).thenReturn(1);
+        when(paymentRateLimitFilter.trackedBuckets()).thenReturn(7);
+        when(latencyHistograms.seriesCount()).thenReturn(5);
+
+        assertEquals(3.0, entries(registry, "verified_tokens"));
+        assertEquals(1.0, entries(registry, "revoked_token_versions"));
+        assertEquals(7.0, entries(registry, "payment_rate_limit_buckets"));
+        assertEquals(5.0, entries(registry, "latency_series"));
+    }
+
+    private static double entries(SimpleMeterRegistry registry, String structure) {
+        return registry.get("inmemory.entries").tag("structure", structure).gauge().value();
+    }
+}
@@ -0,0 +1,78 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.dto.LatencyWindowResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatencyHistograms Unit Tests")
+class LatencyHistogramsTest {
+
+    // 10s intervals: 6 make up the 1 minute window, 30 the 5 minute window
+    private final LatencyHistograms histograms =
+            new LatencyHistograms(10_000, Duration.ofMillis(500), Duration.ofSeconds(2));
+
+    @Test
+    @DisplayName("Should report percentiles once the interval is rotated in")
+    void testPercentiles() {
+        for (int i = 1; i <= 1000; i++) {
+            histograms.record("POST /api/v1/payments", TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(0, window("POST /api/v1/payments", 60).getCount());
+
+        histograms.rotate();
+
+        LatencyWindowResponse minute = window("POST /api/v1/payments", 60);
+        assertEquals(1000, minute.getCount());
+        assertEquals(500, minute.getP50Millis(), 5);
+        assertEquals(990, minute.getP99Millis(), 10);
+        assertEquals(999, minute.getP999Millis(), 10);
+        assertFalse(minute.isWithinSlo());
+        assertEquals(500, minute.getP99TargetMillis());
+    }
+
+    @Test
+    @DisplayName("Should drop intervals older than the window")
+    void testRollingWindows() {
+        histograms.record("GET /api/v1/payments/{id}", TimeUnit.MILLISECONDS.toNanos(20));
+        histograms.rotate();
+        for (int i = 0; i < 6; i++) {
+            histograms.rotate();
+        }
+
+        assertEquals(0, window("GET /api/v1/payments/{id}", 60).getCount());
+        assertEquals(1, window("GET /api/v1/payments/{id}", 300).getCount());
+        assertTrue(window("GET /api/v1/payments/{id}", 300).isWithinSlo());
+
+        for (int i = 0; i < 30; i++) {
+            histograms.rotate();
+        }
+        assertEquals(0, window("GET /api/v1/payments/{id}", 300).getCount());
+    }
+
+    @Test
+    @DisplayName("Should judge Stripe operations against the Stripe objective and clamp outliers")
+    void testStripeTargetAndClamp() {
+        histograms.record("stripe PaymentIntent.create", TimeUnit.SECONDS.toNanos(1));
+        histograms.record("stripe PaymentIntent.create", TimeUnit.MINUTES.toNanos(5));
+        histograms.rotate();
+
+        LatencyWindowResponse minute = window("stripe PaymentIntent.create", 60);
+        assertEquals(2, minute.getCount());
+        assertEquals(2000, minute.getP99TargetMillis());
+        assertEquals(60_000, minute.getMaxMillis(), 600);
+    }
+
+    private LatencyWindowResponse window(String name, long seconds) {
+        List<LatencyWindowResponse> snapshot = histograms.snapshot();
+        return snapshot.stream()
+                .filter(response -> response.getName().equals(name) && response.getWindowSeconds() == seconds)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,112 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.model.Transaction;
+import com.stripe.model.Event;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PaymentMetrics Unit Tests")
+class PaymentMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private PaymentMetrics paymentMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        paymentMetrics = new PaymentMetrics(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should count each status change once, starting from creation")
+    void testRecordTransition() {
+        Transaction tx = new Transaction();
+        tx.setStatus(PaymentStatus.PENDING);
+
+        paymentMetrics.recordTransition(tx);
+        paymentMetrics.recordTransition(tx);
+        tx.setStatus(PaymentStatus.COMPLETED);
+        paymentMetrics.recordTransition(tx);
+
+        assertEquals(1.0, transitions("NONE", "PENDING"));
+        assertEquals(1.0, transitions("PENDING", "COMPLETED"));
+        assertEquals(0.0, transitions("PENDING", "FAILED"));
+    }
+
+    @Test
+    @DisplayName("Should count explicit transitions at once, outside any transaction")
+    void testRecordExplicitTransition() {
+        paymentMetrics.recordTransition(null, PaymentStatus.PENDING);
+        paymentMetrics.recordTransition(PaymentStatus.PENDING, PaymentStatus.PENDING);
+        paymentMetrics.recordTransition(PaymentStatus.PENDING, PaymentStatus.COMPLETED);
+
+        assertEquals(1.0, transitions("NONE", "PENDING"));
+        assertEquals(1.0, transitions("PENDING", "COMPLETED"));
+        assertEquals(0.0, transitions("PENDING", "PENDING"));
+    }
+
+    @Test
+    @DisplayName("Should start from the loaded status for persisted transactions")
+    void testRecordTransitionAfterLoad() {
+        Transaction tx = new Transaction();
+        tx.setStatus(PaymentStatus.PENDING);
+        tx.postLoad();
+
+        tx.setStatus(PaymentStatus.FAILED);
+        paymentMetrics.recordTransition(tx);
+
+        assertEquals(0.0, transitions("NONE", "PENDING"));
+        assertEquals(1.0, transitions("PENDING", "FAILED"));
+    }
+
+    @Test
+    @DisplayName("Should only count a transition once its transaction commits")
+    void testRecordTransitionAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        Transaction tx = new Transaction();
+        tx.setStatus(PaymentStatus.PENDING);
+
+        paymentMetrics.recordTransition(tx);
+        assertEquals(0.0, transitions("NONE", "PENDING"));
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(1.0, transitions("NONE", "PENDING"));
+    }
+
+    @Test
+    @DisplayName("Should record webhook lag from the event creation time")
+    void testRecordWebhookLag() {
+        Event event = new Event();
+        event.setType("payment_intent.succeeded");
+        event.setCreated(System.currentTimeMillis() / 1000 - 30);
+
+        paymentMetrics.recordWebhookLag(event);
+
+        double lagSeconds = registry.get("payments.webhook.lag")
+                .tag("type", "payment_intent.succeeded")
+                .timer()
+                .totalTime(TimeUnit.SECONDS);
+        assertTrue(lagSeconds >= 29 && lagSeconds < 60, "lag was " + lagSeconds);
+    }
+
+    private double transitions(String from, String to) {
+        return registry.get("payments.status.transitions").tag("from", from).tag("to", to).counter().count();
+    }
+}
@@ -6,6 +6,7 @@ import com.dev.payment_service.dto.PaymentInitiationRequest;
 import com.dev.payment_service.dto.PaymentInitiationResponse;
 import com.dev.payment_service.enums.PaymentMethod;
 import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.model.Money;
 import com.dev.payment_service.model.Transaction;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
@@ -24,6 +25,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +42,12 @@ class PaymentServiceTest {
     @Mock
     private StripeService stripeService;
 
+    @Mock
+    private StripeRetryScheduler retryScheduler;
+
+    @Mock
+    private StripeAccountRouter accountRouter;
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -124,7 +133,7 @@ class PaymentServiceTest {
             .thenReturn(Optional.empty());
         when(transactionService.createTransaction(any(Transaction.class)))
             .thenReturn(testTransaction);
-        when(stripeService.processCreditCardPayment(any(), anyString(), any(), anyString()))
+        when(stripeService.processCreditCardPayment(any(), any(), any(), anyString()))
             .thenReturn(paymentIntent);
         when(transactionService.updateTransaction(any(Transaction.class)))
             .thenReturn(testTransaction);
@@ -133,7 +142,7 @@ class PaymentServiceTest {
         assertNotNull(response);
         assertEquals("1", response.getTransactionId());
         verify(transactionService).createTransaction(any(Transaction.class));
-        verify(stripeService).processCreditCardPayment(any(), anyString(), any(), anyString());
+        verify(stripeService).processCreditCardPayment(any(), any(), any(), anyString());
         verify(transactionService).updateTransaction(any(Transaction.class));
     }
 
@@ -148,7 +157,7 @@ class PaymentServiceTest {
             .thenReturn(Optional.empty());
         when(transactionService.createTransaction(any(Transaction.class)))
             .thenReturn(testTransaction);
-        when(stripeService.processBankTransferPayment(any(), anyString(), any(), anyString()))
+        when(stripeService.processBankTransferPayment(any(), any(), any(), anyString(), any()))
             .thenReturn(paymentIntent);
         when(transactionService.updateTransaction(any(Transaction.class)))
             .thenReturn(testTransaction);
@@ -156,7 +165,7 @@ class PaymentServiceTest {
             paymentRequest, "idempotency-key-456");
         assertNotNull(response);
         verify(transactionService).createTransaction(any(Transaction.class));
-        verify(stripeService).processBankTransferPayment(any(), anyString(), any(), anyString());
+        verify(stripeService).processBankTransferPayment(any(), any(), any(), anyString(), any());
     }
 
     @Test
@@ -168,7 +177,7 @@ class PaymentServiceTest {
             .thenReturn(testTransaction);
 
         StripeException stripeException = new StripeException("Card declined", "request-123", "card_declined", 402) {};
-        when(stripeService.processCreditCardPayment(any(), anyString(), any(), anyString()))
+        when(stripeService.processCreditCardPayment(any(), any(), any(), anyString()))
             .thenThrow(stripeException);
 
         when(transactionService.updateTransaction(any(Transaction.class)))
@@ -181,6 +190,50 @@ class PaymentServiceTest {
         verify(transactionService).updateTransaction(any(Transaction.class));
     }
 
+    @Test
+    @DisplayName("Should keep payment pending and schedule a retry on transient Stripe error")
+    void testInitiatePaymentCreditCardTransientStripeException() throws StripeException {
+        when(transactionService.findByIdempotencyKey(anyString()))
+            .thenReturn(Optional.empty());
+        when(transactionService.createTransaction(any(Transaction.class)))
+            .thenReturn(testTransaction);
+
+        StripeException stripeException = new StripeException("Server error", "request-123", "api_error", 503) {};
+        when(stripeService.processCreditCardPayment(any(), any(), any(), anyString()))
+            .thenThrow(stripeException);
+        when(retryScheduler.isRetryable(stripeException)).thenReturn(true);
+        retrySucceeds(paymentIntent);
+
+        PaymentInitiationResponse response = paymentService.initiatePayment(
+            paymentRequest, "idempotency-key-789");
+
+        assertEquals("PENDING", response.getStatus());
+        assertEquals(PaymentService.RETRY_PENDING_REFERENCE, response.getProviderReferenceId());
+        verify(transactionService).updateProviderResult(1L, "pi_test123", PaymentStatus.COMPLETED, "STRIPE_RETRY");
+    }
+
+    @Test
+    @DisplayName("Should not propagate a failed update of the retry result")
+    void testRetryResultUpdateFailure() throws StripeException {
+        when(transactionService.findByIdempotencyKey(anyString()))
+            .thenReturn(Optional.empty());
+        when(transactionService.createTransaction(any(Transaction.class)))
+            .thenReturn(testTransaction);
+
+        StripeException stripeException = new StripeException("Server error", "request-123", "api_error", 503) {};
+        when(stripeService.processCreditCardPayment(any(), any(), any(), anyString()))
+            .thenThrow(stripeException);
+        when(retryScheduler.isRetryable(stripeException)).thenReturn(true);
+        retrySucceeds(paymentIntent);
+        doThrow(new IllegalStateException("Database unavailable"))
+            .when(transactionService).updateProviderResult(any(), any(), any(), any());
+
+        PaymentInitiationResponse response = assertDoesNotThrow(
+            () -> paymentService.initiatePayment(paymentRequest, "idempotency-key-790"));
+
+        assertEquals(PaymentService.RETRY_PENDING_REFERENCE, response.getProviderReferenceId());
+    }
+
     @Test
     @DisplayName("Should get payment by ID")
     void testGetPaymentById() {
@@ -203,6 +256,20 @@ class PaymentServiceTest {
 
         assertEquals("Payment not found with id: 999", exception.getMessage());
         verify(transactionService).findById(999L);
+        verify(transactionService).findByIdOnPrimary(999L);
+    }
+
+    @Test
+    @DisplayName("Should re-read a payment missing from the replica on the primary")
+    void testGetPaymentByIdFallsBackToPrimary() {
+        when(transactionService.findById(1L))
+            .thenReturn(Optional.empty());
+        when(transactionService.findByIdOnPrimary(1L))
+            .thenReturn(Optional.of(testTransaction));
+
+        PaymentInitiationResponse response = paymentService.getPaymentById(1L);
+
+        assertEquals("1", response.getTransactionId());
     }
 
     @Test
@@ -276,6 +343,48 @@ class PaymentServiceTest {
         assertEquals(new BigDecimal("100.00"), responses.getFirst().getAmount());
     }
 
+    @Test
+    @DisplayName("Should compare amount filters in each currency's minor units")
+    void testGetAllPaymentsFilterByAmountAcrossCurrencies() {
+        Transaction yenTransaction = new Transaction();
+        yenTransaction.setId(2L);
+        yenTransaction.setMoney(Money.of(new BigDecimal("120"), "jpy"));
+        yenTransaction.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        yenTransaction.setStatus(PaymentStatus.COMPLETED);
+        yenTransaction.setProvider("STRIPE");
+        yenTransaction.setCreatedAt(Instant.now());
+
+        Transaction dinarTransaction = new Transaction();
+        dinarTransaction.setId(3L);
+        dinarTransaction.setMoney(Money.of(new BigDecimal("150.001"), "kwd"));
+        dinarTransaction.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        dinarTransaction.setStatus(PaymentStatus.COMPLETED);
+        dinarTransaction.setProvider("STRIPE");
+        dinarTransaction.setCreatedAt(Instant.now());
+
+        when(transactionService.findAll()).thenReturn(Arrays.asList(testTransaction, yenTransaction, dinarTransaction));
+        List<PaymentInitiationResponse> responses = paymentService.getAllPayments(
+            null, null, null, new BigDecimal("99.995"), new BigDecimal("150.00"));
+
+        assertEquals(2, responses.size());
+        assertEquals(new BigDecimal("120"), responses.get(1).getAmount());
+    }
+
+    @Test
+    @DisplayName("Should reject amounts with more decimals than the currency allows")
+    void testInitiatePaymentRejectsExcessPrecision() {
+        paymentRequest.setAmount(new BigDecimal("100.50"));
+        paymentRequest.setCurrency("JPY");
+        when(transactionService.findByIdempotencyKey(anyString()))
+            .thenReturn(Optional.empty());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> paymentService.initiatePayment(paymentRequest, "idempotency-key-123"));
+
+        assertTrue(exception.getMessage().contains("JPY"));
+        verify(transactionService, never()).createTransaction(any());
+    }
+
     @Test
     @DisplayName("Should throw exception for invalid start date format")
     void testGetAllPaymentsInvalidStartDate() {
@@ -323,5 +432,13 @@ class PaymentServiceTest {
         assertNotNull(responses);
         assertEquals(1, responses.size());
     }
-}
 
+    // Runs the completion the scheduler would run on its attempt thread
+    private void retrySucceeds(PaymentIntent intent) {
+        when(retryScheduler.<PaymentIntent>retry(anyString(), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                invocation.<BiConsumer<PaymentIntent, Throwable>>getArgument(3).accept(intent, null);
+                return CompletableFuture.completedFuture(intent);
+            });
+    }
+}
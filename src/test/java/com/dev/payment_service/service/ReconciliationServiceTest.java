@@ -0,0 +1,121 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.enums.PaymentMethod;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import com.dev.payment_service.model.Money;
+import com.dev.payment_service.model.Transaction;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCreateParams;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReconciliationService Unit Tests")
+class ReconciliationServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private StripeService stripeService;
+
+    @InjectMocks
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reconciliationService, "enabled", true);
+        ReflectionTestUtils.setField(reconciliationService, "batchSize", 10);
+    }
+
+    @Test
+    @DisplayName("Should keep reconciling the batch when one row cannot be resolved")
+    void testBadRowDoesNotStopBatch() throws Exception {
+        Transaction removedAccount = pending(1L, "removed", "pi_1");
+        Transaction healthy = pending(2L, "eu", "pi_2");
+        when(transactionService.findStalePendingPaymentIntents(any(Instant.class), eq(10)))
+                .thenReturn(List.of(removedAccount, healthy));
+        when(stripeService.retrievePaymentIntent("removed", "pi_1"))
+                .thenThrow(new IllegalStateException("Unknown Stripe account: removed"));
+        PaymentIntent succeeded = new PaymentIntent();
+        succeeded.setId("pi_2");
+        succeeded.setStatus("succeeded");
+        when(stripeService.retrievePaymentIntent("eu", "pi_2")).thenReturn(succeeded);
+
+        reconciliationService.reconcilePendingPayments();
+
+        verify(transactionService).updateTransactionStatus(2L, PaymentStatus.COMPLETED, "RECONCILIATION");
+    }
+
+    @Test
+    @DisplayName("Should stop the run when the Stripe rate limiter pushes back")
+    void testRateLimitPausesBatch() throws Exception {
+        when(transactionService.findStalePendingPaymentIntents(any(Instant.class), eq(10)))
+                .thenReturn(List.of(pending(1L, "eu", "pi_1"), pending(2L, "eu", "pi_2")));
+        when(stripeService.retrievePaymentIntent("eu", "pi_1"))
+                .thenThrow(new GatewayRateLimitException("Stripe rate limit", Duration.ofSeconds(1)));
+
+        reconciliationService.reconcilePendingPayments();
+
+        verify(stripeService, never()).retrievePaymentIntent("eu", "pi_2");
+    }
+
+    @Test
+    @DisplayName("Should replay a stranded retry under its original idempotency key")
+    void testResumeStrandedRetry() throws Exception {
+        Transaction stranded = pending(3L, "eu", PaymentService.RETRY_PENDING_REFERENCE);
+        stranded.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        stranded.setPaymentMethodRef("pm_card_visa");
+        stranded.setIdempotencyKey("key-3");
+        stranded.setMoney(Money.of(new BigDecimal("10.00"), "eur"));
+        when(transactionService.findStalePending(eq(ReconciliationService.UNRESOLVED_REFERENCES), any(Instant.class), eq(10)))
+                .thenReturn(List.of(stranded));
+        PaymentIntent succeeded = new PaymentIntent();
+        succeeded.setId("pi_3");
+        succeeded.setStatus("succeeded");
+        when(stripeService.replayPaymentIntent(eq("eu"), any(PaymentIntentCreateParams.class), eq("key-3")))
+                .thenReturn(succeeded);
+
+        reconciliationService.reconcilePendingPayments();
+
+        verify(transactionService).updateProviderResult(3L, "pi_3", PaymentStatus.COMPLETED, "RECONCILIATION");
+    }
+
+    @Test
+    @DisplayName("Should fail a stranded retry that never created its payment method")
+    void testAbandonRetryWithoutPaymentMethod() throws Exception {
+        Transaction stranded = pending(4L, "eu", PaymentService.RETRY_PENDING_REFERENCE);
+        stranded.setPaymentMethod(PaymentMethod.BANK_TRANSFER);
+        when(transactionService.findStalePending(eq(ReconciliationService.UNRESOLVED_REFERENCES), any(Instant.class), eq(10)))
+                .thenReturn(List.of(stranded));
+
+        reconciliationService.reconcilePendingPayments();
+
+        verify(transactionService).updateProviderResult(4L, "STRIPE_ERROR:RETRY_ABANDONED", PaymentStatus.FAILED, "RECONCILIATION");
+        verify(stripeService, never()).replayPaymentIntent(any(), any(), any());
+    }
+
+    private static Transaction pending(Long id, String account, String paymentIntentId) {
+        Transaction tx = new Transaction();
+        tx.setId(id);
+        tx.setStatus(PaymentStatus.PENDING);
+        tx.setStripeAccount(account);
+        tx.setProviderReferenceId(paymentIntentId);
+        return tx;
+    }
+}
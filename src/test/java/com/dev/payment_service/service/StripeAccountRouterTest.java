@@ -0,0 +1,102 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.config.StripeProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StripeAccountRouter Unit Tests")
+class StripeAccountRouterTest {
+
+    private StripeProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StripeProperties();
+        properties.getAccounts().add(account("eu", List.of("eur"), List.of(), true));
+        properties.getAccounts().add(account("us-1", List.of(), List.of("merchant-a"), true));
+        properties.getAccounts().add(account("us-2", List.of(), List.of(), true));
+    }
+
+    @Test
+    @DisplayName("Should map the legacy single-account configuration to the default account")
+    void testLegacyConfiguration() {
+        StripeProperties legacy = new StripeProperties();
+        legacy.setSecretKey("sk_test_legacy");
+        legacy.getWebhook().setSecret("whsec_legacy");
+
+        StripeAccountRouter router = new StripeAccountRouter(legacy);
+
+        assertEquals(StripeAccountRouter.DEFAULT_ACCOUNT_ID, router.select("usd", "user", "key-1"));
+        assertEquals("sk_test_legacy", router.get(null).secretKey());
+        assertEquals("whsec_legacy", router.get(StripeAccountRouter.DEFAULT_ACCOUNT_ID).webhookSecret());
+    }
+
+    @Test
+    @DisplayName("Should prefer merchant pins over currency mapping")
+    void testMerchantPinWins() {
+        StripeAccountRouter router = new StripeAccountRouter(properties);
+
+        assertEquals("us-1", router.select("eur", "merchant-a", "key-1"));
+        assertEquals("eu", router.select("eur", "merchant-b", "key-1"));
+    }
+
+    @Test
+    @DisplayName("Should route the same key to the same account and spread keys across the pool")
+    void testHashingIsStableAndSpread() {
+        StripeAccountRouter router = new StripeAccountRouter(properties);
+
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            String key = "idempotency-" + i;
+            String account = router.select("usd", null, key);
+            assertEquals(account, router.select("usd", null, key));
+            used.add(account);
+        }
+        assertEquals(Set.of("eu", "us-1", "us-2"), used);
+    }
+
+    @Test
+    @DisplayName("Should only move keys owned by a removed account")
+    void testRemovingAccountKeepsOtherAssignments() {
+        StripeAccountRouter before = new StripeAccountRouter(properties);
+        properties.getAccounts().removeLast();
+        StripeAccountRouter after = new StripeAccountRouter(properties);
+
+        for (int i = 0; i < 200; i++) {
+            String key = "idempotency-" + i;
+            String original = before.select("usd", null, key);
+            if (!original.equals("us-2")) {
+                assertEquals(original, after.select("usd", null, key));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should map legacy account ids to the primary and reject unknown ones")
+    void testUnknownAccount() {
+        StripeAccountRouter router = new StripeAccountRouter(properties);
+
+        assertEquals("eu", router.get(null).id());
+        assertEquals("eu", router.get(StripeAccountRouter.DEFAULT_ACCOUNT_ID).id());
+        assertThrows(IllegalStateException.class, () -> router.get("missing"));
+    }
+
+    private static StripeProperties.Account account(String id, List<String> currencies,
+                                                    List<String> merchants, boolean hashPool) {
+        StripeProperties.Account account = new StripeProperties.Account();
+        account.setId(id);
+        account.setSecretKey("sk_test_" + id);
+        account.setWebhookSecret("whsec_" + id);
+        account.setCurrencies(currencies);
+        account.setMerchants(merchants);
+        account.setHashPool(hashPool);
+        return account;
+    }
+}
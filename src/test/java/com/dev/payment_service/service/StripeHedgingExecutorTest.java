@@ -0,0 +1,156 @@
+package com.dev.payment_service.service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StripeHedgingExecutor Unit Tests")
+class StripeHedgingExecutorTest {
+
+    private StripeHedgingExecutor hedgingExecutor;
+
+    @AfterEach
+    void tearDown() {
+        hedgingExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should not hedge reads that answer before the hedge delay")
+    void testFastReadIsNotHedged() throws StripeException {
+        hedgingExecutor = new StripeHedgingExecutor(4, 200, 10, 100, 10, false);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedgingExecutor.execute("test", () -> {
+            calls.incrementAndGet();
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should return the hedge when the first request is slow")
+    void testSlowReadIsHedged() throws StripeException {
+        hedgingExecutor = new StripeHedgingExecutor(4, 50, 10, 100, 10, false);
+        AtomicInteger calls = new AtomicInteger();
+
+        long start = System.nanoTime();
+        String result = hedgingExecutor.execute("test", () -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(2000);
+                return "slow";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        assertEquals(2, calls.get());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+    }
+
+    @Test
+    @DisplayName("Should wait for the first request when the hedge budget is spent")
+    void testHedgeBudgetExhausted() throws StripeException {
+        hedgingExecutor = new StripeHedgingExecutor(4, 20, 10, 0, 0, false);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedgingExecutor.execute("test", () -> {
+            calls.incrementAndGet();
+            sleep(100);
+            return "slow";
+        });
+
+        assertEquals("slow", result);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should skip the hedge when no rate limit permit is free for it")
+    void testHedgeSkippedWithoutPermit() throws StripeException {
+        hedgingExecutor = new StripeHedgingExecutor(4, 20, 10, 100, 10, false);
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger permitRequests = new AtomicInteger();
+
+        String result = hedgingExecutor.execute("test", () -> {
+            calls.incrementAndGet();
+            sleep(100);
+            return "slow";
+        }, () -> {
+            permitRequests.incrementAndGet();
+            return false;
+        });
+
+        assertEquals("slow", result);
+        assertEquals(1, calls.get());
+        assertEquals(1, permitRequests.get());
+    }
+
+    @Test
+    @DisplayName("Should use the surviving request when one attempt fails")
+    void testHedgeSurvivesFailure() throws StripeException {
+        hedgingExecutor = new StripeHedgingExecutor(4, 20, 10, 100, 10, false);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedgingExecutor.execute("test", () -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(100);
+                throw new ApiConnectionException("Connection reset");
+            }
+            sleep(200);
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+    }
+
+    @Test
+    @DisplayName("Should propagate the Stripe error when the only request fails")
+    void testErrorPropagates() {
+        hedgingExecutor = new StripeHedgingExecutor(4, 500, 10, 100, 10, false);
+
+        assertThrows(ApiConnectionException.class, () -> hedgingExecutor.execute("test", () -> {
+            throw new ApiConnectionException("Connection reset");
+        }));
+    }
+
+    @Test
+    @DisplayName("Should derive the hedge delay from observed latencies")
+    void testHedgeDelayTracksP95() throws StripeException {
+        hedgingExecutor = new StripeHedgingExecutor(4, 5000, 1, 100, 10, false);
+
+        for (int i = 0; i < 40; i++) {
+            hedgingExecutor.execute("test", () -> {
+                sleep(5);
+                return "ok";
+            });
+        }
+        sleep(1100);
+
+        long delayMs = TimeUnit.NANOSECONDS.toMillis(hedgingExecutor.hedgeDelayNanos());
+        assertTrue(delayMs >= 4 && delayMs < 1000, "unexpected hedge delay " + delayMs);
+    }
+
+    @Test
+    @DisplayName("Should run requests on virtual threads when virtual threads are enabled")
+    void testVirtualThreads() throws StripeException {
+        hedgingExecutor = new StripeHedgingExecutor(4, 200, 10, 100, 10, true);
+
+        assertTrue(hedgingExecutor.execute("test", () -> Thread.currentThread().isVirtual()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
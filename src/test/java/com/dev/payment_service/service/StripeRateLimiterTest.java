@@ -0,0 +1,133 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.enums.GatewayPriority;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StripeRateLimiter Unit Tests")
+class StripeRateLimiterTest {
+
+    @Test
+    @DisplayName("Should grant permits up to the burst size without waiting")
+    void testBurstIsGrantedImmediately() {
+        StripeRateLimiter limiter = new StripeRateLimiter(1, 5, 0.0, 0, 0, 10);
+
+        for (int i = 0; i < 5; i++) {
+            assertDoesNotThrow(() -> limiter.acquire("default", GatewayPriority.LIVE));
+        }
+        assertThrows(GatewayRateLimitException.class, () -> limiter.acquire("default", GatewayPriority.LIVE));
+    }
+
+    @Test
+    @DisplayName("Should reject live calls that cannot be served within the max wait")
+    void testLiveRejectedWithRetryAfter() {
+        StripeRateLimiter limiter = new StripeRateLimiter(1, 1, 0.0, 100, 100, 10);
+        limiter.acquire("default", GatewayPriority.LIVE);
+
+        GatewayRateLimitException exception = assertThrows(GatewayRateLimitException.class,
+            () -> limiter.acquire("default", GatewayPriority.LIVE));
+
+        assertTrue(exception.getRetryAfter().toMillis() > 100);
+    }
+
+    @Test
+    @DisplayName("Should queue live calls until a token is refilled")
+    void testLiveWaitsForRefill() {
+        StripeRateLimiter limiter = new StripeRateLimiter(50, 1, 0.0, 1000, 1000, 10);
+        limiter.acquire("default", GatewayPriority.LIVE);
+
+        long start = System.nanoTime();
+        assertDoesNotThrow(() -> limiter.acquire("default", GatewayPriority.LIVE));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+    }
+
+    @Test
+    @DisplayName("Should keep the reserved share for live traffic")
+    void testBackgroundCannotSpendReserve() {
+        StripeRateLimiter limiter = new StripeRateLimiter(1, 4, 0.5, 0, 0, 10);
+
+        limiter.acquire("default", GatewayPriority.BACKGROUND);
+        limiter.acquire("default", GatewayPriority.BACKGROUND);
+        assertThrows(GatewayRateLimitException.class, () -> limiter.acquire("default", GatewayPriority.BACKGROUND));
+
+        assertDoesNotThrow(() -> limiter.acquire("default", GatewayPriority.LIVE));
+        assertDoesNotThrow(() -> limiter.acquire("default", GatewayPriority.LIVE));
+    }
+
+    @Test
+    @DisplayName("Should serve waiting live calls before background calls")
+    void testLivePreemptsBackground() throws Exception {
+        StripeRateLimiter limiter = new StripeRateLimiter(10, 1, 0.0, 2000, 300, 10);
+        limiter.acquire("default", GatewayPriority.LIVE);
+
+        CompletableFuture<Void> live = CompletableFuture.runAsync(() -> limiter.acquire("default", GatewayPriority.LIVE));
+        CompletableFuture<Void> background = CompletableFuture.runAsync(() -> {
+            sleep(20);
+            limiter.acquire("default", GatewayPriority.BACKGROUND);
+        });
+
+        live.get(2, TimeUnit.SECONDS);
+        assertFalse(live.isCompletedExceptionally());
+        assertDoesNotThrow(() -> background.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should reject immediately when the wait queue is full")
+    void testQueueLimit() {
+        StripeRateLimiter limiter = new StripeRateLimiter(1, 1, 0.0, 5000, 5000, 0);
+        limiter.acquire("default", GatewayPriority.LIVE);
+
+        assertThrows(GatewayRateLimitException.class, () -> limiter.acquire("default", GatewayPriority.LIVE));
+    }
+
+    @Test
+    @DisplayName("Should keep a separate bucket per Stripe account")
+    void testBucketsArePerAccount() {
+        StripeRateLimiter limiter = new StripeRateLimiter(1, 1, 0.0, 0, 0, 10);
+        limiter.acquire("eu", GatewayPriority.LIVE);
+
+        assertThrows(GatewayRateLimitException.class, () -> limiter.acquire("eu", GatewayPriority.LIVE));
+        assertDoesNotThrow(() -> limiter.acquire("us", GatewayPriority.LIVE));
+    }
+
+    @Test
+    @DisplayName("Should reject non-blocking acquires at once with the time until a token is free")
+    void testTryAcquireNeverWaits() {
+        StripeRateLimiter limiter = new StripeRateLimiter(1, 2, 0.0, 5000, 5000, 10);
+        limiter.tryAcquire("default", GatewayPriority.LIVE, 2);
+
+        long start = System.nanoTime();
+        GatewayRateLimitException exception = assertThrows(GatewayRateLimitException.class,
+            () -> limiter.tryAcquire("default", GatewayPriority.LIVE, 1));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+        assertTrue(exception.getRetryAfter().toMillis() > 500);
+    }
+
+    @Test
+    @DisplayName("Should answer non-blocking permit checks without throwing")
+    void testTryAcquirePermits() {
+        StripeRateLimiter limiter = new StripeRateLimiter(1, 4, 0.5, 5000, 5000, 10);
+
+        assertTrue(limiter.tryAcquirePermits("default", GatewayPriority.BACKGROUND, 1));
+        assertTrue(limiter.tryAcquirePermits("default", GatewayPriority.BACKGROUND, 1));
+        assertFalse(limiter.tryAcquirePermits("default", GatewayPriority.BACKGROUND, 1));
+        assertTrue(limiter.tryAcquirePermits("default", GatewayPriority.LIVE, 2));
+        assertFalse(limiter.tryAcquirePermits("default", GatewayPriority.LIVE, 1));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.config.WorkloadRoutingDataSource;
+import com.dev.payment_service.enums.Workload;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StripeRetryScheduler Unit Tests")
+class StripeRetrySchedulerTest {
+
+    private StripeRetryScheduler retryScheduler;
+
+    @BeforeEach
+    void setUp() {
+        retryScheduler = new StripeRetryScheduler(1, 4, 10, 50, 5000, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        retryScheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should classify transient Stripe errors as retryable")
+    void testTransientErrorsAreRetryable() {
+        assertTrue(retryScheduler.isRetryable(new ApiConnectionException("Connection reset")));
+        assertTrue(retryScheduler.isRetryable(new ApiException("Internal error", "req_1", "api_error", 500, null)));
+        assertTrue(retryScheduler.isRetryable(new StripeException("Unavailable", "req_2", null, 503) {}));
+        assertTrue(retryScheduler.isRetryable(new StripeException("Too many requests", "req_3", "rate_limit", 429) {}));
+        assertTrue(retryScheduler.isRetryable(new StripeException("Lock timeout", "req_4", "lock_timeout", 409) {}));
+    }
+
+    @Test
+    @DisplayName("Should classify declines and validation errors as final")
+    void testClientErrorsAreNotRetryable() {
+        assertFalse(retryScheduler.isRetryable(new StripeException("Card declined", "req_1", "card_declined", 402) {}));
+        assertFalse(retryScheduler.isRetryable(new StripeException("Invalid amount", "req_2", "parameter_invalid_integer", 400) {}));
+    }
+
+    @Test
+    @DisplayName("Should keep backoff within the exponential ceiling")
+    void testBackoffCeiling() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(retryScheduler.backoffMillis(1) <= 10);
+            assertTrue(retryScheduler.backoffMillis(2) <= 20);
+            assertTrue(retryScheduler.backoffMillis(10) <= 50);
+        }
+    }
+
+    @Test
+    @DisplayName("Should complete with the result once a retry succeeds")
+    void testRetrySucceedsAfterTransientFailures() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        PaymentIntent intent = new PaymentIntent();
+        intent.setId("pi_retry");
+
+        CompletableFuture<PaymentIntent> result = retryScheduler.retry("test", () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw new ApiConnectionException("Connection reset");
+            }
+            return intent;
+        });
+
+        assertEquals("pi_retry", result.get(5, TimeUnit.SECONDS).getId());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should stop retrying on a non-retryable error")
+    void testRetryStopsOnFinalError() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<PaymentIntent> result = retryScheduler.retry("test", () -> {
+            attempts.incrementAndGet();
+            throw new StripeException("Card declined", "req_1", "card_declined", 402) {};
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StripeException.class, exception.getCause());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should count the deadline from the first attempt, not from scheduling the retry")
+    void testDeadlineFromFirstAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<PaymentIntent> result = retryScheduler.retry("test", Instant.now().minusSeconds(10), () -> {
+            attempts.incrementAndGet();
+            throw new ApiConnectionException("Connection reset");
+        }, (intent, error) -> { });
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should give up after the maximum number of attempts")
+    void testRetryExhaustsAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<PaymentIntent> result = retryScheduler.retry("test", () -> {
+            attempts.incrementAndGet();
+            throw new ApiConnectionException("Connection reset");
+        });
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        // First attempt ran on the request thread, so the scheduler makes max-attempts - 1 calls
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should run attempts on virtual threads when virtual threads are enabled")
+    void testVirtualThreadAttempts() throws Exception {
+        retryScheduler.shutdown();
+        retryScheduler = new StripeRetryScheduler(4, 4, 10, 50, 5000, true);
+
+        CompletableFuture<Boolean> result = retryScheduler.retry("test", () -> Thread.currentThread().isVirtual());
+
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should run attempts and their completions on the payments workload")
+    void testAttemptsUsePaymentsWorkload() throws Exception {
+        CompletableFuture<Workload> completion = new CompletableFuture<>();
+
+        CompletableFuture<Workload> result = retryScheduler.retry("test", Instant.now(), WorkloadRoutingDataSource::current,
+                (workload, error) -> completion.complete(WorkloadRoutingDataSource.current()));
+
+        assertEquals(Workload.PAYMENTS, result.get(5, TimeUnit.SECONDS));
+        assertEquals(Workload.PAYMENTS, completion.get(5, TimeUnit.SECONDS));
+    }
+
+}
@@ -1,10 +1,16 @@
 package com.dev.payment_service.service;
 
+import com.dev.payment_service.config.StripeAccount;
 import com.dev.payment_service.dto.BankTransferDetails;
 import com.dev.payment_service.dto.CreditCardDetails;
+import com.dev.payment_service.enums.GatewayPriority;
+import com.dev.payment_service.exception.GatewayRateLimitException;
+import com.dev.payment_service.model.Money;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.model.PaymentMethod;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentCreateParams;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,9 +21,11 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +33,18 @@ import static org.mockito.Mockito.*;
 @DisplayName("StripeService Unit Tests")
 class StripeServiceTest {
 
+    @Mock
+    private StripeRateLimiter rateLimiter;
+
+    @Mock
+    private StripeHedgingExecutor hedgingExecutor;
+
+    @Mock
+    private StripeAccountRouter accountRouter;
+
+    @Mock
+    private LatencyHistograms latencyHistograms;
+
     @InjectMocks
     private StripeService stripeService;
 
@@ -58,8 +78,8 @@ class StripeServiceTest {
         creditCardDetails.setPaymentMethodId(null);
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
             () -> stripeService.processCreditCardPayment(
-                new BigDecimal("100.00"),
-                "usd",
+                "default",
+                Money.of(new BigDecimal("100.00"), "usd"),
                 creditCardDetails,
                 "idempotency-key-123"
             ));
@@ -73,8 +93,8 @@ class StripeServiceTest {
         creditCardDetails.setPaymentMethodId("");
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
             () -> stripeService.processCreditCardPayment(
-                new BigDecimal("100.00"),
-                "usd",
+                "default",
+                Money.of(new BigDecimal("100.00"), "usd"),
                 creditCardDetails,
                 "idempotency-key-123"
             ));
@@ -82,6 +102,30 @@ class StripeServiceTest {
         assertTrue(exception.getMessage().contains("Payment method ID is required"));
     }
 
+    @Test
+    @DisplayName("Should take live permits for a request and background permits, without waiting, for its retries")
+    void testRetryUsesBackgroundPermits() throws StripeException {
+        Money amount = Money.of(new BigDecimal("100.00"), "usd");
+        when(accountRouter.get("eu")).thenReturn(new StripeAccount("eu", "sk_test_eu", "whsec_eu"));
+
+        try (MockedStatic<PaymentIntent> intents = mockStatic(PaymentIntent.class)) {
+            intents.when(() -> PaymentIntent.create(any(PaymentIntentCreateParams.class), any(RequestOptions.class)))
+                .thenReturn(mockPaymentIntent);
+
+            stripeService.processCreditCardPayment("eu", amount, creditCardDetails, "idempotency-key-123");
+            stripeService.retryCreditCardPayment("eu", amount, creditCardDetails, "idempotency-key-123");
+
+            doThrow(new GatewayRateLimitException("Stripe rate limit", Duration.ofSeconds(1)))
+                .when(rateLimiter).tryAcquire("eu", GatewayPriority.BACKGROUND, 1);
+            assertThrows(GatewayRateLimitException.class,
+                () -> stripeService.retryCreditCardPayment("eu", amount, creditCardDetails, "idempotency-key-123"));
+            intents.verify(() -> PaymentIntent.create(any(PaymentIntentCreateParams.class), any(RequestOptions.class)), times(2));
+        }
+
+        verify(rateLimiter).acquire("eu", GatewayPriority.LIVE, 1);
+        verify(rateLimiter, never()).acquire(eq("eu"), eq(GatewayPriority.BACKGROUND), anyInt());
+    }
+
     @Test
     @DisplayName("Should successfully process credit card payment with mock")
     void testProcessCreditCardPaymentSuccess() {
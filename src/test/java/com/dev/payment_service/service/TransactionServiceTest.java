@@ -31,6 +31,9 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private PaymentMetrics paymentMetrics;
+
     @InjectMocks
     private TransactionService transactionService;
 
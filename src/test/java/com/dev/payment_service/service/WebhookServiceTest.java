@@ -0,0 +1,92 @@
+package com.dev.payment_service.service;
+
+import com.dev.payment_service.config.StripeProperties;
+import com.dev.payment_service.enums.PaymentStatus;
+import com.dev.payment_service.model.Transaction;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.PaymentIntent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebhookService Unit Tests")
+class WebhookServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private PaymentMetrics paymentMetrics;
+
+    private WebhookService webhookService;
+
+    @BeforeEach
+    void setUp() {
+        StripeProperties properties = new StripeProperties();
+        properties.getAccounts().add(account("eu"));
+        properties.getAccounts().add(account("us"));
+        webhookService = new WebhookService(transactionService, paymentMetrics, new StripeAccountRouter(properties));
+    }
+
+    @Test
+    @DisplayName("Should apply a primary account event to a transaction stored under the legacy default id")
+    void testLegacyDefaultAccountMatchesPrimary() {
+        when(transactionService.findByProviderReferenceId("pi_legacy"))
+                .thenReturn(Optional.of(transaction(1L, StripeAccountRouter.DEFAULT_ACCOUNT_ID)));
+
+        webhookService.handleWebhookEvent(succeeded("pi_legacy"), "eu");
+
+        verify(transactionService).updateTransactionStatus(1L, PaymentStatus.COMPLETED, "WEBHOOK_STRIPE");
+    }
+
+    @Test
+    @DisplayName("Should ignore events from a different account than the transaction's")
+    void testOtherAccountIgnored() {
+        when(transactionService.findByProviderReferenceId("pi_eu"))
+                .thenReturn(Optional.of(transaction(2L, "eu")));
+        when(transactionService.findByProviderReferenceId("pi_removed"))
+                .thenReturn(Optional.of(transaction(3L, "removed")));
+
+        webhookService.handleWebhookEvent(succeeded("pi_eu"), "us");
+        webhookService.handleWebhookEvent(succeeded("pi_removed"), "eu");
+
+        verify(transactionService, never()).updateTransactionStatus(anyLong(), any(), anyString());
+    }
+
+    private static Event succeeded(String paymentIntentId) {
+        PaymentIntent intent = new PaymentIntent();
+        intent.setId(paymentIntentId);
+        EventDataObjectDeserializer deserializer = mock(EventDataObjectDeserializer.class);
+        when(deserializer.getObject()).thenReturn(Optional.of(intent));
+        Event event = mock(Event.class);
+        when(event.getType()).thenReturn("payment_intent.succeeded");
+        when(event.getDataObjectDeserializer()).thenReturn(deserializer);
+        return event;
+    }
+
+    private static Transaction transaction(Long id, String account) {
+        Transaction tx = new Transaction();
+        tx.setId(id);
+        tx.setStatus(PaymentStatus.PENDING);
+        tx.setStripeAccount(account);
+        return tx;
+    }
+
+    private static StripeProperties.Account account(String id) {
+        StripeProperties.Account account = new StripeProperties.Account();
+        account.setId(id);
+        account.setSecretKey("sk_test_" + id);
+        account.setWebhookSecret("whsec_" + id);
+        return account;
+    }
+}